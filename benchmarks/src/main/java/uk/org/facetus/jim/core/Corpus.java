@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The source files a benchmark is run over. A corpus is named by the 
+ * {@code corpus} parameter of each benchmark:
+ * <ul>
+ * <li>{@code testfiles} &mdash; the inputs of the unit tests, which are 
+ * small and exercise many grammar rules;</li>
+ * <li>{@code large} &mdash; three files of roughly 1,700, 5,200 and
+ * 17,000 lines, built from the warm up sample bundled with jim-core;</li>
+ * <li>any other value is a directory, and every {@code .java} file 
+ * beneath it is used, e.g. an unpacked {@code src.zip} from a JDK.</li>
+ * </ul>
+ * Files are read into memory when the benchmark is set up, so that file 
+ * system access is not measured.
+ */
+final class Corpus {
+    private static final String TEST_FILE_FOLDER = "/testfiles/";
+    private static final String[] TEST_FILES = {
+        "AntlrIssue1097.java",
+        "DeclarationSkimTest.java",
+        "EinfacherLeereKlasseTest.java",
+        "EnumerationTest.java",
+        "InterfaceTest.java",
+        "LambdaPlain.java",
+        "LocalVariableTest.java",
+        "MoreThanOneTopLevelClass.java",
+        "NestedClassTest.java",
+        "SimpleConstructorAndMethodTest.java",
+        "SimpleTestEmptyClass.java",
+        "TryCatchTest.java",
+        "UmlautBezeichnerTest.java"
+    };
+    
+    private static final String WARM_UP_SAMPLE = "warmup/WarmUpSample.java";
+    private static final String SAMPLE_NAME = "WarmUpSample";
+    private static final int[] LARGE_FILE_COPIES = { 10, 30, 100 };
+    
+    private final List<SourceFile> files;
+    
+    private Corpus( List<SourceFile> files ) {
+        this.files = Collections.unmodifiableList( files );
+    }
+    
+    /**
+     * Loads a corpus.
+     * @param name {@code testfiles}, {@code large} or a directory
+     * @return the corpus
+     * @throws IOException if the files cannot be read
+     */
+    static Corpus load( String name ) throws IOException {
+        switch ( name ) {
+            case "testfiles":
+                return testFiles();
+            case "large":
+                return largeFiles();
+            default:
+                return directory( Paths.get( name ) );
+        }
+    }
+    
+    List<SourceFile> files() {
+        return this.files;
+    }
+    
+    private static Corpus testFiles() throws IOException {
+        List<SourceFile> files = new ArrayList<>();
+        for ( String fileName : TEST_FILES ) {
+            files.add( new SourceFile( fileName, 
+                    resource( TEST_FILE_FOLDER + fileName ) ) );
+        }
+        return new Corpus( files );
+    }
+    
+    // each large file is a package, the sample's imports, and a class 
+    // holding renamed copies of the sample's declarations
+    private static Corpus largeFiles() throws IOException {
+        String sample = new String( 
+                resource( WARM_UP_SAMPLE ), StandardCharsets.UTF_8 );
+        int lastImport = sample.lastIndexOf( "\nimport " );
+        int bodyStart = sample.indexOf( '\n', lastImport + 1 ) + 1;
+        String imports = sample.substring( 
+                sample.indexOf( "\nimport " ) + 1, bodyStart );
+        String body = sample.substring( bodyStart );
+        
+        List<SourceFile> files = new ArrayList<>();
+        for ( int copies : LARGE_FILE_COPIES ) {
+            String className = "LargeInput" + copies;
+            StringBuilder text = new StringBuilder();
+            text.append( "package uk.org.facetus.jim.benchmark;\n\n" )
+                    .append( imports )
+                    .append( "\npublic class " ).append( className ).append( " {\n" );
+            for ( int i = 0; i < copies; i++ ) {
+                text.append( body.replace( SAMPLE_NAME, SAMPLE_NAME + i ) );
+            }
+            text.append( "}\n" );
+            files.add( new SourceFile( className + ".java", 
+                    text.toString().getBytes( StandardCharsets.UTF_8 ) ) );
+        }
+        return new Corpus( files );
+    }
+    
+    private static Corpus directory( Path root ) throws IOException {
+        try ( Stream<Path> paths = Files.walk( root ) ) {
+            List<SourceFile> files = paths
+                    .filter( Files::isRegularFile )
+                    .filter( p -> p.toString().endsWith( ".java" ) )
+                    .sorted()
+                    .map( p -> {
+                        try {
+                            return new SourceFile( 
+                                    p.toString(), Files.readAllBytes( p ) );
+                        }
+                        catch ( IOException e ) {
+                            throw new UncheckedIOException( e );
+                        }
+                    } )
+                    .collect( Collectors.toList() );
+            if ( files.isEmpty() ) {
+                throw new IOException( "No Java files found in " + root );
+            }
+            return new Corpus( files );
+        }
+        catch ( UncheckedIOException e ) {
+            throw e.getCause();
+        }
+    }
+    
+    private static byte[] resource( String name ) throws IOException {
+        try ( InputStream is = Jim.class.getResourceAsStream( name ) ) {
+            if ( is == null ) {
+                throw new IOException( "Missing resource " + name );
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[ 8192 ];
+            int count;
+            while ( ( count = is.read( buffer ) ) != -1 ) {
+                bytes.write( buffer, 0, count );
+            }
+            return bytes.toByteArray();
+        }
+    }
+    
+    
+    /**
+     * A source file held in memory.
+     */
+    static final class SourceFile {
+        private final String name;
+        private final byte[] bytes;
+        
+        SourceFile( String name, byte[] bytes ) {
+            this.name = name;
+            this.bytes = bytes;
+        }
+        
+        String name() {
+            return this.name;
+        }
+        
+        byte[] bytes() {
+            return this.bytes;
+        }
+        
+        String text() {
+            return new String( this.bytes, StandardCharsets.UTF_8 );
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures creating the {@code FileData} for each file of a corpus and 
+ * tokenising the names found. The tokenisation cache is either disabled, 
+ * so every name is tokenised, or enabled, so only the first occurrence 
+ * of each name is. The names are extracted when the benchmark is set up.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class FileDataBenchmark {
+    
+    @Param( { "testfiles", "large" } )
+    public String corpus;
+    
+    @Param( { "FULL", "SIMPLE", "ADAPTIVE" } )
+    public String strategy;
+    
+    @Param( { "false", "true" } )
+    public boolean tokenisationCache;
+    
+    private final List<RawFileData> inputs = new ArrayList<>();
+    private Jim jim;
+    private TokenisationStrategy tokenisationStrategy;
+    
+    @Setup
+    public void setUp() throws IOException, JimParserException {
+        this.tokenisationStrategy = TokenisationStrategy.valueOf( this.strategy );
+        this.jim = new Jim( this.tokenisationStrategy );
+        if ( ! this.tokenisationCache ) {
+            this.jim.tokenisationCacheMaximumSize( 0 );
+        }
+        NameExtractor extractor = this.jim.create();
+        for ( Corpus.SourceFile file : Corpus.load( this.corpus ).files() ) {
+            this.inputs.add( extractor.process( new RawFileData( file.name() ), 
+                    new ByteArrayInputStream( file.bytes() ) ).rawData() );
+        }
+    }
+    
+    @Benchmark
+    public void tokenise( Blackhole blackhole ) {
+        for ( RawFileData input : this.inputs ) {
+            blackhole.consume( new FileData( this.jim.tokenisers(), 
+                    this.jim.tokenisationCache(), this.jim.nameSplitter(), 
+                    this.jim.internPool(), 
+                    input, this.tokenisationStrategy )
+                    .tokenisedNames() );
+        }
+    }
+}
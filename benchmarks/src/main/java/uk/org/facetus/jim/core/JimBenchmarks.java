@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected on the command line, which takes the usual 
+ * JMH options, with the GC profiler enabled so that the allocation rate 
+ * of each benchmark is reported alongside its throughput. For example, 
+ * {@code java -jar target/benchmarks.jar Lexer -p corpus=/path/to/src} 
+ * runs the lexer benchmark over a directory of Java files.
+ */
+public final class JimBenchmarks {
+    
+    private JimBenchmarks() {}
+    
+    public static void main( String[] args ) 
+            throws CommandLineOptionException, RunnerException {
+        Options options = new OptionsBuilder()
+                .parent( new CommandLineOptions( args ) )
+                .addProfiler( GCProfiler.class )
+                .build();
+        new Runner( options ).run();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures lexing each file of a corpus with {@code Java8Lexer}. The 
+ * characters are decoded when the benchmark is set up.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class LexerBenchmark {
+    
+    @Param( { "testfiles", "large" } )
+    public String corpus;
+    
+    private final List<CharStream> inputs = new ArrayList<>();
+    
+    @Setup
+    public void setUp() throws IOException {
+        for ( Corpus.SourceFile file : Corpus.load( this.corpus ).files() ) {
+            this.inputs.add( CharStreams.fromString( file.text(), file.name() ) );
+        }
+    }
+    
+    @Benchmark
+    public void lex( Blackhole blackhole ) {
+        for ( CharStream input : this.inputs ) {
+            input.seek( 0 );
+            CommonTokenStream tokens = 
+                    new CommonTokenStream( Java8Backend.INSTANCE.lexer( input ) );
+            tokens.fill();
+            blackhole.consume( tokens.size() );
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@code NameExtractor.process()} for each file of a corpus, 
+ * from the bytes of the file to the tokenised names, with the default 
+ * settings and either parser backend. A parallel parsing threshold
+ * above 0 parses the members of files with at least that many tokens in 
+ * parallel.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class NameExtractorBenchmark {
+    
+    @Param( { "testfiles", "large" } )
+    public String corpus;
+    
+    @Param( { "JLS", "FAST" } )
+    public String backend;
+    
+    @Param( { "0" } )
+    public int parallelParsingThreshold;
+    
+    private List<Corpus.SourceFile> files;
+    private NameExtractor extractor;
+    
+    @Setup
+    public void setUp() throws IOException {
+        this.files = Corpus.load( this.corpus ).files();
+        Jim jim = new Jim( ParserBackend.valueOf( this.backend ) );
+        jim.parallelParsingThreshold( this.parallelParsingThreshold );
+        this.extractor = jim.create();
+    }
+    
+    @Benchmark
+    public void process( Blackhole blackhole ) 
+            throws IOException, JimParserException {
+        for ( Corpus.SourceFile file : this.files ) {
+            blackhole.consume( this.extractor.process( 
+                    new RawFileData( file.name() ), 
+                    new ByteArrayInputStream( file.bytes() ) ) );
+        }
+    }
+}
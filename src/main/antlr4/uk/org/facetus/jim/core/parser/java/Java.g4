@@ -0,0 +1,1051 @@
+/*
+ * [The "BSD license"]
+ *  Copyright (c) 2014 Terence Parr
+ *  Copyright (c) 2014 Sam Harwell
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *  2. Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *  3. The name of the author may not be used to endorse or promote products
+ *     derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ *  IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ *  OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ *  IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ *  INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ *  NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ *  DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ *  THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ *  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ *  THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+/**
+ * A Java 8 grammar for ANTLR 4 derived from the Java grammar in the 
+ * grammars-v4/java directory.
+ *
+ * Unlike Java8.g4 this grammar does not follow the structure of the 
+ * Java Language Specification. Expressions are a single left recursive 
+ * rule with precedence given by the order of the alternatives, and 
+ * types, names and modifiers are collapsed into a few permissive rules. 
+ * The generated parser makes far fewer predictions per token and so is 
+ * much faster, but accepts some programs the JLS forbids, and does not 
+ * accept type annotations other than before a type. 
+ *
+ * The rules that declare names are kept close to the corresponding rules 
+ * of Java8.g4 so that the same names, with the same species, are 
+ * recovered from both grammars. The lexer rules are those of Java8.g4.
+ */
+grammar Java;
+
+// starting point for parsing a java file
+compilationUnit
+	:	packageDeclaration? importDeclaration* typeDeclaration* EOF
+	;
+
+packageDeclaration
+	:	annotation* 'package' qualifiedName ';'
+	;
+
+importDeclaration
+	:	'import' 'static'? qualifiedName ('.' '*')? ';'
+	;
+
+typeDeclaration
+	:	classOrInterfaceModifier*
+		(	classDeclaration
+		|	enumDeclaration
+		|	interfaceDeclaration
+		|	annotationTypeDeclaration
+		)
+	|	';'
+	;
+
+modifier
+	:	classOrInterfaceModifier
+	|	'native'
+	|	'synchronized'
+	|	'transient'
+	|	'volatile'
+	;
+
+classOrInterfaceModifier
+	:	annotation
+	|	'public'
+	|	'protected'
+	|	'private'
+	|	'static'
+	|	'abstract'
+	|	'final'
+	|	'strictfp'
+	;
+
+variableModifier
+	:	'final'
+	|	annotation
+	;
+
+classDeclaration
+	:	'class' Identifier typeParameters?
+		('extends' typeType)?
+		('implements' typeList)?
+		classBody
+	;
+
+typeParameters
+	:	'<' typeParameter (',' typeParameter)* '>'
+	;
+
+typeParameter
+	:	annotation* Identifier ('extends' typeBound)?
+	;
+
+typeBound
+	:	typeType ('&' typeType)*
+	;
+
+enumDeclaration
+	:	'enum' Identifier ('implements' typeList)? enumBody
+	;
+
+enumBody
+	:	'{' enumConstants? ','? enumBodyDeclarations? '}'
+	;
+
+enumConstants
+	:	enumConstant (',' enumConstant)*
+	;
+
+enumConstant
+	:	annotation* Identifier arguments? classBody?
+	;
+
+enumBodyDeclarations
+	:	';' classBodyDeclaration*
+	;
+
+interfaceDeclaration
+	:	'interface' Identifier typeParameters? ('extends' typeList)? interfaceBody
+	;
+
+typeList
+	:	typeType (',' typeType)*
+	;
+
+classBody
+	:	'{' classBodyDeclaration* '}'
+	;
+
+interfaceBody
+	:	'{' interfaceBodyDeclaration* '}'
+	;
+
+classBodyDeclaration
+	:	';'
+	|	'static'? block
+	|	modifier* memberDeclaration
+	;
+
+memberDeclaration
+	:	methodDeclaration
+	|	genericMethodDeclaration
+	|	fieldDeclaration
+	|	constructorDeclaration
+	|	genericConstructorDeclaration
+	|	interfaceDeclaration
+	|	annotationTypeDeclaration
+	|	classDeclaration
+	|	enumDeclaration
+	;
+
+methodDeclaration
+	:	typeTypeOrVoid methodDeclarator ('throws' qualifiedNameList)? methodBody
+	;
+
+methodDeclarator
+	:	Identifier formalParameters ('[' ']')*
+	;
+
+methodBody
+	:	block
+	|	';'
+	;
+
+typeTypeOrVoid
+	:	typeType
+	|	'void'
+	;
+
+genericMethodDeclaration
+	:	typeParameters methodDeclaration
+	;
+
+genericConstructorDeclaration
+	:	typeParameters constructorDeclaration
+	;
+
+constructorDeclaration
+	:	constructorDeclarator ('throws' qualifiedNameList)? block
+	;
+
+constructorDeclarator
+	:	Identifier formalParameters
+	;
+
+fieldDeclaration
+	:	typeType variableDeclarators ';'
+	;
+
+interfaceBodyDeclaration
+	:	';'
+	|	(modifier | 'default')* interfaceMemberDeclaration
+	;
+
+// interface constants and methods have the same form as fields and 
+// methods in a class
+interfaceMemberDeclaration
+	:	constantDeclaration
+	|	methodDeclaration
+	|	genericMethodDeclaration
+	|	interfaceDeclaration
+	|	annotationTypeDeclaration
+	|	classDeclaration
+	|	enumDeclaration
+	;
+
+constantDeclaration
+	:	typeType variableDeclarators ';'
+	;
+
+variableDeclarators
+	:	variableDeclarator (',' variableDeclarator)*
+	;
+
+variableDeclarator
+	:	variableDeclaratorId ('=' variableInitializer)?
+	;
+
+variableDeclaratorId
+	:	Identifier ('[' ']')*
+	;
+
+variableInitializer
+	:	arrayInitializer
+	|	expression
+	;
+
+arrayInitializer
+	:	'{' (variableInitializer (',' variableInitializer)* ','? )? '}'
+	;
+
+classOrInterfaceType
+	:	Identifier typeArguments? ('.' Identifier typeArguments?)*
+	;
+
+typeArgument
+	:	typeType
+	|	annotation* '?' (('extends' | 'super') typeType)?
+	;
+
+qualifiedNameList
+	:	qualifiedName (',' qualifiedName)*
+	;
+
+formalParameters
+	:	'(' formalParameterList? ')'
+	;
+
+formalParameterList
+	:	(receiverParameter | formalParameter) (',' formalParameter)* (',' lastFormalParameter)?
+	|	lastFormalParameter
+	;
+
+receiverParameter
+	:	typeType (Identifier '.')* 'this'
+	;
+
+formalParameter
+	:	variableModifier* typeType variableDeclaratorId
+	;
+
+lastFormalParameter
+	:	variableModifier* typeType annotation* '...' variableDeclaratorId
+	;
+
+qualifiedName
+	:	Identifier ('.' Identifier)*
+	;
+
+literal
+	:	IntegerLiteral
+	|	FloatingPointLiteral
+	|	CharacterLiteral
+	|	StringLiteral
+	|	BooleanLiteral
+	|	NullLiteral
+	;
+
+// ANNOTATIONS
+
+annotation
+	:	'@' qualifiedName ('(' (elementValuePairs | elementValue)? ')')?
+	;
+
+elementValuePairs
+	:	elementValuePair (',' elementValuePair)*
+	;
+
+elementValuePair
+	:	Identifier '=' elementValue
+	;
+
+elementValue
+	:	expression
+	|	annotation
+	|	elementValueArrayInitializer
+	;
+
+elementValueArrayInitializer
+	:	'{' (elementValue (',' elementValue)*)? ','? '}'
+	;
+
+annotationTypeDeclaration
+	:	'@' 'interface' Identifier annotationTypeBody
+	;
+
+annotationTypeBody
+	:	'{' annotationTypeMemberDeclaration* '}'
+	;
+
+annotationTypeMemberDeclaration
+	:	modifier* annotationTypeMemberRest
+	|	';'
+	;
+
+annotationTypeMemberRest
+	:	annotationTypeElementDeclaration
+	|	constantDeclaration
+	|	classDeclaration ';'?
+	|	interfaceDeclaration ';'?
+	|	enumDeclaration ';'?
+	|	annotationTypeDeclaration ';'?
+	;
+
+annotationTypeElementDeclaration
+	:	typeType Identifier '(' ')' ('[' ']')* defaultValue? ';'
+	;
+
+defaultValue
+	:	'default' elementValue
+	;
+
+// STATEMENTS / BLOCKS
+
+block
+	:	'{' blockStatement* '}'
+	;
+
+blockStatement
+	:	localVariableDeclaration ';'
+	|	statement
+	|	localTypeDeclaration
+	;
+
+localVariableDeclaration
+	:	variableModifier* typeType variableDeclarators
+	;
+
+localTypeDeclaration
+	:	classOrInterfaceModifier*
+		(	classDeclaration
+		|	enumDeclaration
+		|	interfaceDeclaration
+		)
+	|	';'
+	;
+
+statement
+	:	block
+	|	'assert' expression (':' expression)? ';'
+	|	'if' parExpression statement ('else' statement)?
+	|	'for' '(' forControl ')' statement
+	|	'while' parExpression statement
+	|	'do' statement 'while' parExpression ';'
+	|	'try' block (catchClause+ finally_? | finally_)
+	|	'try' resourceSpecification block catchClause* finally_?
+	|	'switch' parExpression '{' switchBlockStatementGroup* switchLabel* '}'
+	|	'synchronized' parExpression block
+	|	'return' expression? ';'
+	|	'throw' expression ';'
+	|	'break' Identifier? ';'
+	|	'continue' Identifier? ';'
+	|	';'
+	|	expression ';'
+	|	labeledStatement
+	;
+
+labeledStatement
+	:	Identifier ':' statement
+	;
+
+catchClause
+	:	'catch' '(' catchFormalParameter ')' block
+	;
+
+catchFormalParameter
+	:	variableModifier* catchType variableDeclaratorId
+	;
+
+catchType
+	:	qualifiedName ('|' qualifiedName)*
+	;
+
+finally_
+	:	'finally' block
+	;
+
+resourceSpecification
+	:	'(' resource (';' resource)* ';'? ')'
+	;
+
+resource
+	:	variableModifier* classOrInterfaceType variableDeclaratorId '=' expression
+	;
+
+// Matches cases then statements, both of which are mandatory.
+// To handle empty cases at the end, we add switchLabel* to statement.
+switchBlockStatementGroup
+	:	switchLabel+ blockStatement+
+	;
+
+switchLabel
+	:	'case' expression ':'
+	|	'default' ':'
+	;
+
+forControl
+	:	enhancedForControl
+	|	forInit? ';' expression? ';' expressionList?
+	;
+
+forInit
+	:	localVariableDeclaration
+	|	expressionList
+	;
+
+enhancedForControl
+	:	variableModifier* typeType variableDeclaratorId ':' expression
+	;
+
+// EXPRESSIONS
+
+parExpression
+	:	'(' expression ')'
+	;
+
+expressionList
+	:	expression (',' expression)*
+	;
+
+expression
+	:	primary
+	|	expression '.'
+		(	Identifier
+		|	'this'
+		|	'new' nonWildcardTypeArguments? innerCreator
+		|	'super' superSuffix
+		|	explicitGenericInvocation
+		)
+	|	expression '[' expression ']'
+	|	expression arguments
+	|	'new' creator
+	|	'(' annotation* typeType ('&' typeType)* ')' expression
+	|	expression ('++' | '--')
+	|	('+' | '-' | '++' | '--') expression
+	|	('~' | '!') expression
+	|	expression ('*' | '/' | '%') expression
+	|	expression ('+' | '-') expression
+	|	expression ('<' '<' | '>' '>' '>' | '>' '>') expression
+	|	expression ('<=' | '>=' | '>' | '<') expression
+	|	expression 'instanceof' typeType
+	|	expression ('==' | '!=') expression
+	|	expression '&' expression
+	|	expression '^' expression
+	|	expression '|' expression
+	|	expression '&&' expression
+	|	expression '||' expression
+	|	<assoc=right> expression '?' expression ':' expression
+	|	<assoc=right> expression
+		(	'='
+		|	'+='
+		|	'-='
+		|	'*='
+		|	'/='
+		|	'&='
+		|	'|='
+		|	'^='
+		|	'>>='
+		|	'>>>='
+		|	'<<='
+		|	'%='
+		)
+		expression
+	|	lambdaExpression
+	|	expression '::' typeArguments? Identifier
+	|	typeType '::' (typeArguments? Identifier | 'new')
+	;
+
+lambdaExpression
+	:	lambdaParameters '->' lambdaBody
+	;
+
+lambdaParameters
+	:	Identifier
+	|	'(' formalParameterList? ')'
+	|	'(' inferredFormalParameterList ')'
+	;
+
+inferredFormalParameterList
+	:	Identifier (',' Identifier)*
+	;
+
+lambdaBody
+	:	expression
+	|	block
+	;
+
+primary
+	:	'(' expression ')'
+	|	'this'
+	|	'super'
+	|	literal
+	|	Identifier
+	|	typeTypeOrVoid '.' 'class'
+	|	nonWildcardTypeArguments (explicitGenericInvocationSuffix | 'this' arguments)
+	;
+
+creator
+	:	nonWildcardTypeArguments createdName classCreatorRest
+	|	createdName (arrayCreatorRest | classCreatorRest)
+	;
+
+createdName
+	:	annotation* Identifier typeArgumentsOrDiamond? ('.' Identifier typeArgumentsOrDiamond?)*
+	|	primitiveType
+	;
+
+innerCreator
+	:	Identifier nonWildcardTypeArgumentsOrDiamond? classCreatorRest
+	;
+
+arrayCreatorRest
+	:	'['
+		(	']' ('[' ']')* arrayInitializer
+		|	expression ']' ('[' expression ']')* ('[' ']')*
+		)
+	;
+
+classCreatorRest
+	:	arguments classBody?
+	;
+
+explicitGenericInvocation
+	:	nonWildcardTypeArguments explicitGenericInvocationSuffix
+	;
+
+typeArgumentsOrDiamond
+	:	'<' '>'
+	|	typeArguments
+	;
+
+nonWildcardTypeArgumentsOrDiamond
+	:	'<' '>'
+	|	nonWildcardTypeArguments
+	;
+
+nonWildcardTypeArguments
+	:	'<' typeList '>'
+	;
+
+typeType
+	:	annotation* (classOrInterfaceType | primitiveType) ('[' ']')*
+	;
+
+primitiveType
+	:	'boolean'
+	|	'char'
+	|	'byte'
+	|	'short'
+	|	'int'
+	|	'long'
+	|	'float'
+	|	'double'
+	;
+
+typeArguments
+	:	'<' typeArgument (',' typeArgument)* '>'
+	;
+
+superSuffix
+	:	arguments
+	|	'.' Identifier arguments?
+	;
+
+explicitGenericInvocationSuffix
+	:	'super' superSuffix
+	|	Identifier arguments
+	;
+
+arguments
+	:	'(' expressionList? ')'
+	;
+
+// LEXER
+
+// §3.9 Keywords
+
+ABSTRACT : 'abstract';
+ASSERT : 'assert';
+BOOLEAN : 'boolean';
+BREAK : 'break';
+BYTE : 'byte';
+CASE : 'case';
+CATCH : 'catch';
+CHAR : 'char';
+CLASS : 'class';
+CONST : 'const';
+CONTINUE : 'continue';
+DEFAULT : 'default';
+DO : 'do';
+DOUBLE : 'double';
+ELSE : 'else';
+ENUM : 'enum';
+EXTENDS : 'extends';
+FINAL : 'final';
+FINALLY : 'finally';
+FLOAT : 'float';
+FOR : 'for';
+IF : 'if';
+GOTO : 'goto';
+IMPLEMENTS : 'implements';
+IMPORT : 'import';
+INSTANCEOF : 'instanceof';
+INT : 'int';
+INTERFACE : 'interface';
+LONG : 'long';
+NATIVE : 'native';
+NEW : 'new';
+PACKAGE : 'package';
+PRIVATE : 'private';
+PROTECTED : 'protected';
+PUBLIC : 'public';
+RETURN : 'return';
+SHORT : 'short';
+STATIC : 'static';
+STRICTFP : 'strictfp';
+SUPER : 'super';
+SWITCH : 'switch';
+SYNCHRONIZED : 'synchronized';
+THIS : 'this';
+THROW : 'throw';
+THROWS : 'throws';
+TRANSIENT : 'transient';
+TRY : 'try';
+VOID : 'void';
+VOLATILE : 'volatile';
+WHILE : 'while';
+
+// §3.10.1 Integer Literals
+
+IntegerLiteral
+	:	DecimalIntegerLiteral
+	|	HexIntegerLiteral
+	|	OctalIntegerLiteral
+	|	BinaryIntegerLiteral
+	;
+
+fragment
+DecimalIntegerLiteral
+	:	DecimalNumeral IntegerTypeSuffix?
+	;
+
+fragment
+HexIntegerLiteral
+	:	HexNumeral IntegerTypeSuffix?
+	;
+
+fragment
+OctalIntegerLiteral
+	:	OctalNumeral IntegerTypeSuffix?
+	;
+
+fragment
+BinaryIntegerLiteral
+	:	BinaryNumeral IntegerTypeSuffix?
+	;
+
+fragment
+IntegerTypeSuffix
+	:	[lL]
+	;
+
+fragment
+DecimalNumeral
+	:	'0'
+	|	NonZeroDigit (Digits? | Underscores Digits)
+	;
+
+fragment
+Digits
+	:	Digit (DigitsAndUnderscores? Digit)?
+	;
+
+fragment
+Digit
+	:	'0'
+	|	NonZeroDigit
+	;
+
+fragment
+NonZeroDigit
+	:	[1-9]
+	;
+
+fragment
+DigitsAndUnderscores
+	:	DigitOrUnderscore+
+	;
+
+fragment
+DigitOrUnderscore
+	:	Digit
+	|	'_'
+	;
+
+fragment
+Underscores
+	:	'_'+
+	;
+
+fragment
+HexNumeral
+	:	'0' [xX] HexDigits
+	;
+
+fragment
+HexDigits
+	:	HexDigit (HexDigitsAndUnderscores? HexDigit)?
+	;
+
+fragment
+HexDigit
+	:	[0-9a-fA-F]
+	;
+
+fragment
+HexDigitsAndUnderscores
+	:	HexDigitOrUnderscore+
+	;
+
+fragment
+HexDigitOrUnderscore
+	:	HexDigit
+	|	'_'
+	;
+
+fragment
+OctalNumeral
+	:	'0' Underscores? OctalDigits
+	;
+
+fragment
+OctalDigits
+	:	OctalDigit (OctalDigitsAndUnderscores? OctalDigit)?
+	;
+
+fragment
+OctalDigit
+	:	[0-7]
+	;
+
+fragment
+OctalDigitsAndUnderscores
+	:	OctalDigitOrUnderscore+
+	;
+
+fragment
+OctalDigitOrUnderscore
+	:	OctalDigit
+	|	'_'
+	;
+
+fragment
+BinaryNumeral
+	:	'0' [bB] BinaryDigits
+	;
+
+fragment
+BinaryDigits
+	:	BinaryDigit (BinaryDigitsAndUnderscores? BinaryDigit)?
+	;
+
+fragment
+BinaryDigit
+	:	[01]
+	;
+
+fragment
+BinaryDigitsAndUnderscores
+	:	BinaryDigitOrUnderscore+
+	;
+
+fragment
+BinaryDigitOrUnderscore
+	:	BinaryDigit
+	|	'_'
+	;
+
+// §3.10.2 Floating-Point Literals
+
+FloatingPointLiteral
+	:	DecimalFloatingPointLiteral
+	|	HexadecimalFloatingPointLiteral
+	;
+
+fragment
+DecimalFloatingPointLiteral
+	:	Digits '.' Digits? ExponentPart? FloatTypeSuffix?
+	|	'.' Digits ExponentPart? FloatTypeSuffix?
+	|	Digits ExponentPart FloatTypeSuffix?
+	|	Digits FloatTypeSuffix
+	;
+
+fragment
+ExponentPart
+	:	ExponentIndicator SignedInteger
+	;
+
+fragment
+ExponentIndicator
+	:	[eE]
+	;
+
+fragment
+SignedInteger
+	:	Sign? Digits
+	;
+
+fragment
+Sign
+	:	[+-]
+	;
+
+fragment
+FloatTypeSuffix
+	:	[fFdD]
+	;
+
+fragment
+HexadecimalFloatingPointLiteral
+	:	HexSignificand BinaryExponent FloatTypeSuffix?
+	;
+
+fragment
+HexSignificand
+	:	HexNumeral '.'?
+	|	'0' [xX] HexDigits? '.' HexDigits
+	;
+
+fragment
+BinaryExponent
+	:	BinaryExponentIndicator SignedInteger
+	;
+
+fragment
+BinaryExponentIndicator
+	:	[pP]
+	;
+
+// §3.10.3 Boolean Literals
+
+BooleanLiteral
+	:	'true'
+	|	'false'
+	;
+
+// §3.10.4 Character Literals
+
+CharacterLiteral
+	:	'\'' SingleCharacter '\''
+	|	'\'' EscapeSequence '\''
+	;
+
+fragment
+SingleCharacter
+	:	~['\\\r\n]
+	;
+// §3.10.5 String Literals
+StringLiteral
+	:	'"' StringCharacters? '"'
+	;
+fragment
+StringCharacters
+	:	StringCharacter+
+	;
+fragment
+StringCharacter
+	:	~["\\\r\n]
+	|	EscapeSequence
+	;
+// §3.10.6 Escape Sequences for Character and String Literals
+fragment
+EscapeSequence
+	:	'\\' [btnfr"'\\]
+	|	OctalEscape
+    |   UnicodeEscape // This is not in the spec but prevents having to preprocess the input
+	;
+
+fragment
+OctalEscape
+	:	'\\' OctalDigit
+	|	'\\' OctalDigit OctalDigit
+	|	'\\' ZeroToThree OctalDigit OctalDigit
+	;
+
+fragment
+ZeroToThree
+	:	[0-3]
+	;
+
+// This is not in the spec but prevents having to preprocess the input
+fragment
+UnicodeEscape
+    :   '\\' 'u'+  HexDigit HexDigit HexDigit HexDigit
+    ;
+
+// §3.10.7 The Null Literal
+
+NullLiteral
+	:	'null'
+	;
+
+// §3.11 Separators
+
+LPAREN : '(';
+RPAREN : ')';
+LBRACE : '{';
+RBRACE : '}';
+LBRACK : '[';
+RBRACK : ']';
+SEMI : ';';
+COMMA : ',';
+DOT : '.';
+
+// §3.12 Operators
+
+ASSIGN : '=';
+GT : '>';
+LT : '<';
+BANG : '!';
+TILDE : '~';
+QUESTION : '?';
+COLON : ':';
+EQUAL : '==';
+LE : '<=';
+GE : '>=';
+NOTEQUAL : '!=';
+AND : '&&';
+OR : '||';
+INC : '++';
+DEC : '--';
+ADD : '+';
+SUB : '-';
+MUL : '*';
+DIV : '/';
+BITAND : '&';
+BITOR : '|';
+CARET : '^';
+MOD : '%';
+ARROW : '->';
+COLONCOLON : '::';
+
+ADD_ASSIGN : '+=';
+SUB_ASSIGN : '-=';
+MUL_ASSIGN : '*=';
+DIV_ASSIGN : '/=';
+AND_ASSIGN : '&=';
+OR_ASSIGN : '|=';
+XOR_ASSIGN : '^=';
+MOD_ASSIGN : '%=';
+LSHIFT_ASSIGN : '<<=';
+RSHIFT_ASSIGN : '>>=';
+URSHIFT_ASSIGN : '>>>=';
+
+// §3.8 Identifiers (must appear after all keywords in the grammar)
+
+Identifier
+	:	JavaLetter JavaLetterOrDigit*
+	;
+
+// The Java letters and digits above 0x7F are given as Unicode categories
+// rather than as predicates calling Character.isJavaIdentifierStart() and
+// Character.isJavaIdentifierPart(). The lexer never caches a DFA state
+// reached through a predicate, so a single non-ASCII letter forced the
+// remainder of the identifier, and every later identifier sharing the
+// path, to be lexed by simulating the ATN. The categories are those used
+// by Character, resolved against the Unicode version of the ANTLR tool
+// when the lexer is generated. Characters above U+FFFF arrive as single
+// code points from CharStreams, so no surrogate handling is needed.
+
+fragment
+JavaLetter
+	:	[a-zA-Z$_] // these are the "java letters" below 0x7F
+	|	NonAsciiJavaLetter
+	;
+
+fragment
+JavaLetterOrDigit
+	:	[a-zA-Z0-9$_] // these are the "java letters or digits" below 0x7F
+	|	NonAsciiJavaLetter
+	|	NonAsciiJavaDigit
+	;
+
+fragment
+NonAsciiJavaLetter
+	:	[\p{Lu}\p{Ll}\p{Lt}\p{Lm}\p{Lo}\p{Nl}\p{Sc}\p{Pc}] // isJavaIdentifierStart()
+	;
+
+fragment
+NonAsciiJavaDigit
+	:	[\p{Nd}\p{Mn}\p{Mc}\p{Cf}\u0080-\u009F] // remainder of isJavaIdentifierPart()
+	;
+
+//
+// Additional symbols not defined in the lexical specification
+//
+
+AT : '@';
+ELLIPSIS : '...';
+
+//
+// Whitespace and comments
+//
+
+WS  :  [ \t\r\n\u000C]+ -> skip
+    ;
+
+COMMENT
+    :   '/*' .*? '*/' -> skip
+    ;
+
+LINE_COMMENT
+    :   '//' ~[\r\n]* -> skip
+    ;
@@ -1724,26 +1724,37 @@ Identifier
 	:	JavaLetter JavaLetterOrDigit*
 	;
 
+// The Java letters and digits above 0x7F are given as Unicode categories
+// rather than as predicates calling Character.isJavaIdentifierStart() and
+// Character.isJavaIdentifierPart(). The lexer never caches a DFA state
+// reached through a predicate, so a single non-ASCII letter forced the
+// remainder of the identifier, and every later identifier sharing the
+// path, to be lexed by simulating the ATN. The categories are those used
+// by Character, resolved against the Unicode version of the ANTLR tool
+// when the lexer is generated. Characters above U+FFFF arrive as single
+// code points from CharStreams, so no surrogate handling is needed.
+
 fragment
 JavaLetter
 	:	[a-zA-Z$_] // these are the "java letters" below 0x7F
-	|	// covers all characters above 0x7F which are not a surrogate
-		~[\u0000-\u007F\uD800-\uDBFF]
-		{Character.isJavaIdentifierStart(_input.LA(-1))}?
-	|	// covers UTF-16 surrogate pairs encodings for U+10000 to U+10FFFF
-		[\uD800-\uDBFF] [\uDC00-\uDFFF]
-		{Character.isJavaIdentifierStart(Character.toCodePoint((char)_input.LA(-2), (char)_input.LA(-1)))}?
+	|	NonAsciiJavaLetter
 	;
 
 fragment
 JavaLetterOrDigit
 	:	[a-zA-Z0-9$_] // these are the "java letters or digits" below 0x7F
-	|	// covers all characters above 0x7F which are not a surrogate
-		~[\u0000-\u007F\uD800-\uDBFF]
-		{Character.isJavaIdentifierPart(_input.LA(-1))}?
-	|	// covers UTF-16 surrogate pairs encodings for U+10000 to U+10FFFF
-		[\uD800-\uDBFF] [\uDC00-\uDFFF]
-		{Character.isJavaIdentifierPart(Character.toCodePoint((char)_input.LA(-2), (char)_input.LA(-1)))}?
+	|	NonAsciiJavaLetter
+	|	NonAsciiJavaDigit
+	;
+
+fragment
+NonAsciiJavaLetter
+	:	[\p{Lu}\p{Ll}\p{Lt}\p{Lm}\p{Lo}\p{Nl}\p{Sc}\p{Pc}] // isJavaIdentifierStart()
+	;
+
+fragment
+NonAsciiJavaDigit
+	:	[\p{Nd}\p{Mn}\p{Mc}\p{Cf}\u0080-\u009F] // remainder of isJavaIdentifierPart()
 	;
 
 //
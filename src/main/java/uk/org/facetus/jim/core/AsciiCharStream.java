@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * A character stream that reads ASCII source directly from a byte 
+ * buffer, so that a file is lexed from the buffer it was read into 
+ * without being copied or decoded. Each byte is a code point. ANTLR's own 
+ * streams copy the bytes into a buffer of code points first. The buffer 
+ * is only read with absolute methods, so token text may be retrieved from 
+ * more than one thread.
+ */
+class AsciiCharStream implements CharStream {
+    
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    
+    private final ByteBuffer source;
+    private final int start;
+    private final int size;
+    private final String sourceName;
+    private int position = 0;
+    
+    /**
+     * Creates a stream of the remaining bytes of a buffer.
+     * @param source ASCII source code
+     * @param sourceName the name of the source
+     */
+    AsciiCharStream( ByteBuffer source, String sourceName ) {
+        this.source = source;
+        this.start = source.position();
+        this.size = source.remaining();
+        this.sourceName = sourceName;
+    }
+    
+    /**
+     * Determines whether the remaining bytes of a buffer are all ASCII, 
+     * testing eight bytes at a time.
+     * @param bytes the bytes to test
+     * @return {@code true} if no byte has its high bit set
+     */
+    static boolean isAscii( ByteBuffer bytes ) {
+        ByteBuffer b = bytes.duplicate().order( ByteOrder.nativeOrder() );
+        int i = b.position();
+        int limit = b.limit();
+        for ( ; i + Long.BYTES <= limit; i += Long.BYTES ) {
+            if ( ( b.getLong( i ) & HIGH_BITS ) != 0 ) {
+                return false;
+            }
+        }
+        for ( ; i < limit; i++ ) {
+            if ( b.get( i ) < 0 ) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public void consume() {
+        if ( this.position >= this.size ) {
+            throw new IllegalStateException( "cannot consume EOF" );
+        }
+        this.position++;
+    }
+    
+    @Override
+    public int LA( int i ) {
+        int offset;
+        if ( i > 0 ) {
+            offset = this.position + i - 1;
+            if ( offset >= this.size ) {
+                return IntStream.EOF;
+            }
+        }
+        else if ( i < 0 ) {
+            offset = this.position + i;
+            if ( offset < 0 ) {
+                return IntStream.EOF;
+            }
+        }
+        else {
+            return 0;  // undefined
+        }
+        return this.source.get( this.start + offset );
+    }
+    
+    @Override
+    public int mark() {
+        return -1;  // the whole source is available
+    }
+    
+    @Override
+    public void release( int marker ) {
+    }
+    
+    @Override
+    public int index() {
+        return this.position;
+    }
+    
+    @Override
+    public void seek( int index ) {
+        this.position = index;
+    }
+    
+    @Override
+    public int size() {
+        return this.size;
+    }
+    
+    @Override
+    public String getSourceName() {
+        return this.sourceName;
+    }
+    
+    @Override
+    public String getText( Interval interval ) {
+        int from = Math.min( interval.a, this.size );
+        int length = Math.min( interval.b - interval.a + 1, this.size - from );
+        if ( length <= 0 ) {
+            return "";
+        }
+        byte[] text = new byte[ length ];
+        for ( int i = 0; i < length; i++ ) {
+            text[i] = this.source.get( this.start + from + i );
+        }
+        return new String( text, StandardCharsets.ISO_8859_1 );
+    }
+    
+    @Override
+    public String toString() {
+        return getText( Interval.of( 0, this.size - 1 ) );
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import uk.ac.open.crc.idtk.Species;
+import uk.ac.open.crc.idtk.TypeName;
+
+/**
+ * The program entities of a file held in parallel arrays, in the order 
+ * a depth first traversal of the entity tree visits them. Each entity 
+ * has the index of its parent, the index following its last descendant, 
+ * the ordinal of its species and the index of its name in a table of the 
+ * distinct names in the file. The few type names recorded are held 
+ * separately.
+ * 
+ * <p>A tree of {@code ProgramEntity} objects needs several objects for 
+ * each entity, including a list of children for every entity, most of 
+ * them empty. Holding the entities in arrays makes the memory needed 
+ * proportional to the number of entities, with a small constant. The 
+ * tree remains available as read only {@code ProgramEntity} views created 
+ * as they are requested.</p>
+ */
+final class CompactEntityTree {
+    private static final Species[] SPECIES = Species.values();
+    private static final byte NO_SPECIES = -1;
+    private static final int ROOT = -1;
+    
+    private final int[] parents;
+    private final int[] ends;
+    private final byte[] species;
+    private final int[] nameIds;
+    private final String[] nameTable;
+    private final Map<Integer, TypeName> typeNames;
+    
+    private CompactEntityTree( 
+            int[] parents, 
+            int[] ends, 
+            byte[] species, 
+            int[] nameIds, 
+            String[] nameTable, 
+            Map<Integer, TypeName> typeNames ) {
+        this.parents = parents;
+        this.ends = ends;
+        this.species = species;
+        this.nameIds = nameIds;
+        this.nameTable = nameTable;
+        this.typeNames = typeNames;
+    }
+    
+    /**
+     * Copies a tree of program entities.
+     * @param topLevelEntities the roots of the tree
+     * @param internPool canonicalises the names in the name table
+     * @return a compact copy of the tree
+     */
+    static CompactEntityTree of( 
+            List<ProgramEntity> topLevelEntities, 
+            InternPool internPool ) {
+        Builder builder = new Builder( count( topLevelEntities ) );
+        topLevelEntities.forEach( entity -> builder.add( entity, ROOT ) );
+        return builder.build( internPool );
+    }
+    
+    /**
+     * The number of entities in the tree.
+     * @return the number of entities
+     */
+    int size() {
+        return this.parents.length;
+    }
+    
+    /**
+     * The index of the parent of an entity.
+     * @param index the index of an entity
+     * @return the index of the parent, or -1 for a top level entity
+     */
+    int parent( int index ) {
+        return this.parents[ index ];
+    }
+    
+    Species species( int index ) {
+        byte ordinal = this.species[ index ];
+        return ordinal == NO_SPECIES ? null : SPECIES[ ordinal ];
+    }
+    
+    String identifierName( int index ) {
+        return this.nameTable[ this.nameIds[ index ] ];
+    }
+    
+    TypeName typeName( int index ) {
+        return this.typeNames.get( index );
+    }
+    
+    /**
+     * The top level entities.
+     * @return a read only list of views of the top level entities
+     */
+    List<ProgramEntity> topLevelEntities() {
+        return new Children( ROOT );
+    }
+    
+    /**
+     * The children of an entity.
+     * @param index the index of an entity
+     * @return a read only list of views of the children
+     */
+    List<ProgramEntity> children( int index ) {
+        return this.ends[ index ] == index + 1 
+                ? Collections.emptyList() 
+                : new Children( index );
+    }
+    
+    /**
+     * The names of all the entities, in depth first order.
+     * @return a read only list of names
+     */
+    List<String> names() {
+        return new AbstractList<String>() {
+            @Override
+            public String get( int index ) {
+                return identifierName( index );
+            }
+
+            @Override
+            public int size() {
+                return CompactEntityTree.this.size();
+            }
+        };
+    }
+    
+    private static int count( List<ProgramEntity> entities ) {
+        int count = entities.size();
+        for ( ProgramEntity entity : entities ) {
+            count += count( entity.children() );
+        }
+        return count;
+    }
+    
+    
+    // the children of an entity are found by skipping from each child 
+    // to the end of its descendants
+    private class Children extends AbstractList<ProgramEntity> {
+        private final int parent;
+        private int[] indices = null;
+        
+        Children( int parent ) {
+            this.parent = parent;
+        }
+        
+        @Override
+        public ProgramEntity get( int index ) {
+            return new ProgramEntity( CompactEntityTree.this, indices()[ index ] );
+        }
+        
+        @Override
+        public int size() {
+            return indices().length;
+        }
+        
+        private int[] indices() {
+            if ( this.indices == null ) {
+                int first = this.parent + 1;
+                int end = this.parent == ROOT 
+                        ? CompactEntityTree.this.size() 
+                        : CompactEntityTree.this.ends[ this.parent ];
+                int count = 0;
+                for ( int i = first; i < end; i = CompactEntityTree.this.ends[ i ] ) {
+                    count++;
+                }
+                int[] found = new int[ count ];
+                count = 0;
+                for ( int i = first; i < end; i = CompactEntityTree.this.ends[ i ] ) {
+                    found[ count++ ] = i;
+                }
+                this.indices = found;
+            }
+            return this.indices;
+        }
+    }
+    
+    
+    private static class Builder {
+        private final int[] parents;
+        private final int[] ends;
+        private final byte[] species;
+        private final int[] nameIds;
+        private final Map<String, Integer> nameTable = new HashMap<>();
+        private final Map<Integer, TypeName> typeNames = new HashMap<>();
+        private int size = 0;
+        
+        Builder( int capacity ) {
+            this.parents = new int[ capacity ];
+            this.ends = new int[ capacity ];
+            this.species = new byte[ capacity ];
+            this.nameIds = new int[ capacity ];
+        }
+        
+        void add( ProgramEntity entity, int parent ) {
+            int index = this.size++;
+            this.parents[ index ] = parent;
+            Species entitySpecies = entity.species();
+            this.species[ index ] = entitySpecies == null 
+                    ? NO_SPECIES : (byte) entitySpecies.ordinal();
+            Integer nameId = this.nameTable.get( entity.identifierName() );
+            if ( nameId == null ) {
+                nameId = this.nameTable.size();
+                this.nameTable.put( entity.identifierName(), nameId );
+            }
+            this.nameIds[ index ] = nameId;
+            if ( entity.typeName() != null ) {
+                this.typeNames.put( index, entity.typeName() );
+            }
+            entity.children().forEach( child -> add( child, index ) );
+            this.ends[ index ] = this.size;
+        }
+        
+        CompactEntityTree build( InternPool internPool ) {
+            String[] names = new String[ this.nameTable.size() ];
+            this.nameTable.forEach( ( name, id ) -> 
+                    names[ id ] = internPool.intern( name ) );
+            return new CompactEntityTree( this.parents, this.ends, this.species, 
+                    this.nameIds, names, 
+                    this.typeNames.isEmpty() 
+                            ? Collections.emptyMap() 
+                            : new HashMap<>( this.typeNames ) );
+        }
+    }
+}
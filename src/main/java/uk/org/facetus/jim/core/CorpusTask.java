@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Processes a list of files on a fork/join pool. The list is split in 
+ * half recursively, so that idle workers steal the unprocessed halves 
+ * from busy ones, and each worker thread processes files with its own 
+ * {@code NameExtractor}.
+ */
+class CorpusTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Shared shared;
+    private final int from;
+    private final int to;
+
+    /**
+     * Creates a task to process a list of files.
+     * @param jim supplies the settings and the name extractors
+     * @param files the files to process
+     * @param consumer receives the data extracted from each file
+     */
+    CorpusTask( Jim jim, List<Path> files, Consumer<FileData> consumer ) {
+        this( new Shared( jim, files, consumer ), 0, files.size() );
+    }
+
+    private CorpusTask( Shared shared, int from, int to ) {
+        this.shared = shared;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if ( this.to - this.from == 1 ) {
+            process( this.shared.files.get( this.from ) );
+        }
+        else if ( this.to - this.from > 1 ) {
+            int middle = ( this.from + this.to ) >>> 1;
+            invokeAll( 
+                    new CorpusTask( this.shared, this.from, middle ),
+                    new CorpusTask( this.shared, middle, this.to ) );
+        }
+    }
+
+    ProcessingResult result() {
+        return new ProcessingResult( 
+                this.shared.files.size(), 
+                this.shared.parserFailures, 
+                this.shared.ioFailures );
+    }
+
+    private void process( Path file ) {
+        NameExtractor extractor = this.shared.extractors.get();
+        FileData data;
+        try {
+            data = extractor.process( file );
+        }
+        catch ( JimParserException e ) {
+            this.shared.parserFailures.put( file, e );
+            return;
+        }
+        catch ( IOException e ) {
+            this.shared.ioFailures.put( file, e );
+            return;
+        }
+        this.shared.consumer.accept( data );
+    }
+
+
+    // the state common to all the subtasks of a batch
+    private static class Shared {
+        private final List<Path> files;
+        private final Consumer<FileData> consumer;
+        private final ThreadLocal<NameExtractor> extractors;
+        private final Map<Path, JimParserException> parserFailures = 
+                new ConcurrentHashMap<>();
+        private final Map<Path, IOException> ioFailures = 
+                new ConcurrentHashMap<>();
+
+        Shared( Jim jim, List<Path> files, Consumer<FileData> consumer ) {
+            this.files = files;
+            this.consumer = consumer;
+            this.extractors = ThreadLocal.withInitial( jim::create );
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.TokenSource;
+
+/**
+ * A token stream that stops lexing and parsing when a deadline passes. 
+ * Adaptive prediction reads ahead through the stream, so the parser 
+ * cannot run for long without calling it. The clock is read once every 
+ * {@code CHECK_INTERVAL} calls to keep the cost of the check small. A 
+ * stream, like the parser reading it, is used by a single thread.
+ */
+class DeadlineTokenStream extends CommonTokenStream {
+    
+    private static final int CHECK_INTERVAL = 1024;
+    
+    private long deadline;  // System.nanoTime()
+    private int countdown = CHECK_INTERVAL;
+    
+    /**
+     * Creates a stream of the tokens from a source that expires at a 
+     * given time.
+     * @param tokenSource the source of the tokens
+     * @param deadline the value of {@code System.nanoTime()} at which the 
+     * stream expires
+     */
+    DeadlineTokenStream( TokenSource tokenSource, long deadline ) {
+        super( tokenSource );
+        this.deadline = deadline;
+    }
+    
+    /**
+     * Discards the tokens of the last file and reads from another source.
+     * @param tokenSource the source of the tokens
+     * @param deadline the value of {@code System.nanoTime()} at which the 
+     * stream expires
+     */
+    void restart( TokenSource tokenSource, long deadline ) {
+        this.deadline = deadline;
+        this.countdown = CHECK_INTERVAL;
+        setTokenSource( tokenSource );
+    }
+    
+    @Override
+    protected int fetch( int n ) {
+        // each call lexes at most 1000 tokens
+        checkDeadline();
+        return super.fetch( n );
+    }
+    
+    @Override
+    public int LA( int i ) {
+        if ( --this.countdown == 0 ) {
+            this.countdown = CHECK_INTERVAL;
+            checkDeadline();
+        }
+        return super.LA( i );
+    }
+    
+    private void checkDeadline() {
+        if ( System.nanoTime() - this.deadline > 0 ) {
+            throw new Expired();
+        }
+    }
+    
+    
+    /**
+     * Unwinds the lexer or parser when the deadline has passed. 
+     * {@code NameExtractor} converts it to a 
+     * {@code JimParseTimeoutException}.
+     */
+    static class Expired extends RuntimeException {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private transient RawFileData partialData = null;
+        
+        Expired() {
+            super( "Parse deadline passed", null, false, false );
+        }
+        
+        // the innermost extraction records the data it was filling
+        Expired partialData( RawFileData data ) {
+            if ( this.partialData == null ) {
+                this.partialData = data;
+            }
+            return this;
+        }
+        
+        RawFileData partialData() {
+            return this.partialData;
+        }
+    }
+}
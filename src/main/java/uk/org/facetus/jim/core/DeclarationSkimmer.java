@@ -0,0 +1,273 @@
+/*
+    Copyright (C) 2019 Simon Butler
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package uk.org.facetus.jim.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.Vocabulary;
+
+/**
+ * Removes the contents of method, constructor and initialiser bodies from
+ * a lexed Java file so that the parser only sees declarations. Each
+ * skipped body is replaced by an empty pair of braces, which keeps the
+ * remaining tokens a valid compilation unit.
+ *
+ * <p>Bodies are found by matching braces and looking at the tokens of the
+ * member declaration that precedes each opening brace. In field
+ * initialisers and annotation values, a brace after a closing parenthesis 
+ * opens the body of an anonymous class, whose members are skimmed in turn, 
+ * and a brace after an arrow opens the body of a lambda, which is skipped. 
+ * Other braces there, such as those of array initialisers, are left 
+ * alone. The declarations of anonymous classes and the parameters of 
+ * lambdas are therefore kept, but not their local variables.</p>
+ *
+ * <p>The tokens the skimmer looks for are found by their literal names in 
+ * the vocabulary of a lexer, so one skimmer serves any Java grammar that 
+ * defines them.</p>
+ */
+class DeclarationSkimmer {
+    
+    // the parts tokens play in a declaration
+    private static final int OTHER = 0;
+    private static final int LPAREN = 1;
+    private static final int RPAREN = 2;
+    private static final int ASSIGN = 3;
+    private static final int TYPE_KEYWORD = 4;
+    private static final int ENUM = 5;
+    private static final int SEMI = 6;
+    private static final int LBRACE = 7;
+    private static final int RBRACE = 8;
+    private static final int ARROW = 9;
+
+    private final int[] roles;
+
+    /**
+     * Creates a skimmer for the tokens produced by a lexer.
+     * @param vocabulary the vocabulary of the lexer
+     * @throws IllegalArgumentException if the vocabulary lacks a token 
+     * the skimmer needs
+     */
+    DeclarationSkimmer( Vocabulary vocabulary ) {
+        this.roles = new int[ vocabulary.getMaxTokenType() + 1 ];
+        assign( vocabulary, "(", LPAREN );
+        assign( vocabulary, ")", RPAREN );
+        assign( vocabulary, "=", ASSIGN );
+        assign( vocabulary, "class", TYPE_KEYWORD );
+        assign( vocabulary, "interface", TYPE_KEYWORD );
+        assign( vocabulary, "enum", ENUM );
+        assign( vocabulary, ";", SEMI );
+        assign( vocabulary, "{", LBRACE );
+        assign( vocabulary, "}", RBRACE );
+        assign( vocabulary, "->", ARROW );
+    }
+
+    /**
+     * Creates a copy of a list of tokens with the body contents removed.
+     * @param tokens all the tokens from the file, including EOF
+     * @return a list of the tokens to be parsed
+     */
+    List<Token> skim( List<Token> tokens ) {
+        List<Token> kept = new ArrayList<>( tokens.size() );
+        ArrayDeque<Frame> frames = new ArrayDeque<>();
+        Frame frame = new Frame( true, false, true );  // the compilation unit
+
+        int index = 0;
+        while ( index < tokens.size() ) {
+            Token token = tokens.get( index );
+            kept.add( token );
+            index++;
+
+            if ( ! frame.isTypeBody ) {
+                // inside a brace pair in an expression
+                if ( role( token ) == LBRACE ) {
+                    int previous = role( tokens.get( index - 2 ) );
+                    if ( previous == ARROW ) {
+                        index = skipBody( tokens, index, kept );
+                    }
+                    else {
+                        frames.push( frame );
+                        frame = new Frame( previous == RPAREN, false, false );
+                    }
+                }
+                else if ( role( token ) == RBRACE ) {
+                    frame = frames.isEmpty() ? frame : frames.pop();
+                }
+                continue;
+            }
+
+            switch ( role( token ) ) {
+                case LPAREN:
+                    frame.parenDepth++;
+                    break;
+
+                case RPAREN:
+                    frame.parenDepth--;
+                    break;
+
+                case ASSIGN:
+                    if ( frame.parenDepth == 0 ) {
+                        frame.sawInitialiser = true;
+                    }
+                    break;
+
+                case TYPE_KEYWORD:
+                    if ( frame.parenDepth == 0 ) {
+                        frame.sawTypeKeyword = true;
+                    }
+                    break;
+
+                case ENUM:
+                    if ( frame.parenDepth == 0 ) {
+                        frame.sawTypeKeyword = true;
+                        frame.sawEnumKeyword = true;
+                    }
+                    break;
+
+                case SEMI:
+                    if ( frame.parenDepth == 0 ) {
+                        frame.endMember();
+                        frame.inEnumConstants = false;
+                    }
+                    break;
+
+                case RBRACE:
+                    if ( ! frames.isEmpty() ) {
+                        // an anonymous class ends within a member
+                        boolean endsMember = frame.endsMember;
+                        frame = frames.pop();
+                        if ( endsMember ) {
+                            frame.endMember();
+                        }
+                    }
+                    break;
+
+                case LBRACE:
+                    if ( frame.parenDepth > 0 || frame.sawInitialiser ) {
+                        // an anonymous class, a lambda or an array 
+                        // initialiser in a field initialiser or annotation
+                        int previous = role( tokens.get( index - 2 ) );
+                        if ( previous == ARROW ) {
+                            index = skipBody( tokens, index, kept );
+                        }
+                        else {
+                            frames.push( frame );
+                            frame = new Frame( previous == RPAREN, false, false );
+                        }
+                    }
+                    else if ( frame.sawTypeKeyword || frame.inEnumConstants ) {
+                        // a type body, or the body of an enum constant
+                        boolean isEnum = frame.sawEnumKeyword;
+                        frames.push( frame );
+                        frame = new Frame( true, isEnum, true );
+                    }
+                    else {
+                        // a method, constructor or initialiser body
+                        index = skipBody( tokens, index, kept );
+                        frame.endMember();
+                    }
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        return kept;
+    }
+
+    // keeps the brace that closes the body opened by the token before 
+    // start, and returns the index of the token after it
+    private int skipBody( List<Token> tokens, int start, List<Token> kept ) {
+        int index = closingBrace( tokens, start );
+        if ( role( tokens.get( index ) ) == RBRACE ) {
+            kept.add( tokens.get( index ) );
+            index++;
+        }
+        return index;
+    }
+
+    // returns the index of the brace that closes the body opened by the 
+    // token before start, or the index of EOF if the braces are unbalanced
+    private int closingBrace( List<Token> tokens, int start ) {
+        int depth = 1;
+        int index = start;
+        while ( index < tokens.size() ) {
+            Token token = tokens.get( index );
+            if ( role( token ) == LBRACE ) {
+                depth++;
+            }
+            else if ( role( token ) == RBRACE ) {
+                depth--;
+                if ( depth == 0 ) {
+                    return index;
+                }
+            }
+            else if ( token.getType() == Token.EOF ) {
+                // leave the parser to report the problem
+                return index;
+            }
+            index++;
+        }
+        return tokens.size() - 1;
+    }
+
+    private int role( Token token ) {
+        int type = token.getType();
+        return type >= 0 && type < this.roles.length ? this.roles[ type ] : OTHER;
+    }
+
+    private void assign( Vocabulary vocabulary, String literal, int role ) {
+        String literalName = "'" + literal + "'";
+        for ( int type = 0; type < this.roles.length; type++ ) {
+            if ( literalName.equals( vocabulary.getLiteralName( type ) ) ) {
+                this.roles[ type ] = role;
+                return;
+            }
+        }
+        throw new IllegalArgumentException( 
+                "The vocabulary has no token for " + literalName );
+    }
+
+
+    // the state of a brace pair, and the member declaration in progress
+    // when the brace pair is a type body
+    private static class Frame {
+        private final boolean isTypeBody;
+        private final boolean endsMember;  // false for anonymous classes
+        private boolean inEnumConstants;
+
+        private int parenDepth = 0;
+        private boolean sawInitialiser = false;
+        private boolean sawTypeKeyword = false;
+        private boolean sawEnumKeyword = false;
+
+        Frame( boolean isTypeBody, boolean isEnumBody, boolean endsMember ) {
+            this.isTypeBody = isTypeBody;
+            this.inEnumConstants = isEnumBody;
+            this.endsMember = endsMember;
+        }
+
+        void endMember() {
+            this.parenDepth = 0;
+            this.sawInitialiser = false;
+            this.sawTypeKeyword = false;
+            this.sawEnumKeyword = false;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.atn.ATN;
+import org.antlr.v4.runtime.atn.LexerATNSimulator;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionContextCache;
+import org.antlr.v4.runtime.dfa.DFA;
+
+/**
+ * Holds the DFA and prediction context caches used by the lexers and
+ * parsers created by {@code Jim}. ANTLR's generated recognisers share a
+ * static cache that grows for the lifetime of the JVM. Giving each
+ * recogniser simulators that use this cache instead allows the cache to
+ * be measured and discarded. Like ANTLR's cache, there is a single 
+ * instance for each grammar, shared by all {@code Jim} instances, so that 
+ * each does not have to rebuild the cache.
+ *
+ * <p>Clearing the cache replaces it with an empty one. Recognisers already
+ * at work continue with the cache they started with, which is then
+ * garbage collected, so clearing is safe while files are being processed.</p>
+ */
+class DfaCache {
+    
+    private final ATN lexerAtn;
+    private final ATN parserAtn;
+
+    private volatile Generation generation;
+
+    private volatile long maximumSize = 0;  // 0 is unbounded
+    private volatile long maximumAge = 0;   // nanoseconds, 0 is unbounded
+
+    /**
+     * Creates an empty cache for the lexer and parser generated from a 
+     * grammar.
+     * @param lexerAtn the ATN of the generated lexer
+     * @param parserAtn the ATN of the generated parser
+     */
+    DfaCache( ATN lexerAtn, ATN parserAtn ) {
+        this.lexerAtn = lexerAtn;
+        this.parserAtn = parserAtn;
+        this.generation = new Generation( lexerAtn, parserAtn );
+    }
+
+    /**
+     * Gives a lexer an interpreter that uses the current cache. A lexer 
+     * that already has one keeps it, so that a reused lexer only gets a 
+     * new interpreter after the cache has been cleared.
+     * @param lexer a lexer generated from the grammar of the cache
+     */
+    void install( Lexer lexer ) {
+        Generation current = this.generation;
+        LexerATNSimulator interpreter = lexer.getInterpreter();
+        if ( interpreter == null || interpreter.decisionToDFA != current.lexerDfa ) {
+            lexer.setInterpreter( new LexerATNSimulator(
+                    lexer, this.lexerAtn, current.lexerDfa, current.lexerContexts ) );
+        }
+    }
+
+    /**
+     * Gives a parser an interpreter that uses the current cache. A parser 
+     * that already has one keeps it, so that a reused parser only gets a 
+     * new interpreter after the cache has been cleared.
+     * @param parser a parser generated from the grammar of the cache
+     */
+    void install( Parser parser ) {
+        Generation current = this.generation;
+        ParserATNSimulator interpreter = parser.getInterpreter();
+        if ( interpreter == null || interpreter.decisionToDFA != current.parserDfa ) {
+            parser.setInterpreter( new ParserATNSimulator(
+                    parser, this.parserAtn, current.parserDfa, current.parserContexts ) );
+        }
+    }
+
+    /**
+     * The number of DFA states held in the cache. The count is approximate
+     * when files are being processed at the same time.
+     * @return the number of lexer and parser DFA states
+     */
+    long size() {
+        Generation current = this.generation;
+        return count( current.lexerDfa ) + count( current.parserDfa );
+    }
+
+    /**
+     * Discards the contents of the cache.
+     */
+    void clear() {
+        this.generation = new Generation( this.lexerAtn, this.parserAtn );
+    }
+
+    void maximumSize( long states ) {
+        this.maximumSize = states;
+    }
+
+    void maximumAge( long nanoseconds ) {
+        this.maximumAge = nanoseconds;
+    }
+
+    /**
+     * Clears the cache if it exceeds the size or age limits set.
+     */
+    void enforceLimits() {
+        if ( this.maximumAge > 0
+                && System.nanoTime() - this.generation.created > this.maximumAge ) {
+            clear();
+        }
+        else if ( this.maximumSize > 0 && size() > this.maximumSize ) {
+            clear();
+        }
+    }
+
+    private static long count( DFA[] dfas ) {
+        long count = 0;
+        for ( DFA dfa : dfas ) {
+            count += dfa.states.size();
+        }
+        return count;
+    }
+
+    private static DFA[] emptyDfa( ATN atn ) {
+        DFA[] dfas = new DFA[ atn.getNumberOfDecisions() ];
+        for ( int i = 0; i < dfas.length; i++ ) {
+            dfas[i] = new DFA( atn.getDecisionState( i ), i );
+        }
+        return dfas;
+    }
+
+
+    private static class Generation {
+        private final DFA[] lexerDfa;
+        private final DFA[] parserDfa;
+        private final PredictionContextCache lexerContexts = new PredictionContextCache();
+        private final PredictionContextCache parserContexts = new PredictionContextCache();
+        private final long created = System.nanoTime();
+
+        Generation( ATN lexerAtn, ATN parserAtn ) {
+            this.lexerDfa = emptyDfa( lexerAtn );
+            this.parserDfa = emptyDfa( parserAtn );
+        }
+    }
+}
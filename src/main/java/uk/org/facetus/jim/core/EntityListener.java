@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.List;
+import uk.ac.open.crc.idtk.Species;
+
+/**
+ * Receives the program entities found in a file as they are found, so 
+ * that names can be passed straight to the caller's own storage. Used 
+ * with {@code NameExtractor.process( Path, EntityListener )}, no 
+ * {@code FileData} is created, and the entities of a file are not kept 
+ * once they have been passed to the listener.
+ *
+ * <p>Entities are passed in the order they are declared, the order of 
+ * {@code FileData.names()}. If a file cannot be parsed, entities found 
+ * before the error may already have been passed to the listener, 
+ * {@link #endFile(String, String)} is not called, and the exception is 
+ * thrown by {@code process()}. A listener is called by the thread 
+ * processing the file.</p>
+ */
+public interface EntityListener {
+    
+    /**
+     * Called before the entities of a file are passed to the listener.
+     * @param fileName the name of the file
+     */
+    default void startFile( String fileName ) {}
+    
+    /**
+     * Receives a program entity.
+     * @param species the species of the entity
+     * @param name the identifier name of the entity
+     * @param container the entity whose declaration contains the entity, 
+     * or {@code null} for a top level entity
+     * @param tokens the tokens of the name, which are empty if the 
+     * tokenisation strategy is {@code NONE}
+     */
+    void entity( Species species, String name, ProgramEntity container, List<Token> tokens );
+    
+    /**
+     * Called when every entity in a file has been passed to the listener.
+     * @param fileName the name of the file
+     * @param packageName the package declared in the file
+     */
+    default void endFile( String fileName, String packageName ) {}
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+/**
+ * Values that can be used to select which names are extracted from a file.
+ * {@code FULL} parses the whole file and recovers every declared name,
+ * including local variables, lambda parameters and labels, and is the 
+ * default. {@code DECLARATIONS} skips the contents of method, constructor
+ * and initialiser bodies before parsing and recovers only the names of 
+ * types, methods, constructors, fields, enum constants, annotation members 
+ * and formal parameters. The latter is several times faster for most files, 
+ * as the bodies are the bulk of the code the parser would otherwise process. 
+ * Declarations in field initialisers, i.e. lambda parameters and the 
+ * members of anonymous classes, are still recovered, but the bodies of 
+ * those lambdas and methods are skipped too.
+ * 
+ */
+public enum ExtractionMode {
+    FULL,
+    DECLARATIONS;
+}
@@ -17,6 +17,7 @@ package uk.org.facetus.jim.core;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -26,45 +27,56 @@ import uk.ac.open.crc.intt.TaggedToken;
 /**
  * A class containing the identifier name data extracted from a Java source 
  * code file. Instances contain a little metadata, and the identifier names 
- * declared in the file. The names have also been tokenised and the tokens 
- * are also made available. 
+ * declared in the file. The names are tokenised when the tokens are first 
+ * requested, so that callers that only need the names do not pay for 
+ * tokenisation. Tokenisation happens once, and instances may be shared 
+ * between threads.
  */
 public class FileData {
     private final List<String> names;
-    private final List<String> tokens; 
     private final TokenisationStrategy strategy;
     
-    private final List<TokenisedName> tokenisedNames;
-    
     private final String systemPathToFile;
     private final String fileName;
     private final String packageName;
+    private final boolean generated;
     
-    private final IdentifierNameTokeniser tokeniser;
+    private final TokeniserPool tokenisers;
+    private final TokenisationCache tokenisationCache;
+    private final NameSplitter splitter;
+    private final InternPool internPool;
     
     private final RawFileData rawData;
     
-    FileData(IdentifierNameTokeniser tokeniser, RawFileData extractedData, TokenisationStrategy strategy) {
-        this.names = new ArrayList<>();
-	this.tokens = new ArrayList<>();
-        this.tokenisedNames = new ArrayList<>();
-	this.tokeniser = tokeniser;
+    private volatile Tokenisation tokenisation;  // null until first requested
+    private volatile FileMetrics metrics = FileMetrics.NONE;
+    private volatile JimMonitor monitor = null;  // told of tokenisation
+    
+    FileData(TokeniserPool tokenisers, TokenisationCache tokenisationCache, NameSplitter splitter, InternPool internPool, RawFileData extractedData, TokenisationStrategy strategy) {
+	this.tokenisers = tokenisers;
+        this.tokenisationCache = tokenisationCache;
+        this.splitter = splitter;
+        this.internPool = internPool;
         this.strategy = strategy;
 	this.rawData = extractedData;
 	
 	this.systemPathToFile = this.rawData.fileName();
-	int separatorIndex = this.systemPathToFile.lastIndexOf( File.separator );
-	if (separatorIndex != -1 ) {
-	    this.fileName = this.rawData.fileName().substring( separatorIndex + 1 );
-	}
-	else {
-	    this.fileName = this.systemPathToFile;
-	}
-	this.packageName = this.rawData.packageName();
-	this.rawData.topLevelEntities().forEach( pe -> getNames(pe) );
-        // tokens list populated by #getFullTokenisation
-	this.names.forEach( n -> tokeniseWithOrigins( n ) );
-//        this.names.forEach(n -> getFullTokenisation( n ) );
+	this.fileName = fileName( this.systemPathToFile );
+	this.packageName = internPool.intern( this.rawData.packageName() );
+	this.generated = this.rawData.generated();
+        // the entity tree is complete, and is only read from now on
+	this.rawData.compact( internPool );
+	this.names = this.rawData.names();
+        if ( this.strategy == TokenisationStrategy.NONE ) {
+            this.tokenisation = new Tokenisation( new ArrayList<>(), internPool );
+        }
+    }
+    
+    // recreates the data for a file from the result cache, without 
+    // tokenising the names again
+    FileData(RawFileData extractedData, List<TokenisedName> tokenisedNames, InternPool internPool, TokenisationStrategy strategy) {
+        this( null, null, null, internPool, extractedData, strategy );
+        this.tokenisation = new Tokenisation( new ArrayList<>( tokenisedNames ), internPool );
     }
     
     /**
@@ -83,6 +95,17 @@ public class FileData {
 	return this.packageName;
     }
     
+    /**
+     * Indicates whether the file appears to have been generated by 
+     * software, because one of its first lines contains a marker set by 
+     * {@code Jim.generatedCodeMarkers()}. The names of a generated file 
+     * are not extracted if {@code Jim.skipGeneratedFiles()} is set.
+     * @return {@code true} if the file may have been generated
+     */
+    public boolean isGenerated() {
+	return this.generated;
+    }
+    
     /**
      * The full Java file name {e.g.} {@code java.util.ArrayList.java}.
      * @return the Java name of the file including the package
@@ -101,8 +124,8 @@ public class FileData {
     
     /**
      * Retrieves a list of the identifier names declared in the 
-     * processed file.
-     * @return a {@code List} of names
+     * processed file, in the order they are declared.
+     * @return a read only {@code List} of names
      */
     public List<String> names() {
 	return this.names;
@@ -111,11 +134,13 @@ public class FileData {
     
     /**
      * Recovers a list of the tokens found in identifier names declared
-     * in the processed file.
+     * in the processed file. The names are tokenised by the first call 
+     * to this method, {@link #tokenisedNames()} or {@link #tokenSet()}.
+     * The list is empty if the tokenisation strategy is {@code NONE}.
      * @return a {@code List} of tokens
      */
     public List<String> tokens() {
-	return this.tokens;
+	return tokenisation().tokens;
     }
     
     
@@ -126,43 +151,142 @@ public class FileData {
      * @return a list of {@code TokenisedName} instances
      */
     public List<TokenisedName> tokenisedNames() {
-        return this.tokenisedNames;
+        return tokenisation().tokenisedNames;
     }
     
     /**
      * Recovers the set of tokens extracted from identifier names in the file.
-     * @return a {@code Set} of tokens
+     * @return an unmodifiable {@code Set} of tokens
      */
     public Set<String> tokenSet() {
-	return new HashSet<>(this.tokens);
+	return tokenisation().tokenSet;
     }
     
-    private void getNames(ProgramEntity entity) {
-	this.names.add( entity.identifierName());
-	entity.children().forEach( e -> getNames(e) );
+    /**
+     * The time spent processing the file, phase by phase, and its size. 
+     * The metrics are only recorded if {@code Jim.fileMetrics()} is set, 
+     * and include the time spent tokenising the names once they have 
+     * been tokenised.
+     * @return the metrics of the file, which are all 0 if not recorded
+     */
+    public FileMetrics metrics() {
+        return this.metrics;
+    }
+    
+    void metrics( FileMetrics metrics, JimMonitor monitor ) {
+        this.metrics = metrics;
+        this.monitor = monitor;
     }
     
-    private void tokenise( String name ) {
-	this.tokeniser.tokenise( name )
-		.forEach( t -> this.tokens.add( t.toLowerCase() ) );
+    RawFileData rawData() {
+        return this.rawData;
     }
+    
+    private static String fileName(String systemPathToFile) {
+	int separatorIndex = systemPathToFile.lastIndexOf( File.separator );
+	if (separatorIndex != -1 ) {
+	    return systemPathToFile.substring( separatorIndex + 1 );
+	}
+	else {
+	    return systemPathToFile;
+	}
+    }
+    
+    private Tokenisation tokenisation() {
+        Tokenisation result = this.tokenisation;
+        if ( result == null ) {
+            synchronized ( this ) {
+                result = this.tokenisation;
+                if ( result == null ) {
+                    long start = System.nanoTime();
+                    List<TokenisedName> tokenisedNames = new ArrayList<>();
+                    this.names.forEach( n -> tokenisedNames.add( 
+                            tokenise( n, this.strategy, this.tokenisers, 
+                                    this.tokenisationCache, this.splitter, 
+                                    this.internPool ) ) );
+                    result = new Tokenisation( tokenisedNames, this.internPool );
+                    long elapsed = System.nanoTime() - start;
+                    this.metrics = this.metrics.tokenised( elapsed );
+                    if ( this.monitor != null ) {
+                        this.monitor.fileTokenised( elapsed );
+                    }
+                    this.tokenisation = result;
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Tokenises a name. The tokeniser of the calling thread is only used 
+     * if the name is not in the cache.
+     * @param name an identifier name
+     * @param strategy a strategy other than {@code NONE}
+     * @param tokenisers the tokenisers
+     * @param tokenisationCache the cache of tokenisations
+     * @param splitter the splitter for the {@code ADAPTIVE} strategy
+     * @param internPool canonicalises the tokens of a name tokenised
+     * @return the tokenised name
+     */
+    static TokenisedName tokenise( 
+            String name, 
+            TokenisationStrategy strategy, 
+            TokeniserPool tokenisers, 
+            TokenisationCache tokenisationCache, 
+            NameSplitter splitter, 
+            InternPool internPool ) {
+        TokenisationStrategy tokeniserStrategy = strategy;
+        if ( strategy == TokenisationStrategy.ADAPTIVE ) {
+            List<Token> tokens = splitter.split( name );
+            if ( tokens != null ) {
+                return TokenisedName.fromTokens( name, tokens );
+            }
+            // the tokeniser is used as it is for FULL, so share its results
+            tokeniserStrategy = TokenisationStrategy.FULL;
+        }
         
-    private void tokeniseWithOrigins( String name ) {
-        List<TaggedToken> taggedTokens;
-        switch (this.strategy) {
-            case FULL:
-                taggedTokens = this.tokeniser.tokeniseWithOrigins( name );
+        List<Token> tokens = tokenisationCache.get( tokeniserStrategy, name );
+        if ( tokens == null ) {
+            IdentifierNameTokeniser tokeniser = tokenisers.get();
+            List<TaggedToken> taggedTokens;
+            switch (tokeniserStrategy) {
+                case FULL:
+                    taggedTokens = tokeniser.tokeniseWithOrigins( name );
+                    break;
+                case SIMPLE:
+                    taggedTokens = tokeniser.naiveTokenisationWithOrigins( name );
                 break;
-                
-            case SIMPLE:
-                taggedTokens = this.tokeniser.naiveTokenisationWithOrigins( name );
-            break;
-            
-            default:
-                throw new IllegalStateException("Unrecognised tokenisation option!!");
+                default:
+                    throw new IllegalStateException("Unrecognised tokenisation option!!");
+            }
+            tokens = new ArrayList<>( taggedTokens.size() );
+            for ( TaggedToken taggedToken : taggedTokens ) {
+                tokens.add( new Token( 
+                        internPool.intern( taggedToken.getContent() ), 
+                        internPool.intern( taggedToken.wordLists() ) ) );
+            }
+            tokens = tokenisationCache.put( tokeniserStrategy, name, tokens );
+        }
+        if ( strategy == TokenisationStrategy.ADAPTIVE ) {
+            splitter.learn( tokens );
         }
-        this.tokenisedNames.add( new TokenisedName( name, taggedTokens ) );
-        taggedTokens.forEach( t -> this.tokens.add( t.getContent().toLowerCase() ) );
+        return TokenisedName.fromTokens( name, tokens );
     }
+    
+    
+    // the results of tokenising the names, which are computed together
+    private static class Tokenisation {
+        private final List<TokenisedName> tokenisedNames;
+        private final List<String> tokens;
+        private final Set<String> tokenSet;
         
+        Tokenisation( List<TokenisedName> tokenisedNames, InternPool internPool ) {
+            this.tokenisedNames = tokenisedNames;
+            this.tokens = new ArrayList<>();
+            tokenisedNames.forEach( tn -> tn.tokens()
+                    .forEach( t -> this.tokens.add( 
+                            internPool.intern( t.getContent().toLowerCase() ) ) ) );
+            this.tokenSet = Collections.unmodifiableSet( new HashSet<>( this.tokens ) );
+        }
+    }
 }
@@ -25,7 +25,7 @@ import java.util.ArrayList;
  *
  */
 public class FileDataBuilder {
-    private final RawFileData fileData;
+    private RawFileData fileData;
     private final ArrayDeque<ProgramEntity> stack;
 
     private final ArrayList<String> typeStack;
@@ -40,6 +40,30 @@ public class FileDataBuilder {
 	this.fileData = fileData;
         this.stack = new ArrayDeque<>();
         this.typeStack = new ArrayList<>();
+        enterMember();
+    }
+    
+    /**
+     * Discards the state of the last file and prepares to collect the 
+     * data for another.
+     * @param fileData an internal data collection object
+     */
+    public void reset( final RawFileData fileData ) {
+        this.fileData = fileData;
+        this.stack.clear();
+        this.typeStack.clear();
+        this.current = null;
+        enterMember();
+    }
+    
+    // a member parsed on its own starts inside the placeholder for its 
+    // class, as it would start inside its class in the whole file
+    private void enterMember() {
+        ProgramEntity container = this.fileData.memberContainer();
+        if ( container != null ) {
+            this.stack.push( container );
+            this.fileData.containers( this.stack );
+        }
     }
 
     
@@ -52,11 +76,11 @@ public class FileDataBuilder {
 	if (stack.isEmpty()) {
 	    this.current = entity;
 	    this.stack.push( entity );
-	    this.fileData.add( entity );
+	    this.fileData.record( entity, null );
 	}
 	else {
 	    this.current = this.stack.peekFirst();
-	    this.current.addChild( entity );
+	    this.fileData.record( entity, this.current );
 	}
     }
     
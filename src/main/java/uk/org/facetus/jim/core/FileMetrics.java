@@ -0,0 +1,327 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.ArrayDeque;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+/**
+ * The time spent in each phase of processing a file, and the size of
+ * the file at each stage. Metrics are recorded when
+ * {@code Jim.fileMetrics()} is set, or the {@code Jim} is monitored, 
+ * and are otherwise all 0.
+ *
+ * <p>The phases are, in order: reading the file; decoding its characters,
+ * which includes recognising generated code; lexing; parsing; visiting
+ * the parse tree to record the names; and building the {@code FileData}.
+ * Names are tokenised when the tokens are first requested, so the
+ * tokenisation time is 0 until then. Streaming extraction records names
+ * while parsing, and files divided by member are parsed and visited in
+ * parallel, so for these the visiting time is included in the parsing
+ * time and no parse tree nodes are counted. With the {@code TWO_STAGE}
+ * strategy the parsing time includes a failed SLL parse, and with the
+ * {@code DECLARATIONS} extraction mode it includes skimming the tokens.
+ * Files found in the result cache, and generated files that are skipped,
+ * are neither lexed nor parsed.</p>
+ *
+ * <p>All times are in nanoseconds.</p>
+ */
+public final class FileMetrics {
+
+    /**
+     * The metrics of a file processed without recording metrics.
+     */
+    public static final FileMetrics NONE =
+            new FileMetrics( new Builder( false ), 0, 0, 0 );
+
+    private final long inputBytes;
+    private final long tokenCount;
+    private final long parseTreeNodeCount;
+    private final long entityCount;
+
+    private final long readNanos;
+    private final long decodeNanos;
+    private final long lexNanos;
+    private final long parseNanos;
+    private final long visitNanos;
+    private final long buildNanos;
+    private final long tokeniseNanos;
+
+    private FileMetrics(
+            Builder builder,
+            long entityCount,
+            long buildNanos,
+            long tokeniseNanos ) {
+        this.inputBytes = builder.inputBytes;
+        this.tokenCount = builder.tokenCount;
+        this.parseTreeNodeCount = builder.parseTreeNodeCount;
+        this.entityCount = entityCount;
+        this.readNanos = builder.readNanos;
+        this.decodeNanos = builder.decodeNanos;
+        this.lexNanos = builder.lexNanos;
+        this.parseNanos = builder.parseNanos;
+        this.visitNanos = builder.visitNanos;
+        this.buildNanos = buildNanos;
+        this.tokeniseNanos = tokeniseNanos;
+    }
+
+    private FileMetrics( FileMetrics metrics, long tokeniseNanos ) {
+        this.inputBytes = metrics.inputBytes;
+        this.tokenCount = metrics.tokenCount;
+        this.parseTreeNodeCount = metrics.parseTreeNodeCount;
+        this.entityCount = metrics.entityCount;
+        this.readNanos = metrics.readNanos;
+        this.decodeNanos = metrics.decodeNanos;
+        this.lexNanos = metrics.lexNanos;
+        this.parseNanos = metrics.parseNanos;
+        this.visitNanos = metrics.visitNanos;
+        this.buildNanos = metrics.buildNanos;
+        this.tokeniseNanos = tokeniseNanos;
+    }
+
+    /**
+     * The size of the file.
+     * @return the number of bytes read
+     */
+    public long inputBytes() {
+        return this.inputBytes;
+    }
+
+    /**
+     * The number of tokens the lexer found, including the end of file.
+     * @return the number of tokens
+     */
+    public long tokenCount() {
+        return this.tokenCount;
+    }
+
+    /**
+     * The number of rule and terminal nodes in the parse tree.
+     * @return the number of nodes, or 0 if no parse tree was built
+     */
+    public long parseTreeNodeCount() {
+        return this.parseTreeNodeCount;
+    }
+
+    /**
+     * The number of program entities, and so names, found in the file.
+     * @return the number of entities
+     */
+    public long entityCount() {
+        return this.entityCount;
+    }
+
+    /**
+     * The time spent reading the file.
+     * @return the time taken
+     */
+    public long readNanos() {
+        return this.readNanos;
+    }
+
+    /**
+     * The time spent decoding the characters of the file.
+     * @return the time taken
+     */
+    public long decodeNanos() {
+        return this.decodeNanos;
+    }
+
+    /**
+     * The time spent lexing the file.
+     * @return the time taken
+     */
+    public long lexNanos() {
+        return this.lexNanos;
+    }
+
+    /**
+     * The time spent parsing the file.
+     * @return the time taken
+     */
+    public long parseNanos() {
+        return this.parseNanos;
+    }
+
+    /**
+     * The time spent visiting the parse tree.
+     * @return the time taken
+     */
+    public long visitNanos() {
+        return this.visitNanos;
+    }
+
+    /**
+     * The time spent building the {@code FileData}.
+     * @return the time taken
+     */
+    public long buildNanos() {
+        return this.buildNanos;
+    }
+
+    /**
+     * The time spent tokenising the names of the file.
+     * @return the time taken, or 0 if the names have not been tokenised
+     */
+    public long tokeniseNanos() {
+        return this.tokeniseNanos;
+    }
+
+    /**
+     * The time spent in all the phases.
+     * @return the sum of the phase times
+     */
+    public long totalNanos() {
+        return this.readNanos + this.decodeNanos + this.lexNanos
+                + this.parseNanos + this.visitNanos + this.buildNanos
+                + this.tokeniseNanos;
+    }
+
+    // the metrics once the names have been tokenised
+    FileMetrics tokenised( long nanoseconds ) {
+        return this == NONE ? NONE : new FileMetrics( this, nanoseconds );
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "bytes=%d tokens=%d nodes=%d entities=%d read=%d decode=%d "
+                        + "lex=%d parse=%d visit=%d build=%d tokenise=%d",
+                this.inputBytes, this.tokenCount, this.parseTreeNodeCount,
+                this.entityCount, this.readNanos, this.decodeNanos,
+                this.lexNanos, this.parseNanos, this.visitNanos,
+                this.buildNanos, this.tokeniseNanos );
+    }
+
+
+    /**
+     * Records the metrics of the file a {@code NameExtractor} is
+     * processing. Each phase is timed from the end of the previous one.
+     * A builder that is not enabled records nothing.
+     */
+    static final class Builder {
+        private final boolean enabled;
+        private long mark;
+
+        private long inputBytes;
+        private long tokenCount;
+        private long parseTreeNodeCount;
+        private long readNanos;
+        private long decodeNanos;
+        private long lexNanos;
+        private long parseNanos;
+        private long visitNanos;
+
+        Builder( boolean enabled ) {
+            this.enabled = enabled;
+        }
+
+        boolean enabled() {
+            return this.enabled;
+        }
+
+        /**
+         * Begins recording the metrics of a file.
+         */
+        void start() {
+            if ( this.enabled ) {
+                this.inputBytes = 0;
+                this.tokenCount = 0;
+                this.parseTreeNodeCount = 0;
+                this.readNanos = 0;
+                this.decodeNanos = 0;
+                this.lexNanos = 0;
+                this.parseNanos = 0;
+                this.visitNanos = 0;
+                this.mark = System.nanoTime();
+            }
+        }
+
+        void read( long bytes ) {
+            if ( this.enabled ) {
+                this.readNanos += lap();
+                this.inputBytes = bytes;
+            }
+        }
+
+        void decoded() {
+            if ( this.enabled ) {
+                this.decodeNanos += lap();
+            }
+        }
+
+        void lexed( long tokens ) {
+            if ( this.enabled ) {
+                this.lexNanos += lap();
+                this.tokenCount = tokens;
+            }
+        }
+
+        /**
+         * Ends the parsing phase, and counts the nodes of the parse tree
+         * without charging the count to any phase.
+         * @param parseTree the parse tree, or {@code null} if none was
+         * built
+         */
+        void parsed( ParseTree parseTree ) {
+            if ( this.enabled ) {
+                this.parseNanos += lap();
+                if ( parseTree != null ) {
+                    this.parseTreeNodeCount += count( parseTree );
+                    this.mark = System.nanoTime();
+                }
+            }
+        }
+
+        void visited() {
+            if ( this.enabled ) {
+                this.visitNanos += lap();
+            }
+        }
+
+        /**
+         * Ends the building phase and creates the metrics of the file.
+         * @param entityCount the number of entities found
+         * @return the metrics of the file
+         */
+        FileMetrics build( long entityCount ) {
+            return this.enabled
+                    ? new FileMetrics( this, entityCount, lap(), 0 )
+                    : NONE;
+        }
+
+        private long lap() {
+            long now = System.nanoTime();
+            long elapsed = now - this.mark;
+            this.mark = now;
+            return elapsed;
+        }
+
+        private static long count( ParseTree root ) {
+            long count = 0;
+            ArrayDeque<ParseTree> pending = new ArrayDeque<>();
+            pending.push( root );
+            while ( ! pending.isEmpty() ) {
+                ParseTree node = pending.pop();
+                count++;
+                for ( int i = 0; i < node.getChildCount(); i++ ) {
+                    pending.push( node.getChild( i ) );
+                }
+            }
+            return count;
+        }
+    }
+}
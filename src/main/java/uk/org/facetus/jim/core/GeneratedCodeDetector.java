@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Recognises source files generated by tools such as ANTLR, JavaCC and the 
+ * protocol buffer compiler from a marker in their first lines. All the 
+ * markers are found in a single pass over the bytes of a file, using an 
+ * Aho-Corasick automaton built from the text each marker starts with. 
+ * Instances are immutable and may be shared between threads.
+ *
+ * <p>A marker is literal text, with two exceptions. A marker beginning 
+ * with {@code ^} only matches at the start of a line, and {@code .*} 
+ * matches any text within the line, so that 
+ * {@code ^/* Generated.*JavaCC} matches a line that starts with 
+ * {@code /* Generated} and goes on to mention {@code JavaCC}. Markers are 
+ * matched against the UTF-8 encoding of the file.</p>
+ */
+final class GeneratedCodeDetector {
+    
+    /**
+     * The markers left by the generators recognised by 
+     * {@code Utils.isGenerated()}.
+     */
+    static final List<String> DEFAULT_MARKERS = Collections.unmodifiableList( 
+            Arrays.asList( 
+                    "^// $ANTLR",
+                    "^/* Generated.*JavaCC",
+                    "^/* Generated.*JJTree",
+                    "* Generated by the IDL-to-Java compiler",
+                    "* This file was auto-generated",  // apache axis
+                    "Generated by the protocol buffer compiler",  // google web toolkit
+                    "generated by make_pydocs.py",  // jython
+                    "Generated file, do not modify" ) );  // jython
+    
+    static final GeneratedCodeDetector DEFAULT = 
+            new GeneratedCodeDetector( DEFAULT_MARKERS );
+    
+    // markers should be in the first few lines, but licence statements 
+    // can push them down
+    static final int LINES_TO_READ = 100;
+    
+    private static final String ANCHOR = "^";
+    private static final String WILDCARD = ".*";
+    
+    private final List<String> markers;
+    private final Marker[] compiled;
+    
+    private final int[] byteClasses = new int[ 256 ];  // 0 for bytes in no marker
+    private final int classCount;
+    private final int[] transitions;  // state * classCount + class
+    private final int[][] matches;  // the markers whose first fragment ends in a state
+    
+    /**
+     * Builds a detector for a set of markers.
+     * @param markers the markers of generated files
+     * @throws IllegalArgumentException if a marker does not begin with 
+     * text
+     */
+    GeneratedCodeDetector( Collection<String> markers ) {
+        this.markers = Collections.unmodifiableList( new ArrayList<>( markers ) );
+        this.compiled = new Marker[ this.markers.size() ];
+        int maximumStates = 1;
+        int classes = 1;
+        for ( int i = 0; i < this.compiled.length; i++ ) {
+            this.compiled[i] = Marker.of( this.markers.get( i ) );
+            for ( byte b : this.compiled[i].fragments[0] ) {
+                if ( this.byteClasses[ b & 0xff ] == 0 ) {
+                    this.byteClasses[ b & 0xff ] = classes++;
+                }
+            }
+            maximumStates += this.compiled[i].fragments[0].length;
+        }
+        this.classCount = classes;
+        
+        // the trie of first fragments
+        int[] next = new int[ maximumStates * this.classCount ];
+        Arrays.fill( next, -1 );
+        List<List<Integer>> outputs = new ArrayList<>();
+        outputs.add( new ArrayList<>() );
+        int states = 1;
+        for ( int i = 0; i < this.compiled.length; i++ ) {
+            int state = 0;
+            for ( byte b : this.compiled[i].fragments[0] ) {
+                int index = state * this.classCount + this.byteClasses[ b & 0xff ];
+                if ( next[ index ] == -1 ) {
+                    next[ index ] = states++;
+                    outputs.add( new ArrayList<>() );
+                }
+                state = next[ index ];
+            }
+            outputs.get( state ).add( i );
+        }
+        
+        // complete the automaton with failure transitions, breadth first
+        int[] failure = new int[ states ];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for ( int c = 0; c < this.classCount; c++ ) {
+            if ( next[c] == -1 ) {
+                next[c] = 0;
+            }
+            else {
+                failure[ next[c] ] = 0;
+                queue.add( next[c] );
+            }
+        }
+        while ( ! queue.isEmpty() ) {
+            int state = queue.poll();
+            outputs.get( state ).addAll( outputs.get( failure[ state ] ) );
+            for ( int c = 0; c < this.classCount; c++ ) {
+                int index = state * this.classCount + c;
+                int fallback = next[ failure[ state ] * this.classCount + c ];
+                if ( next[ index ] == -1 ) {
+                    next[ index ] = fallback;
+                }
+                else {
+                    failure[ next[ index ] ] = fallback;
+                    queue.add( next[ index ] );
+                }
+            }
+        }
+        this.transitions = Arrays.copyOf( next, states * this.classCount );
+        this.matches = new int[ states ][];
+        for ( int s = 0; s < states; s++ ) {
+            this.matches[s] = outputs.get( s ).stream().mapToInt( i -> i ).toArray();
+        }
+    }
+    
+    /**
+     * The markers recognised.
+     * @return a read only list of markers
+     */
+    List<String> markers() {
+        return this.markers;
+    }
+    
+    /**
+     * Determines whether any of the first {@code LINES_TO_READ} lines of 
+     * the remaining bytes of a buffer contain a marker. The buffer's 
+     * position is not changed.
+     * @param source the bytes of a source file
+     * @return {@code true} if the file appears to have been generated
+     */
+    boolean isGenerated( ByteBuffer source ) {
+        int limit = source.limit();
+        int lineStart = source.position();
+        int lines = 0;
+        int state = 0;
+        for ( int i = lineStart; i < limit; i++ ) {
+            byte b = source.get( i );
+            if ( b == '\n' || b == '\r' ) {
+                // \r\n ends a single line
+                if ( b == '\r' && i + 1 < limit && source.get( i + 1 ) == '\n' ) {
+                    i++;
+                }
+                if ( ++lines == LINES_TO_READ ) {
+                    return false;
+                }
+                lineStart = i + 1;
+                state = 0;
+                continue;
+            }
+            state = this.transitions[ 
+                    state * this.classCount + this.byteClasses[ b & 0xff ] ];
+            for ( int m : this.matches[ state ] ) {
+                if ( this.compiled[m].matches( source, lineStart, i + 1, limit ) ) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    
+    // a marker split at each wildcard
+    private static final class Marker {
+        private final boolean anchored;
+        private final byte[][] fragments;
+        
+        private Marker( boolean anchored, byte[][] fragments ) {
+            this.anchored = anchored;
+            this.fragments = fragments;
+        }
+        
+        static Marker of( String marker ) {
+            boolean anchored = marker.startsWith( ANCHOR );
+            String text = anchored ? marker.substring( ANCHOR.length() ) : marker;
+            List<byte[]> fragments = new ArrayList<>();
+            int from = 0;
+            int to;
+            while ( ( to = text.indexOf( WILDCARD, from ) ) != -1 ) {
+                fragments.add( text.substring( from, to ).getBytes( StandardCharsets.UTF_8 ) );
+                from = to + WILDCARD.length();
+            }
+            fragments.add( text.substring( from ).getBytes( StandardCharsets.UTF_8 ) );
+            if ( fragments.get( 0 ).length == 0 ) {
+                throw new IllegalArgumentException( 
+                        "A marker must begin with text: \"" + marker + "\"" );
+            }
+            fragments.removeIf( fragment -> fragment.length == 0 );
+            return new Marker( anchored, fragments.toArray( new byte[ 0 ][] ) );
+        }
+        
+        // the first fragment has been found ending at end, so check the 
+        // anchor and find the other fragments, in order, in the rest of 
+        // the line
+        boolean matches( ByteBuffer source, int lineStart, int end, int limit ) {
+            if ( this.anchored && end - this.fragments[0].length != lineStart ) {
+                return false;
+            }
+            int from = end;
+            for ( int f = 1; f < this.fragments.length; f++ ) {
+                from = find( source, this.fragments[f], from, limit );
+                if ( from == -1 ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        // returns the index after the fragment, or -1 if the line ends first
+        private static int find( ByteBuffer source, byte[] fragment, int from, int limit ) {
+            for ( int i = from; i + fragment.length <= limit; i++ ) {
+                byte b = source.get( i );
+                if ( b == '\n' || b == '\r' ) {
+                    return -1;
+                }
+                int j = 0;
+                while ( j < fragment.length && source.get( i + j ) == fragment[j] ) {
+                    j++;
+                }
+                if ( j == fragment.length ) {
+                    return i + j;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.TokenStream;
+
+/**
+ * The grammar specific parts of extracting names from a Java file. An 
+ * implementation creates the lexer and parser generated from its grammar 
+ * and records the names found by the parser. {@code NameExtractor} 
+ * supplies everything else.
+ * 
+ * @param <P> the type of the generated parser
+ */
+abstract class GrammarBackend<P extends Parser> {
+    
+    private volatile String grammarVersion;
+
+    /**
+     * Retrieves the implementation of a backend.
+     * @param backend a parser backend
+     * @return the implementation
+     */
+    static GrammarBackend<?> of( ParserBackend backend ) {
+        switch ( backend ) {
+            case JLS:
+                return Java8Backend.INSTANCE;
+            case FAST:
+                return JavaBackend.INSTANCE;
+            default:
+                throw new IllegalStateException( 
+                        "Unsupported parser backend: " + backend );
+        }
+    }
+
+    /**
+     * The DFA cache used by lexers and parsers created by the backend.
+     * @return the DFA cache for the grammar
+     */
+    abstract DfaCache dfaCache();
+
+    /**
+     * A skimmer for the tokens produced by the backend's lexer.
+     * @return a declaration skimmer
+     */
+    abstract DeclarationSkimmer skimmer();
+    
+    /**
+     * A splitter for the tokens produced by the backend's lexer.
+     * @return a member splitter
+     */
+    abstract MemberSplitter memberSplitter();
+
+    /**
+     * Whether the parser's SLL prediction mode accepts valid files, so that 
+     * {@link ParsingStrategy#TWO_STAGE} saves time. Where it does not, SLL 
+     * fails on common statements and every file would be parsed twice.
+     * @return true if the grammar can be parsed with SLL
+     */
+    abstract boolean predictsWithSll();
+
+    /**
+     * Creates a lexer that uses the DFA cache.
+     * @param input the characters to lex
+     * @return a lexer
+     */
+    abstract Lexer lexer( CharStream input );
+
+    /**
+     * Creates a parser that uses the DFA cache.
+     * @param tokens the tokens to parse
+     * @return a parser
+     */
+    abstract P parser( TokenStream tokens );
+
+    /**
+     * Creates a set of recognisers to be reused for each file processed 
+     * by a single thread.
+     * @return a lexer, parser and name recorders for the grammar
+     */
+    abstract Recognisers<P> recognisers();
+    
+    /**
+     * The serialised ATNs of the generated lexer and parser.
+     * @return a description of the grammar
+     */
+    abstract String serializedAtn();
+    
+    /**
+     * Identifies the grammar, so that results cached using one version of 
+     * a grammar are not used with another.
+     * @return a digest of the grammar
+     */
+    String grammarVersion() {
+        String version = this.grammarVersion;
+        if ( version == null ) {
+            // a race computes the same value twice
+            version = ResultCache.digest( serializedAtn() );
+            this.grammarVersion = version;
+        }
+        return version;
+    }
+    
+    
+    /**
+     * The lexer, parser and name recorders used to process files one after 
+     * another. They are created for the first file and reset for each 
+     * file after it, rather than allocated afresh. The recognisers keep 
+     * no reference to a file once released. Instances are not thread safe.
+     * 
+     * @param <P> the type of the generated parser
+     */
+    abstract static class Recognisers<P extends Parser> {
+        
+        private final GrammarBackend<P> backend;
+        private Lexer lexer = null;
+        private P parser = null;
+        
+        Recognisers( GrammarBackend<P> backend ) {
+            this.backend = backend;
+        }
+        
+        /**
+         * Prepares the lexer to read a file, using the current DFA cache.
+         * @param input the characters to lex
+         * @return the lexer
+         */
+        Lexer lexer( CharStream input ) {
+            if ( this.lexer == null ) {
+                this.lexer = this.backend.lexer( input );
+            }
+            else {
+                this.lexer.setInputStream( input );
+                this.backend.dfaCache().install( this.lexer );
+            }
+            return this.lexer;
+        }
+        
+        /**
+         * Prepares the parser to read a file, using the current DFA cache, 
+         * building a parse tree and without parse listeners.
+         * @param tokens the tokens to parse
+         * @return the parser
+         */
+        P parser( TokenStream tokens ) {
+            if ( this.parser == null ) {
+                this.parser = this.backend.parser( tokens );
+            }
+            else {
+                this.parser.setTokenStream( tokens );
+                this.parser.removeParseListeners();
+                this.parser.setBuildParseTree( true );
+                this.backend.dfaCache().install( this.parser );
+            }
+            return this.parser;
+        }
+        
+        /**
+         * The parser last prepared by {@link #parser(TokenStream)}.
+         * @return the parser
+         */
+        P parser() {
+            return this.parser;
+        }
+        
+        /**
+         * Releases the input of the lexer and parser, so that the 
+         * characters and tokens of the last file can be collected.
+         */
+        void release() {
+            if ( this.lexer != null ) {
+                this.lexer.setInputStream( null );
+            }
+            if ( this.parser != null ) {
+                this.parser.setTokenStream( null );
+            }
+        }
+        
+        /**
+         * Parses a compilation unit with the prepared parser and records 
+         * the names found.
+         * @param data receives the names found
+         * @param streaming {@code true} to record names without building a 
+         * parse tree
+         * @param metrics told when parsing is complete, with the parse tree 
+         * if one is built
+         */
+        abstract void extract( 
+                RawFileData data, 
+                boolean streaming, 
+                FileMetrics.Builder metrics );
+        
+        /**
+         * Parses a single class body declaration with the prepared parser 
+         * and records the names found.
+         * @param data receives the names found
+         * @param streaming {@code true} to record names without building a 
+         * parse tree
+         */
+        abstract void extractMember( RawFileData data, boolean streaming );
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canonicalises the strings and word list tags held by the
+ * {@code FileData} instances of a {@code Jim}. Across a corpus the same
+ * identifier names, tokens and lists of word lists recur many times,
+ * and each occurrence is otherwise a separate object. The pool returns
+ * the first instance seen of each equal value, so that the duplicates
+ * can be garbage collected.
+ *
+ * <p>Values are held weakly, so the pool never keeps a value alive once
+ * no {@code FileData} refers to it. As in the tokenisation cache, values
+ * are spread over segments, each with its own lock, so that threads
+ * rarely contend. The memory saved is estimated from the sizes of the
+ * duplicates replaced, assuming a 64 bit JVM with compressed
+ * references.</p>
+ */
+class InternPool {
+    private static final int SEGMENTS = 16;  // a power of two
+
+    /**
+     * A pool that returns each value unchanged, used when interning is
+     * disabled.
+     */
+    static final InternPool NONE = new InternPool( false );
+
+    private final boolean enabled;
+    private final Segment[] segments = new Segment[ SEGMENTS ];
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    /**
+     * Creates an empty pool.
+     */
+    InternPool() {
+        this( true );
+    }
+
+    private InternPool( boolean enabled ) {
+        this.enabled = enabled;
+        for ( int i = 0; i < SEGMENTS; i++ ) {
+            this.segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * The canonical instance of a string.
+     * @param text a string, which may be {@code null}
+     * @return an equal string, possibly the same one
+     */
+    String intern( String text ) {
+        if ( ! this.enabled || text == null ) {
+            return text;
+        }
+        String canonical = find( text );
+        if ( canonical == null ) {
+            return add( text );
+        }
+        if ( canonical != text ) {
+            record( stringSize( text ) );
+        }
+        return canonical;
+    }
+
+    /**
+     * The canonical instance of a list of word list names. The list
+     * returned is unmodifiable, and its elements are interned.
+     * @param wordLists a list of word list names
+     * @return an equal, unmodifiable, list
+     */
+    List<String> intern( List<String> wordLists ) {
+        if ( ! this.enabled ) {
+            return wordLists;
+        }
+        List<String> canonical = find( wordLists );
+        if ( canonical == null ) {
+            // the names are interned without holding a segment lock
+            List<String> names = new ArrayList<>( wordLists.size() );
+            wordLists.forEach( name -> names.add( intern( name ) ) );
+            return add( names.isEmpty() 
+                    ? Collections.emptyList() 
+                    : Collections.unmodifiableList( names ) );
+        }
+        if ( canonical != wordLists ) {
+            record( listSize( wordLists.size() ) );
+        }
+        return canonical;
+    }
+
+    /**
+     * The number of duplicate values replaced by a canonical instance.
+     * @return the number of duplicates replaced
+     */
+    long duplicateCount() {
+        return this.duplicates.sum();
+    }
+
+    /**
+     * An estimate of the memory occupied by the duplicates replaced.
+     * @return an estimate in bytes
+     */
+    long savedBytes() {
+        return this.savedBytes.sum();
+    }
+
+    /**
+     * The number of distinct values held. The count is approximate as
+     * values no longer in use are discarded at any time.
+     * @return the number of values in the pool
+     */
+    long size() {
+        long size = 0;
+        for ( Segment segment : this.segments ) {
+            synchronized ( segment ) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    // the pooled value equal to a value, or null
+    @SuppressWarnings( "unchecked" )
+    private <T> T find( T value ) {
+        Segment segment = segment( value );
+        synchronized ( segment ) {
+            WeakReference<Object> reference = segment.get( value );
+            return reference == null ? null : (T) reference.get();
+        }
+    }
+
+    // pools a value unless another thread has pooled an equal value first
+    @SuppressWarnings( "unchecked" )
+    private <T> T add( T value ) {
+        Segment segment = segment( value );
+        synchronized ( segment ) {
+            WeakReference<Object> reference = segment.get( value );
+            Object canonical = reference == null ? null : reference.get();
+            if ( canonical == null ) {
+                segment.put( value, new WeakReference<>( value ) );
+                return value;
+            }
+            return (T) canonical;
+        }
+    }
+
+    private Segment segment( Object value ) {
+        int hash = value.hashCode();
+        hash ^= ( hash >>> 16 );  // spread the high bits, as HashMap does
+        return this.segments[ hash & ( SEGMENTS - 1 ) ];
+    }
+
+    private void record( long bytes ) {
+        this.duplicates.increment();
+        this.savedBytes.add( bytes );
+    }
+
+    // a String object and its char array
+    private static long stringSize( String text ) {
+        return 24 + align( 16 + 2L * text.length() );
+    }
+
+    // the unmodifiable wrapper, the ArrayList and its array; the names
+    // themselves are counted if they are interned
+    private static long listSize( int length ) {
+        return 16 + 24 + align( 16 + 4L * length );
+    }
+
+    private static long align( long bytes ) {
+        return ( bytes + 7 ) & ~7L;
+    }
+
+
+    private static class Segment extends WeakHashMap<Object, WeakReference<Object>> {
+    }
+}
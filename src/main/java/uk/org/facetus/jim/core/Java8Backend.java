@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import uk.org.facetus.jim.core.parser.java8.Java8Lexer;
+import uk.org.facetus.jim.core.parser.java8.Java8Parser;
+import uk.org.facetus.jim.core.parser.java8.Java8StreamingListener;
+import uk.org.facetus.jim.core.parser.java8.Java8VisitorImplementation;
+
+/**
+ * Extracts names using the grammar derived from the Java Language 
+ * Specification.
+ */
+final class Java8Backend extends GrammarBackend<Java8Parser> {
+
+    static final Java8Backend INSTANCE = new Java8Backend();
+
+    private final DfaCache dfaCache = 
+            new DfaCache( Java8Lexer._ATN, Java8Parser._ATN );
+    private final DeclarationSkimmer skimmer = 
+            new DeclarationSkimmer( Java8Lexer.VOCABULARY );
+    private final MemberSplitter memberSplitter = 
+            new MemberSplitter( Java8Lexer.VOCABULARY );
+
+    private Java8Backend() {}
+
+    @Override
+    DfaCache dfaCache() {
+        return this.dfaCache;
+    }
+
+    @Override
+    DeclarationSkimmer skimmer() {
+        return this.skimmer;
+    }
+
+    @Override
+    MemberSplitter memberSplitter() {
+        return this.memberSplitter;
+    }
+    
+    @Override
+    boolean predictsWithSll() {
+        // the left factored expression and statement rules that follow the 
+        // specification need full context to choose an alternative
+        return false;
+    }
+
+    @Override
+    Lexer lexer( CharStream input ) {
+        Java8Lexer lexer = new Java8Lexer( input );
+        this.dfaCache.install( lexer );
+        return lexer;
+    }
+
+    @Override
+    Java8Parser parser( TokenStream tokens ) {
+        Java8Parser parser = new Java8Parser( tokens );
+        this.dfaCache.install( parser );
+        return parser;
+    }
+
+    @Override
+    Recognisers<Java8Parser> recognisers() {
+        return new Java8Recognisers( this );
+    }
+    
+    @Override
+    String serializedAtn() {
+        return Java8Lexer._serializedATN + Java8Parser._serializedATN;
+    }
+    
+    
+    // the visitor and streaming listener are reset for each file
+    private static final class Java8Recognisers extends Recognisers<Java8Parser> {
+        
+        private Java8VisitorImplementation visitor = null;
+        private Java8StreamingListener listener = null;
+        
+        Java8Recognisers( Java8Backend backend ) {
+            super( backend );
+        }
+        
+        @Override
+        void extract( 
+                RawFileData data, 
+                boolean streaming, 
+                FileMetrics.Builder metrics ) {
+            Java8Parser parser = parser();
+            if ( streaming ) {
+                parser.setBuildParseTree( false );
+                parser.addParseListener( listener( data ) );
+                parser.compilationUnit();
+                metrics.parsed( null );
+            }
+            else {
+                ParseTree parseTree = parser.compilationUnit();  // grammar root.
+                metrics.parsed( parseTree );
+                visitor( data ).visit( parseTree );
+            }
+        }
+        
+        @Override
+        void extractMember( RawFileData data, boolean streaming ) {
+            Java8Parser parser = parser();
+            if ( streaming ) {
+                parser.setBuildParseTree( false );
+                parser.addParseListener( listener( data ) );
+                parser.classBodyDeclaration();
+            }
+            else {
+                visitor( data ).visit( parser.classBodyDeclaration() );
+            }
+        }
+        
+        private Java8VisitorImplementation visitor( RawFileData data ) {
+            if ( this.visitor == null ) {
+                this.visitor = new Java8VisitorImplementation( data );
+            }
+            else {
+                this.visitor.reset( data );
+            }
+            return this.visitor;
+        }
+        
+        private Java8StreamingListener listener( RawFileData data ) {
+            if ( this.listener == null ) {
+                this.listener = new Java8StreamingListener( data );
+            }
+            else {
+                this.listener.reset( data );
+            }
+            return this.listener;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import uk.org.facetus.jim.core.parser.java.JavaLexer;
+import uk.org.facetus.jim.core.parser.java.JavaNameListener;
+import uk.org.facetus.jim.core.parser.java.JavaParser;
+
+/**
+ * Extracts names using the faster grammar derived from the grammars-v4 
+ * Java grammar. The same listener records names whether or not a parse 
+ * tree is built: it is either registered with the parser or walks the 
+ * tree once parsing is complete.
+ */
+final class JavaBackend extends GrammarBackend<JavaParser> {
+
+    static final JavaBackend INSTANCE = new JavaBackend();
+
+    private final DfaCache dfaCache = 
+            new DfaCache( JavaLexer._ATN, JavaParser._ATN );
+    private final DeclarationSkimmer skimmer = 
+            new DeclarationSkimmer( JavaLexer.VOCABULARY );
+    private final MemberSplitter memberSplitter = 
+            new MemberSplitter( JavaLexer.VOCABULARY );
+
+    private JavaBackend() {}
+
+    @Override
+    DfaCache dfaCache() {
+        return this.dfaCache;
+    }
+
+    @Override
+    DeclarationSkimmer skimmer() {
+        return this.skimmer;
+    }
+
+    @Override
+    MemberSplitter memberSplitter() {
+        return this.memberSplitter;
+    }
+    
+    @Override
+    boolean predictsWithSll() {
+        return true;
+    }
+
+    @Override
+    Lexer lexer( CharStream input ) {
+        JavaLexer lexer = new JavaLexer( input );
+        this.dfaCache.install( lexer );
+        return lexer;
+    }
+
+    @Override
+    JavaParser parser( TokenStream tokens ) {
+        JavaParser parser = new JavaParser( tokens );
+        this.dfaCache.install( parser );
+        return parser;
+    }
+
+    @Override
+    Recognisers<JavaParser> recognisers() {
+        return new JavaRecognisers( this );
+    }
+    
+    @Override
+    String serializedAtn() {
+        return JavaLexer._serializedATN + JavaParser._serializedATN;
+    }
+    
+    
+    // the listener is reset for each file
+    private static final class JavaRecognisers extends Recognisers<JavaParser> {
+        
+        private JavaNameListener listener = null;
+        
+        JavaRecognisers( JavaBackend backend ) {
+            super( backend );
+        }
+        
+        @Override
+        void extract( 
+                RawFileData data, 
+                boolean streaming, 
+                FileMetrics.Builder metrics ) {
+            JavaParser parser = parser();
+            JavaNameListener nameListener = listener( data );
+            if ( streaming ) {
+                parser.setBuildParseTree( false );
+                parser.addParseListener( nameListener );
+                parser.compilationUnit();
+                metrics.parsed( null );
+            }
+            else {
+                ParseTree parseTree = parser.compilationUnit();  // grammar root.
+                metrics.parsed( parseTree );
+                ParseTreeWalker.DEFAULT.walk( nameListener, parseTree );
+            }
+        }
+        
+        @Override
+        void extractMember( RawFileData data, boolean streaming ) {
+            JavaParser parser = parser();
+            JavaNameListener nameListener = listener( data );
+            if ( streaming ) {
+                parser.setBuildParseTree( false );
+                parser.addParseListener( nameListener );
+                parser.classBodyDeclaration();
+            }
+            else {
+                ParseTreeWalker.DEFAULT.walk( 
+                        nameListener, parser.classBodyDeclaration() );
+            }
+        }
+        
+        private JavaNameListener listener( RawFileData data ) {
+            if ( this.listener == null ) {
+                this.listener = new JavaNameListener( data );
+            }
+            else {
+                this.listener.reset( data );
+            }
+            return this.listener;
+        }
+    }
+}
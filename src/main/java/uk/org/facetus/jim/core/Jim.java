@@ -16,7 +16,22 @@
 
 package uk.org.facetus.jim.core;
 
-import uk.ac.open.crc.intt.IdentifierNameTokeniser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import uk.ac.open.crc.intt.IdentifierNameTokeniserFactory;
 import uk.ac.open.crc.intt.DictionaryConfiguration;
 
@@ -25,20 +40,61 @@ import uk.ac.open.crc.intt.DictionaryConfiguration;
  * of {@code Jim} and then use the {@code create()} method to 
  * obtain instances of {@code NameExtractor} that process Java files
  * To extract naming data.
+ *
+ * <p>An instance of {@code Jim} may be shared by many threads. The word 
+ * lists are loaded once and each thread that tokenises names is given 
+ * its own tokeniser, which uses the shared word lists. A 
+ * {@code NameExtractor} is not thread safe, so each thread should 
+ * create its own.</p>
  */
 public class Jim {
+    private static final String WARM_UP_FOLDER = "warmup/";
+    private static final String[] WARM_UP_FILES = { "WarmUpSample.java" };
+    private static final long DEFAULT_TOKENISATION_CACHE_SIZE = 100_000;
+    
+    /**
+     * The markers of generated files recognised by default: those left by 
+     * ANTLR 3, JavaCC, JJTree, the IDL-to-Java compiler, Apache Axis, the 
+     * protocol buffer compiler and Jython.
+     */
+    public static final List<String> DEFAULT_GENERATED_CODE_MARKERS = 
+            GeneratedCodeDetector.DEFAULT_MARKERS;
 
-    private final IdentifierNameTokeniserFactory inttFactory;
-    private final IdentifierNameTokeniser intt;
+    private final DictionaryConfiguration dictionaryConfiguration;
+    private TokeniserPool tokenisers = null;  // loaded when first needed
     private TokenisationStrategy strategy = TokenisationStrategy.FULL;
+    private ParsingStrategy parsingStrategy = ParsingStrategy.LL;
+    private ExtractionMode extractionMode = ExtractionMode.FULL;
+    private boolean streaming = false;
+    private int parallelParsingThreshold = 0;
+    private long parseTimeout = 0;  // nanoseconds, 0 is unbounded
+    private GeneratedCodeDetector generatedCodeDetector = GeneratedCodeDetector.DEFAULT;
+    private boolean skipGeneratedFiles = false;
+    private boolean fileMetrics = false;
+    private JimMonitor monitor = null;  // created when monitoring starts
+    private ObjectName mbeanName = null;
+    private ParserBackend parserBackend = ParserBackend.JLS;
+    
+    private final AtomicLong llFallbacks = new AtomicLong();
+    private final AtomicLong parallelParses = new AtomicLong();
+    private final AtomicLong parallelParseFallbacks = new AtomicLong();
+    private final AtomicLong parseTimeouts = new AtomicLong();
+    private final AtomicLong generatedFiles = new AtomicLong();
+    private final TokenisationCache tokenisationCache = 
+            new TokenisationCache( DEFAULT_TOKENISATION_CACHE_SIZE );
+    private final NameSplitter nameSplitter = new NameSplitter();
+    private volatile InternPool internPool = InternPool.NONE;
+    
+    private ResultCache resultCache = null;
+    private long resultCacheMaximumSize = 0;
+    private long resultCacheMaximumAge = 0;
 
     /**
      * Creates an instance of {@code Jim} which can be used to create
      * {@code NameExtractor} instances. 
      */
     public Jim() {
-	this.inttFactory = new IdentifierNameTokeniserFactory();
-	this.intt = this.inttFactory.create();
+        this.dictionaryConfiguration = null;
     }
     
     
@@ -49,12 +105,13 @@ public class Jim {
      * @param dc identifies a set of word lists to use with intt
      */
     public Jim( DictionaryConfiguration dc ) {
-        this.inttFactory = new IdentifierNameTokeniserFactory( dc );
-	this.intt = this.inttFactory.create();
+        this.dictionaryConfiguration = dc;
     }
     
     /**
-     * Selects a tokenisation strategy to use. FULL is the default.
+     * Selects a tokenisation strategy to use. FULL is the default. With 
+     * {@code NONE} the word lists are not loaded, so the instance is 
+     * created quickly, and names are not tokenised.
      * @param strategy a tokenisation strategy
      */
     public Jim( TokenisationStrategy strategy ) {
@@ -74,13 +131,757 @@ public class Jim {
         this.strategy = strategy;
     }
     
+    /**
+     * Creates an instance of {@code Jim} using the default word lists, 
+     * whose tokenisation cache is filled from a snapshot written by 
+     * {@link #writeTokenisationSnapshot(Path)}. The word lists are only 
+     * loaded when a name that is not in the snapshot is tokenised, so 
+     * short-lived jobs that process familiar code start quickly.
+     * @param snapshot a snapshot made with the default word lists
+     * @throws IOException if the snapshot cannot be read, or was made 
+     * with other word lists
+     */
+    public Jim( Path snapshot ) throws IOException {
+        this();
+        TokenisationSnapshot.read( snapshot, dictionary(), this.tokenisationCache );
+    }
+    
+    /**
+     * Creates an instance of {@code Jim} initialised with a specific 
+     * set of word lists and a tokenisation strategy, whose tokenisation 
+     * cache is filled from a snapshot written by 
+     * {@link #writeTokenisationSnapshot(Path)}. The word lists are only 
+     * loaded when a name that is not in the snapshot is tokenised.
+     * @param dc identifies a set of word lists to use with intt
+     * @param strategy a tokenisation strategy for intt
+     * @param snapshot a snapshot made with the same word lists
+     * @throws IOException if the snapshot cannot be read, or was made 
+     * with other word lists
+     */
+    public Jim( DictionaryConfiguration dc, TokenisationStrategy strategy, Path snapshot ) 
+            throws IOException {
+        this( dc, strategy );
+        TokenisationSnapshot.read( snapshot, dictionary(), this.tokenisationCache );
+    }
+    
+    /**
+     * Creates an instance of {@code Jim} that parses files with a 
+     * specific grammar. {@code JLS} is the default.
+     * @param parserBackend the grammar to parse files with
+     */
+    public Jim( ParserBackend parserBackend ) {
+        this();
+        this.parserBackend = parserBackend;
+    }
+    
+    /**
+     * Creates an instance of {@code Jim} initialised with a specific 
+     * set of word lists, a tokenisation strategy, and the grammar to parse 
+     * files with.
+     * @param dc identifies a set of word lists to use with intt
+     * @param strategy a tokenisation strategy for intt
+     * @param parserBackend the grammar to parse files with
+     */
+    public Jim( 
+            DictionaryConfiguration dc, 
+            TokenisationStrategy strategy, 
+            ParserBackend parserBackend ) {
+        this( dc, strategy );
+        this.parserBackend = parserBackend;
+    }
+    
+    
+    /**
+     * Selects the prediction strategy used by the parser. LL is the default.
+     * {@link ParsingStrategy#TWO_STAGE} only applies to the 
+     * {@link ParserBackend#FAST} grammar, and files are parsed with LL when 
+     * the {@code JLS} grammar is used. The setting applies to 
+     * {@code NameExtractor} instances created after it is made.
+     * @param parsingStrategy a parsing strategy
+     */
+    public void parsingStrategy( ParsingStrategy parsingStrategy ) {
+        this.parsingStrategy = parsingStrategy;
+    }
+    
+    /**
+     * Selects which names are extracted from each file. FULL is the default. 
+     * The setting applies to {@code NameExtractor} instances created after 
+     * it is made.
+     * @param extractionMode an extraction mode
+     */
+    public void extractionMode( ExtractionMode extractionMode ) {
+        this.extractionMode = extractionMode;
+    }
+    
+    /**
+     * Selects whether names are recorded while each file is parsed, 
+     * instead of by visiting a parse tree once parsing is complete. 
+     * Without a parse tree the memory needed to process a file depends only 
+     * on the number of tokens in it, which allows very large files to 
+     * be processed. The names recovered are the same. 
+     * Defaults to {@code false}. The setting applies to 
+     * {@code NameExtractor} instances created after it is made.
+     * @param streaming {@code true} to extract names without building a 
+     * parse tree
+     */
+    public void streaming( boolean streaming ) {
+        this.streaming = streaming;
+    }
+    
+    /**
+     * Selects the size of file, in tokens, from which the members of the 
+     * top level classes in a file are parsed in parallel, to reduce the 
+     * time taken by very large files. The file is divided by matching 
+     * braces, and the members are parsed on the threads of the fork join 
+     * pool processing the file, or the common pool. The names recovered 
+     * are the same as when the file is parsed as a whole, which it is if 
+     * it cannot be divided, or if a member fails to parse. Files with a 
+     * top level interface, enum or annotation type are not divided. The 
+     * default is 0, which disables parallel parsing. The setting applies 
+     * to {@code NameExtractor} instances created after it is made.
+     * @param tokens the minimum number of tokens in a file parsed in 
+     * parallel, or 0 to parse every file as a whole
+     * @throws IllegalArgumentException if {@code tokens} is negative
+     */
+    public void parallelParsingThreshold( int tokens ) {
+        if ( tokens < 0 ) {
+            throw new IllegalArgumentException( 
+                    "The threshold must not be negative: " + tokens );
+        }
+        this.parallelParsingThreshold = tokens;
+    }
+    
+    /**
+     * The number of files, processed by all the {@code NameExtractor} 
+     * instances created by this {@code Jim}, whose class members were 
+     * parsed in parallel.
+     * @return the number of files parsed in parallel
+     */
+    public long parallelParseCount() {
+        return this.parallelParses.get();
+    }
+    
+    /**
+     * The number of files, processed by all the {@code NameExtractor} 
+     * instances created by this {@code Jim}, that were large enough to be 
+     * parsed in parallel, but were parsed as a whole because they could 
+     * not be divided into members, or a part did not parse. A part that 
+     * does not parse may have been divided in the wrong place, and a 
+     * syntax error is reported by the parse of the whole file.
+     * @return the number of files parsed as a whole instead
+     */
+    public long parallelParseFallbackCount() {
+        return this.parallelParseFallbacks.get();
+    }
+    
+    /**
+     * Sets the time allowed to lex and parse each file. A few unusual 
+     * inputs, such as deeply nested conditional expressions, can make 
+     * parsing take minutes. When the time runs out, parsing stops and a 
+     * {@code JimParseTimeoutException} is thrown that holds the names 
+     * recorded so far. The time is checked as the parser reads tokens, so 
+     * parsing stops shortly after the limit. The default is 0, which allows 
+     * unlimited time. The setting applies to {@code NameExtractor} 
+     * instances created after it is made.
+     * @param duration the time allowed for each file, or 0 for no limit
+     * @param unit the unit of the duration
+     * @throws IllegalArgumentException if {@code duration} is negative
+     */
+    public void parseTimeout( long duration, TimeUnit unit ) {
+        if ( duration < 0 ) {
+            throw new IllegalArgumentException( 
+                    "The timeout must not be negative: " + duration );
+        }
+        this.parseTimeout = unit.toNanos( duration );
+    }
+    
+    /**
+     * The number of files, processed by all the {@code NameExtractor} 
+     * instances created by this {@code Jim}, that were not parsed within 
+     * the time set by {@link #parseTimeout(long, TimeUnit)}.
+     * @return the number of files whose parsing timed out
+     */
+    public long parseTimeoutCount() {
+        return this.parseTimeouts.get();
+    }
+    
+    /**
+     * Sets the markers that identify a file generated by software, such 
+     * as a parser generated by ANTLR. A file is taken to be generated if 
+     * one of its first 100 lines contains a marker, and 
+     * {@code FileData.isGenerated()} reports it. All the markers are 
+     * sought in a single pass over the bytes read for parsing. A marker is 
+     * literal text, except that a leading {@code ^} matches the start of 
+     * a line and {@code .*} matches any text within a line. The default 
+     * markers are {@link #DEFAULT_GENERATED_CODE_MARKERS}, the same as 
+     * {@code Utils.isGenerated()}. The setting applies to 
+     * {@code NameExtractor} instances created after it is made.
+     * @param markers the markers of generated files, which may be empty
+     * @throws IllegalArgumentException if a marker does not begin with 
+     * text
+     */
+    public void generatedCodeMarkers( Collection<String> markers ) {
+        this.generatedCodeDetector = new GeneratedCodeDetector( markers );
+    }
+    
+    /**
+     * Selects whether files recognised as generated are parsed. A skipped 
+     * file is returned with no names, and {@code FileData.isGenerated()} 
+     * is {@code true}. Defaults to {@code false}. The setting applies to 
+     * {@code NameExtractor} instances created after it is made.
+     * @param skip {@code true} to extract no names from generated files
+     * @see #generatedCodeMarkers(Collection)
+     */
+    public void skipGeneratedFiles( boolean skip ) {
+        this.skipGeneratedFiles = skip;
+    }
+    
+    /**
+     * Selects whether the time spent in each phase of processing a file, 
+     * and the size of the file at each stage, are recorded and made 
+     * available from {@code FileData.metrics()}. When metrics are 
+     * recorded each file is lexed completely before it is parsed, so that 
+     * the two phases can be timed separately, and the nodes of each parse 
+     * tree are counted. Metrics are also recorded while the instance is 
+     * monitored, through JMX or Micrometer. Defaults to {@code false}. The 
+     * setting applies to {@code NameExtractor} instances created after it 
+     * is made.
+     * @param record {@code true} to record the metrics of each file
+     */
+    public void fileMetrics( boolean record ) {
+        this.fileMetrics = record;
+    }
+    
+    /**
+     * Publishes the operational metrics of this instance through JMX, as 
+     * a {@link JimMonitorMXBean} registered with the platform MBean server 
+     * under the name {@code uk.org.facetus.jim:type=Jim,name=<name>}. 
+     * Monitoring starts with the first call, and covers the 
+     * {@code NameExtractor} instances created after it. An instance that 
+     * is not monitored records nothing.
+     * @param name distinguishes this instance from others in the JVM
+     * @return the name the MBean is registered under
+     * @throws JMException if the MBean cannot be registered, for example 
+     * because the name is in use
+     * @throws IllegalStateException if the MBean is already registered
+     */
+    public synchronized ObjectName registerMBean( String name ) throws JMException {
+        if ( this.mbeanName != null ) {
+            throw new IllegalStateException( 
+                    "MBean already registered as " + this.mbeanName );
+        }
+        ObjectName objectName = new ObjectName( 
+                "uk.org.facetus.jim:type=Jim,name=" + ObjectName.quote( name ) );
+        ManagementFactory.getPlatformMBeanServer()
+                .registerMBean( startMonitoring(), objectName );
+        this.mbeanName = objectName;
+        return objectName;
+    }
+    
+    /**
+     * Removes the MBean registered by {@link #registerMBean(String)}, if 
+     * any. Monitoring continues, so that the MBean can be registered 
+     * again, and any Micrometer meters remain current.
+     * @throws JMException if the MBean cannot be unregistered
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if ( this.mbeanName != null ) {
+            ManagementFactory.getPlatformMBeanServer()
+                    .unregisterMBean( this.mbeanName );
+            this.mbeanName = null;
+        }
+    }
+    
+    /**
+     * Selects whether the identifier names, lower case tokens and word 
+     * list tags of every {@code FileData} produced are canonicalised, so 
+     * that each distinct value is held once however many files it occurs 
+     * in. Interning costs a lookup for each value, and is worthwhile when 
+     * the results for many files are kept. Values are only held while a 
+     * {@code FileData} refers to them. Defaults to {@code false}. The 
+     * setting applies to {@code NameExtractor} instances created after it 
+     * is made.
+     * @param interning {@code true} to share equal values between files
+     */
+    public synchronized void interning( boolean interning ) {
+        if ( ! interning ) {
+            this.internPool = InternPool.NONE;
+        }
+        else if ( this.internPool == InternPool.NONE ) {
+            this.internPool = new InternPool();
+        }
+    }
+    
+    /**
+     * The number of names, tokens and word list tags that were replaced 
+     * by an equal value already held, since interning was enabled.
+     * @return the number of duplicates replaced
+     * @see #interning(boolean)
+     */
+    public long internedDuplicateCount() {
+        return this.internPool.duplicateCount();
+    }
+    
+    /**
+     * An estimate of the memory occupied by the duplicates that 
+     * interning has replaced, which is the memory saved if the 
+     * {@code FileData} instances are kept.
+     * @return an estimate in bytes
+     * @see #interning(boolean)
+     */
+    public long internedBytesSaved() {
+        return this.internPool.savedBytes();
+    }
+    
+    /**
+     * The number of distinct values held by the intern pool. Values no 
+     * longer used by any {@code FileData} are discarded.
+     * @return the approximate number of values pooled
+     * @see #interning(boolean)
+     */
+    public long internPoolSize() {
+        return this.internPool.size();
+    }
+    
+    /**
+     * The number of files, processed by all the {@code NameExtractor} 
+     * instances created by this {@code Jim}, that were recognised as 
+     * generated, whether or not they were skipped.
+     * @return the number of generated files
+     */
+    public long generatedFileCount() {
+        return this.generatedFiles.get();
+    }
+    
+    /**
+     * The number of tokenisers created for the {@code NameExtractor} 
+     * instances created by this {@code Jim}. Each thread that tokenises 
+     * names has a tokeniser of its own, and all the tokenisers share a 
+     * single copy of the word lists.
+     * @return the number of tokenisers, which is 0 before any name is 
+     * tokenised and when the tokenisation strategy is {@code NONE}
+     */
+    public int tokeniserCount() {
+        TokeniserPool pool;
+        synchronized ( this ) {
+            pool = this.tokenisers;
+        }
+        return pool == null ? 0 : pool.size();
+    }
+    
+    /**
+     * The number of files, processed by all the {@code NameExtractor} 
+     * instances created by this {@code Jim}, that SLL prediction could not 
+     * parse and that were re-parsed using full LL prediction. The count is 
+     * only incremented when the {@code TWO_STAGE} strategy is in use.
+     * @return the number of files that needed the LL fallback
+     */
+    public long llFallbackCount() {
+        return this.llFallbacks.get();
+    }
+    
+    /**
+     * The number of DFA states cached by the lexers and parsers of 
+     * {@code NameExtractor} instances. The cache speeds up parsing, but 
+     * grows as new constructs are encountered. The cache for each 
+     * {@code ParserBackend} is shared by all instances of {@code Jim} using
+     * it, so {@link #clearDfaCache()}, {@link #dfaCacheMaximumSize(long)}
+     * and {@link #dfaCacheMaximumAge(long, TimeUnit)} affect all of them.
+     * The count is approximate while files are being processed.
+     * @return the number of cached DFA states
+     */
+    public long dfaCacheSize() {
+        return dfaCache().size();
+    }
+    
+    /**
+     * Empties the DFA cache. Files being processed when the cache is 
+     * cleared are unaffected.
+     */
+    public void clearDfaCache() {
+        dfaCache().clear();
+    }
+    
+    /**
+     * Sets the maximum number of DFA states to cache. The cache is cleared
+     * when a file has been processed and the limit is exceeded. 
+     * @param states the maximum number of DFA states, or 0, the default, 
+     * for no limit
+     */
+    public void dfaCacheMaximumSize( long states ) {
+        dfaCache().maximumSize( states );
+    }
+    
+    /**
+     * Sets the maximum age of the DFA cache. The cache is cleared 
+     * when a file has been processed and the cache is older than the limit. 
+     * @param duration the maximum age, or 0, the default, for no limit
+     * @param unit the unit of the duration
+     */
+    public void dfaCacheMaximumAge( long duration, TimeUnit unit ) {
+        dfaCache().maximumAge( unit.toNanos( duration ) );
+    }
+    
+    /**
+     * The number of identifier names in the tokenisation cache. Names 
+     * recur frequently, within and across files, so each 
+     * {@code NameExtractor} created by this {@code Jim} looks up the 
+     * tokenisation of a name in the cache before tokenising it. 
+     * @return the number of tokenisations cached
+     */
+    public long tokenisationCacheSize() {
+        return this.tokenisationCache.size();
+    }
+    
+    /**
+     * The number of names whose tokenisation was found in the cache.
+     * @return the number of cache hits
+     */
+    public long tokenisationCacheHitCount() {
+        return this.tokenisationCache.hitCount();
+    }
+    
+    /**
+     * The number of names that were not in the cache and were tokenised.
+     * @return the number of cache misses
+     */
+    public long tokenisationCacheMissCount() {
+        return this.tokenisationCache.missCount();
+    }
+    
+    /**
+     * Empties the tokenisation cache. The hit and miss counts are kept.
+     */
+    public void clearTokenisationCache() {
+        this.tokenisationCache.clear();
+    }
+    
+    /**
+     * Sets the approximate maximum number of names held in the 
+     * tokenisation cache. The least recently used names are evicted to 
+     * keep within the limit. The default is 100,000 names.
+     * @param names the maximum number of names, or 0 to disable the cache
+     */
+    public void tokenisationCacheMaximumSize( long names ) {
+        this.tokenisationCache.maximumSize( names );
+    }
+    
+    /**
+     * Writes the contents of the tokenisation cache to a snapshot file, 
+     * which a later {@code Jim} using the same word lists can be created 
+     * from. Process and tokenise a representative set of files first to 
+     * fill the cache. The file is replaced if it exists.
+     * @param snapshot the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTokenisationSnapshot( Path snapshot ) throws IOException {
+        TokenisationSnapshot.write( snapshot, dictionary(), this.tokenisationCache );
+    }
+    
+    /**
+     * The number of names that the {@code ADAPTIVE} tokenisation strategy 
+     * split without the tokeniser. Together with 
+     * {@link #adaptiveTokeniserCount()} this gives the proportion of names 
+     * that took each path. Each occurrence of a name is counted. Names 
+     * are only split once the tokeniser has found their words, so the 
+     * proportion grows as a corpus is processed.
+     * @return the number of names split without the tokeniser
+     */
+    public long adaptiveSplitCount() {
+        return this.nameSplitter.splitCount();
+    }
+    
+    /**
+     * The number of names that the {@code ADAPTIVE} tokenisation strategy 
+     * found ambiguous and passed to the tokeniser, including those whose 
+     * tokenisation was then found in the tokenisation cache.
+     * @return the number of names passed to the tokeniser
+     */
+    public long adaptiveTokeniserCount() {
+        return this.nameSplitter.deferredCount();
+    }
+    
+    /**
+     * Stores the names and tokens extracted from each file in a directory, 
+     * so that files whose contents have not changed since they were last 
+     * processed need not be parsed or tokenised again. Cached results are 
+     * only used with the same version of the library, grammar, extraction 
+     * mode, word lists and tokenisation strategy as produced them. The 
+     * directory may be shared by several instances of {@code Jim}, in this 
+     * or other processes. The result cache is not used by default. The 
+     * setting applies to {@code NameExtractor} instances created after 
+     * it is made.
+     * @param directory the cache directory, which is created if necessary, 
+     * or {@code null} to stop using the cache
+     * @throws IOException if the directory cannot be created
+     */
+    public void resultCache( Path directory ) throws IOException {
+        if ( directory == null ) {
+            this.resultCache = null;
+            return;
+        }
+        ResultCache cache = new ResultCache( directory );
+        cache.maximumSize( this.resultCacheMaximumSize );
+        cache.maximumAge( this.resultCacheMaximumAge );
+        this.resultCache = cache;
+    }
+    
+    /**
+     * Sets the maximum size of the files in the result cache directory. 
+     * The least recently used results are evicted to keep within the limit 
+     * when {@link #evictResultCache()} is called, and periodically as 
+     * results are stored.
+     * @param bytes the maximum size in bytes, or 0, the default, for 
+     * no limit
+     */
+    public void resultCacheMaximumSize( long bytes ) {
+        this.resultCacheMaximumSize = bytes;
+        if ( this.resultCache != null ) {
+            this.resultCache.maximumSize( bytes );
+        }
+    }
+    
+    /**
+     * Sets the time after which unused results are evicted from the 
+     * result cache.
+     * @param duration the maximum time since a result was last used, 
+     * or 0, the default, for no limit
+     * @param unit the unit of the duration
+     */
+    public void resultCacheMaximumAge( long duration, TimeUnit unit ) {
+        this.resultCacheMaximumAge = unit.toMillis( duration );
+        if ( this.resultCache != null ) {
+            this.resultCache.maximumAge( this.resultCacheMaximumAge );
+        }
+    }
+    
+    /**
+     * The number of files whose results were found in the result cache.
+     * @return the number of cache hits, or 0 if no cache is in use
+     */
+    public long resultCacheHitCount() {
+        return this.resultCache == null ? 0 : this.resultCache.hitCount();
+    }
+    
+    /**
+     * The number of files that were not in the result cache and were parsed.
+     * @return the number of cache misses, or 0 if no cache is in use
+     */
+    public long resultCacheMissCount() {
+        return this.resultCache == null ? 0 : this.resultCache.missCount();
+    }
+    
+    /**
+     * Removes results from the cache directory that exceed the age and 
+     * size limits set. Does nothing if no cache is in use.
+     * @throws IOException if the cache directory cannot be read
+     */
+    public void evictResultCache() throws IOException {
+        if ( this.resultCache != null ) {
+            this.resultCache.evict();
+        }
+    }
+    
+    /**
+     * Populates the DFA cache by parsing a small sample of Java code 
+     * bundled with the library, so that the first files processed are 
+     * not slowed by building the cache. The sample is parsed using the 
+     * current settings.
+     */
+    public void warmUp() {
+        NameExtractor extractor = create();
+        for ( String fileName : WARM_UP_FILES ) {
+            try ( InputStream is = 
+                    Jim.class.getResourceAsStream( WARM_UP_FOLDER + fileName ) ) {
+                extractor.process( new RawFileData( fileName ), is );
+            }
+            catch ( IOException | JimParserException e ) {
+                // the sample is part of the library
+                throw new IllegalStateException( 
+                        "Unable to process warm up file " + fileName, e );
+            }
+        }
+    }
+    
+    /**
+     * Processes every Java file in a directory tree using the default 
+     * {@code ProcessingOptions}.
+     * @param root the root of the directory tree, or a single file
+     * @param consumer receives the data extracted from each file
+     * @return a summary of the files processed
+     * @throws IOException if the directory tree cannot be read
+     * @see #processAll(Path, ProcessingOptions, Consumer)
+     */
+    public ProcessingResult processAll( Path root, Consumer<FileData> consumer ) 
+            throws IOException {
+        return processAll( root, new ProcessingOptions(), consumer );
+    }
+    
+    /**
+     * Processes the files in a directory tree selected by the options, 
+     * using the current settings. Files are processed in parallel by a 
+     * work-stealing pool of worker threads, each with its own 
+     * {@code NameExtractor} and tokeniser. The consumer is called from 
+     * the worker threads as each file is processed, in no particular 
+     * order, and so must be thread safe. Files that cannot be read or 
+     * parsed are recorded in the result and do not stop the remaining 
+     * files from being processed. An exception thrown by the consumer 
+     * stops processing and is rethrown.
+     * @param root the root of the directory tree, or a single file
+     * @param options selects the files to process and the number of 
+     * worker threads
+     * @param consumer receives the data extracted from each file
+     * @return a summary of the files processed
+     * @throws IOException if the directory tree cannot be read
+     */
+    public ProcessingResult processAll( 
+            Path root, 
+            ProcessingOptions options, 
+            Consumer<FileData> consumer ) throws IOException {
+        List<Path> files;
+        try ( Stream<Path> paths = Files.walk( root ) ) {
+            files = paths
+                    .filter( Files::isRegularFile )
+                    .filter( options.fileMatcher()::matches )
+                    .collect( Collectors.toList() );
+        }
+        catch ( UncheckedIOException e ) {
+            throw e.getCause();
+        }
+        
+        CorpusTask task = new CorpusTask( this, files, consumer );
+        ForkJoinPool pool = new ForkJoinPool( options.parallelism() );
+        try {
+            pool.invoke( task );
+        }
+        finally {
+            pool.shutdown();
+        }
+        return task.result();
+    }
     
     /**
      * Creates instances of {@code NameExtractor} using the provided settings.
+     * This method may be called from any thread, and the extractors 
+     * created may be used at the same time by different threads, though 
+     * each extractor should only be used by one thread at a time.
      * @return an instance of {@code NameExtractor} 
      */
     public NameExtractor create() {
-	return new NameExtractor( this.intt, this.strategy );
+	return new NameExtractor( this );
+    }
+    
+    // the tokenisers shared by all extractors, or null if names are not 
+    // tokenised; the word lists are loaded when the first name is tokenised
+    synchronized TokeniserPool tokenisers() {
+        if ( this.strategy == TokenisationStrategy.NONE ) {
+            return null;
+        }
+        if ( this.tokenisers == null ) {
+            DictionaryConfiguration dc = this.dictionaryConfiguration;
+            this.tokenisers = new TokeniserPool( () -> dc == null 
+                    ? new IdentifierNameTokeniserFactory() 
+                    : new IdentifierNameTokeniserFactory( dc ) );
+        }
+        return this.tokenisers;
+    }
+    
+    TokenisationCache tokenisationCache() {
+        return this.tokenisationCache;
+    }
+    
+    boolean fileMetrics() {
+        return this.fileMetrics;
+    }
+    
+    // the monitor, or null if the instance is not monitored
+    synchronized JimMonitor monitor() {
+        return this.monitor;
+    }
+    
+    // starts monitoring the NameExtractor instances created from now on
+    synchronized JimMonitor startMonitoring() {
+        if ( this.monitor == null ) {
+            this.monitor = new JimMonitor( this );
+        }
+        return this.monitor;
+    }
+    
+    InternPool internPool() {
+        return this.internPool;
+    }
+    
+    NameSplitter nameSplitter() {
+        return this.nameSplitter;
+    }
+    
+    TokenisationStrategy tokenisationStrategy() {
+        return this.strategy;
+    }
+    
+    ParsingStrategy parsingStrategy() {
+        return this.parsingStrategy;
+    }
+    
+    ExtractionMode extractionMode() {
+        return this.extractionMode;
+    }
+    
+    boolean streaming() {
+        return this.streaming;
+    }
+    
+    ResultCache resultCache() {
+        return this.resultCache;
+    }
+    
+    // identifies the word lists for the result cache key
+    String dictionary() {
+        return this.dictionaryConfiguration == null 
+                ? "default" : this.dictionaryConfiguration.toString();
+    }
+    
+    GrammarBackend<?> backend() {
+        return GrammarBackend.of( this.parserBackend );
+    }
+    
+    DfaCache dfaCache() {
+        return backend().dfaCache();
+    }
+    
+    int parallelParsingThreshold() {
+        return this.parallelParsingThreshold;
     }
     
+    GeneratedCodeDetector generatedCodeDetector() {
+        return this.generatedCodeDetector;
+    }
+    
+    boolean skipGeneratedFiles() {
+        return this.skipGeneratedFiles;
+    }
+    
+    void recordGeneratedFile() {
+        this.generatedFiles.incrementAndGet();
+    }
+    
+    long parseTimeout() {
+        return this.parseTimeout;
+    }
+    
+    void recordParseTimeout() {
+        this.parseTimeouts.incrementAndGet();
+    }
+    
+    void recordParallelParse() {
+        this.parallelParses.incrementAndGet();
+    }
+    
+    void recordParallelParseFallback() {
+        this.parallelParseFallbacks.incrementAndGet();
+    }
+    
+    void recordLlFallback() {
+        this.llFallbacks.incrementAndGet();
+    }
 }
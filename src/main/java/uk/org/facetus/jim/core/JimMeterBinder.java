@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the operational metrics of a {@code Jim} instance to a
+ * Micrometer registry. Binding starts monitoring the instance, as
+ * {@code Jim.registerMBean()} does, and the meters read the same
+ * counts as the MBean, so nothing is recorded for each file beyond what
+ * monitoring already records. Micrometer is an optional dependency, and
+ * is only needed by applications that use this class.
+ *
+ * <p>The time spent in each phase is published as a function timer
+ * tagged with the phase, and its percentiles as gauges tagged with the
+ * phase and the quantile.</p>
+ */
+public class JimMeterBinder implements MeterBinder {
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+    private final Jim jim;
+    private final Iterable<Tag> tags;
+
+    /**
+     * Creates a binder for the metrics of a {@code Jim}.
+     * @param jim the instance to monitor
+     */
+    public JimMeterBinder( Jim jim ) {
+        this( jim, Tags.empty() );
+    }
+
+    /**
+     * Creates a binder for the metrics of a {@code Jim} that adds tags
+     * to each meter, to distinguish the instance from others.
+     * @param jim the instance to monitor
+     * @param tags the tags to add to each meter
+     */
+    public JimMeterBinder( Jim jim, Iterable<Tag> tags ) {
+        this.jim = jim;
+        this.tags = tags;
+    }
+
+    @Override
+    public void bindTo( MeterRegistry registry ) {
+        JimMonitor monitor = this.jim.startMonitoring();
+
+        FunctionCounter.builder( "jim.files.processed", monitor,
+                        JimMonitor::getFilesProcessed )
+                .description( "The number of files processed" )
+                .baseUnit( BaseUnits.FILES )
+                .tags( this.tags )
+                .register( registry );
+        FunctionCounter.builder( "jim.bytes.processed", monitor,
+                        JimMonitor::getBytesProcessed )
+                .description( "The number of bytes in the files processed" )
+                .baseUnit( BaseUnits.BYTES )
+                .tags( this.tags )
+                .register( registry );
+        for ( String cause : JimMonitor.FAILURE_CAUSES ) {
+            FunctionCounter.builder( "jim.parse.failures", monitor,
+                            m -> m.failureCount( cause ) )
+                    .description( "The number of files that could not be parsed" )
+                    .baseUnit( BaseUnits.FILES )
+                    .tags( this.tags )
+                    .tag( "cause", cause )
+                    .register( registry );
+        }
+        FunctionCounter.builder( "jim.ll.fallbacks", this.jim,
+                        Jim::llFallbackCount )
+                .description( "The number of files re-parsed with full LL prediction" )
+                .baseUnit( BaseUnits.FILES )
+                .tags( this.tags )
+                .register( registry );
+        FunctionCounter.builder( "jim.generated.files", this.jim,
+                        Jim::generatedFileCount )
+                .description( "The number of files recognised as generated" )
+                .baseUnit( BaseUnits.FILES )
+                .tags( this.tags )
+                .register( registry );
+
+        cacheGets( registry, "jim.tokenisation.cache.gets", "hit",
+                Jim::tokenisationCacheHitCount );
+        cacheGets( registry, "jim.tokenisation.cache.gets", "miss",
+                Jim::tokenisationCacheMissCount );
+        cacheGets( registry, "jim.result.cache.gets", "hit",
+                Jim::resultCacheHitCount );
+        cacheGets( registry, "jim.result.cache.gets", "miss",
+                Jim::resultCacheMissCount );
+        Gauge.builder( "jim.dfa.cache.size", this.jim, Jim::dfaCacheSize )
+                .description( "The number of DFA states cached" )
+                .tags( this.tags )
+                .register( registry );
+
+        for ( JimMonitor.Phase phase : JimMonitor.Phase.values() ) {
+            LatencyHistogram latency = monitor.latency( phase );
+            String phaseName = phase.name().toLowerCase( Locale.ROOT );
+            FunctionTimer.builder( "jim.phase", latency,
+                            LatencyHistogram::count,
+                            LatencyHistogram::totalNanos,
+                            TimeUnit.NANOSECONDS )
+                    .description( "The time spent in a phase of processing files" )
+                    .tags( this.tags )
+                    .tag( "phase", phaseName )
+                    .register( registry );
+            for ( double quantile : QUANTILES ) {
+                Gauge.builder( "jim.phase.percentile", latency,
+                                h -> h.percentile( quantile ) / 1e9 )
+                        .description( "A percentile of the time spent in a phase, "
+                                + "accurate to within a factor of two" )
+                        .baseUnit( "seconds" )
+                        .tags( this.tags )
+                        .tag( "phase", phaseName )
+                        .tag( "quantile", Double.toString( quantile ) )
+                        .register( registry );
+            }
+        }
+    }
+
+    private void cacheGets(
+            MeterRegistry registry,
+            String name,
+            String result,
+            ToDoubleFunction<Jim> count ) {
+        FunctionCounter.builder( name, this.jim, count )
+                .tags( this.tags )
+                .tag( "result", result )
+                .register( registry );
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.antlr.v4.runtime.FailedPredicateException;
+import org.antlr.v4.runtime.InputMismatchException;
+import org.antlr.v4.runtime.LexerNoViableAltException;
+import org.antlr.v4.runtime.NoViableAltException;
+
+/**
+ * Collects the operational metrics of a {@code Jim} while it is being
+ * monitored. The {@code NameExtractor} instances created while
+ * monitoring report each file they process, with the metrics recorded
+ * for it, and each file they fail to parse. Recording a file costs a
+ * few atomic increments for each phase; a {@code Jim} that is not
+ * monitored has no monitor, and its extractors record nothing.
+ *
+ * <p>The counts kept by the {@code Jim} itself, such as the cache hits
+ * and misses, are read from the {@code Jim} when requested.</p>
+ */
+class JimMonitor implements JimMonitorMXBean {
+
+    /**
+     * The phases of processing a file that are timed.
+     */
+    enum Phase { READ, DECODE, LEX, PARSE, VISIT, BUILD, TOKENISE }
+
+    /**
+     * The causes that parse failures are counted by.
+     */
+    static final List<String> FAILURE_CAUSES = Collections.unmodifiableList(
+            Arrays.asList(
+                    InputMismatchException.class.getSimpleName(),
+                    NoViableAltException.class.getSimpleName(),
+                    LexerNoViableAltException.class.getSimpleName(),
+                    FailedPredicateException.class.getSimpleName(),
+                    "timeout",
+                    "other" ) );
+
+    private final Jim jim;
+    private final long started = System.nanoTime();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final Map<String, LongAdder> failures = new LinkedHashMap<>();
+    private final Map<Phase, LatencyHistogram> latencies = new EnumMap<>( Phase.class );
+
+    JimMonitor( Jim jim ) {
+        this.jim = jim;
+        FAILURE_CAUSES.forEach( cause -> this.failures.put( cause, new LongAdder() ) );
+        for ( Phase phase : Phase.values() ) {
+            this.latencies.put( phase, new LatencyHistogram() );
+        }
+    }
+
+    /**
+     * Records a file processed.
+     * @param metrics the metrics recorded for the file
+     */
+    void fileProcessed( FileMetrics metrics ) {
+        this.files.increment();
+        this.bytes.add( metrics.inputBytes() );
+        latency( Phase.READ ).record( metrics.readNanos() );
+        latency( Phase.DECODE ).record( metrics.decodeNanos() );
+        latency( Phase.LEX ).record( metrics.lexNanos() );
+        latency( Phase.PARSE ).record( metrics.parseNanos() );
+        latency( Phase.VISIT ).record( metrics.visitNanos() );
+        latency( Phase.BUILD ).record( metrics.buildNanos() );
+    }
+
+    /**
+     * Records the time spent tokenising the names of a file, which
+     * happens when the tokens are first requested.
+     * @param nanoseconds the time taken
+     */
+    void fileTokenised( long nanoseconds ) {
+        latency( Phase.TOKENISE ).record( nanoseconds );
+    }
+
+    /**
+     * Records a file that could not be parsed.
+     * @param e the exception reported
+     */
+    void parseFailed( JimParserException e ) {
+        this.failures.get( cause( e ) ).increment();
+    }
+
+    LatencyHistogram latency( Phase phase ) {
+        return this.latencies.get( phase );
+    }
+
+    long failureCount( String cause ) {
+        return this.failures.get( cause ).sum();
+    }
+
+    @Override
+    public long getFilesProcessed() {
+        return this.files.sum();
+    }
+
+    @Override
+    public long getBytesProcessed() {
+        return this.bytes.sum();
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        double seconds = ( System.nanoTime() - this.started ) / 1e9;
+        return seconds <= 0 ? 0 : getBytesProcessed() / seconds;
+    }
+
+    @Override
+    public long getParseFailures() {
+        long count = 0;
+        for ( LongAdder failure : this.failures.values() ) {
+            count += failure.sum();
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Long> getParseFailuresByCause() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        this.failures.forEach( ( cause, count ) -> counts.put( cause, count.sum() ) );
+        return counts;
+    }
+
+    @Override
+    public long getLlFallbacks() {
+        return this.jim.llFallbackCount();
+    }
+
+    @Override
+    public long getGeneratedFiles() {
+        return this.jim.generatedFileCount();
+    }
+
+    @Override
+    public double getTokenisationCacheHitRate() {
+        return rate( this.jim.tokenisationCacheHitCount(),
+                this.jim.tokenisationCacheMissCount() );
+    }
+
+    @Override
+    public double getResultCacheHitRate() {
+        return rate( this.jim.resultCacheHitCount(),
+                this.jim.resultCacheMissCount() );
+    }
+
+    @Override
+    public long getDfaCacheSize() {
+        return this.jim.dfaCacheSize();
+    }
+
+    @Override
+    public PhaseLatency getReadLatency() {
+        return PhaseLatency.of( latency( Phase.READ ) );
+    }
+
+    @Override
+    public PhaseLatency getDecodeLatency() {
+        return PhaseLatency.of( latency( Phase.DECODE ) );
+    }
+
+    @Override
+    public PhaseLatency getLexLatency() {
+        return PhaseLatency.of( latency( Phase.LEX ) );
+    }
+
+    @Override
+    public PhaseLatency getParseLatency() {
+        return PhaseLatency.of( latency( Phase.PARSE ) );
+    }
+
+    @Override
+    public PhaseLatency getVisitLatency() {
+        return PhaseLatency.of( latency( Phase.VISIT ) );
+    }
+
+    @Override
+    public PhaseLatency getBuildLatency() {
+        return PhaseLatency.of( latency( Phase.BUILD ) );
+    }
+
+    @Override
+    public PhaseLatency getTokeniseLatency() {
+        return PhaseLatency.of( latency( Phase.TOKENISE ) );
+    }
+
+    private static double rate( long hits, long misses ) {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    // the ANTLR exception behind a parse failure
+    private static String cause( JimParserException e ) {
+        if ( e instanceof JimParseTimeoutException ) {
+            return "timeout";
+        }
+        Throwable cause = e.getCause();
+        while ( cause != null ) {
+            String name = cause.getClass().getSimpleName();
+            if ( FAILURE_CAUSES.contains( name ) ) {
+                return name;
+            }
+            cause = cause.getCause();
+        }
+        return "other";
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.Map;
+
+/**
+ * The operational metrics of a {@code Jim} instance, published through
+ * JMX by {@code Jim.registerMBean()}. Files are counted by the
+ * {@code NameExtractor} instances created after monitoring starts. The
+ * accessors follow the JavaBeans naming conventions required of an
+ * MXBean.
+ */
+public interface JimMonitorMXBean {
+
+    /**
+     * The number of files processed, including those found in the
+     * result cache and generated files that were skipped.
+     * @return the number of files
+     */
+    long getFilesProcessed();
+
+    /**
+     * The number of bytes in the files processed.
+     * @return the number of bytes
+     */
+    long getBytesProcessed();
+
+    /**
+     * The mean rate at which bytes have been processed since monitoring
+     * started.
+     * @return bytes per second
+     */
+    double getBytesPerSecond();
+
+    /**
+     * The number of files that could not be parsed, including those that
+     * were not parsed in time.
+     * @return the number of files
+     */
+    long getParseFailures();
+
+    /**
+     * The number of files that could not be parsed by the cause of each
+     * {@code JimParserException}: the ANTLR exception raised, or
+     * {@code timeout} for files not parsed in time.
+     * @return the number of files for each cause
+     */
+    Map<String, Long> getParseFailuresByCause();
+
+    /**
+     * The number of files re-parsed with full LL prediction.
+     * @return the number of files
+     */
+    long getLlFallbacks();
+
+    /**
+     * The number of files recognised as generated.
+     * @return the number of files
+     */
+    long getGeneratedFiles();
+
+    /**
+     * The proportion of name lookups found in the tokenisation cache.
+     * @return a rate between 0 and 1, or 0 before any lookup
+     */
+    double getTokenisationCacheHitRate();
+
+    /**
+     * The proportion of files found in the result cache.
+     * @return a rate between 0 and 1, or 0 if there is no result cache
+     */
+    double getResultCacheHitRate();
+
+    /**
+     * The number of DFA states cached for the grammar in use.
+     * @return the number of states
+     */
+    long getDfaCacheSize();
+
+    /**
+     * The time spent reading the bytes of a file.
+     * @return a summary of the times recorded
+     */
+    PhaseLatency getReadLatency();
+
+    /**
+     * The time spent decoding the characters of a file.
+     * @return a summary of the times recorded
+     */
+    PhaseLatency getDecodeLatency();
+
+    /**
+     * The time spent lexing a file.
+     * @return a summary of the times recorded
+     */
+    PhaseLatency getLexLatency();
+
+    /**
+     * The time spent parsing a file.
+     * @return a summary of the times recorded
+     */
+    PhaseLatency getParseLatency();
+
+    /**
+     * The time spent visiting the parse tree of a file.
+     * @return a summary of the times recorded
+     */
+    PhaseLatency getVisitLatency();
+
+    /**
+     * The time spent building the entity tree of a file.
+     * @return a summary of the times recorded
+     */
+    PhaseLatency getBuildLatency();
+
+    /**
+     * The time spent tokenising the names found in a file.
+     * @return a summary of the times recorded
+     */
+    PhaseLatency getTokeniseLatency();
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+/**
+ * Thrown when a file is not parsed within the time allowed by 
+ * {@code Jim.parseTimeout()}. The names recorded before parsing stopped 
+ * are available from {@link #partialData()}. When names are extracted 
+ * from a parse tree, rather than while streaming, no names are recorded 
+ * until the file has been parsed, so the partial data may be empty.
+ * 
+ */
+public class JimParseTimeoutException extends JimParserException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final transient FileData partialData;
+    
+    JimParseTimeoutException( String message, FileData partialData ) {
+        super( message );
+        this.partialData = partialData;
+    }
+    
+    /**
+     * The names extracted before the time allowed ran out.
+     * @return the partial data for the file
+     */
+    public FileData partialData() {
+        return this.partialData;
+    }
+}
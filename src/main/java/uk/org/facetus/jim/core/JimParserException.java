@@ -21,7 +21,7 @@ package uk.org.facetus.jim.core;
  * 
  */
 public class JimParserException extends Exception {
-    
+    private static final long serialVersionUID = 1L;
     
     public JimParserException() {
         super();
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in nanoseconds that may be recorded by many
+ * threads at once without locking. Each bucket holds the durations
+ * between successive powers of two, so percentiles are reported to
+ * within a factor of two, which is enough to tell a slow phase from a
+ * fast one, and recording a duration costs a few atomic increments.
+ */
+class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray( BUCKETS );
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong maximum = new AtomicLong();
+
+    /**
+     * Records a duration.
+     * @param nanoseconds the duration, which is treated as 0 if negative
+     */
+    void record( long nanoseconds ) {
+        long duration = Math.max( nanoseconds, 0 );
+        this.buckets.incrementAndGet( bucket( duration ) );
+        this.count.increment();
+        this.total.add( duration );
+        if ( duration > this.maximum.get() ) {
+            this.maximum.accumulateAndGet( duration, Math::max );
+        }
+    }
+
+    long count() {
+        return this.count.sum();
+    }
+
+    long totalNanos() {
+        return this.total.sum();
+    }
+
+    long maximumNanos() {
+        return this.maximum.get();
+    }
+
+    /**
+     * Estimates a percentile of the durations recorded. The estimate is
+     * the upper bound of the bucket holding the percentile, limited by
+     * the longest duration recorded.
+     * @param fraction the percentile as a fraction between 0 and 1
+     * @return the estimated duration, or 0 if none have been recorded
+     */
+    long percentile( double fraction ) {
+        long recorded = 0;
+        long[] counts = new long[ BUCKETS ];
+        for ( int i = 0; i < BUCKETS; i++ ) {
+            counts[i] = this.buckets.get( i );
+            recorded += counts[i];
+        }
+        if ( recorded == 0 ) {
+            return 0;
+        }
+        long rank = Math.max( 1, (long) Math.ceil( fraction * recorded ) );
+        long seen = 0;
+        for ( int i = 0; i < BUCKETS; i++ ) {
+            seen += counts[i];
+            if ( seen >= rank ) {
+                long upperBound = i >= BUCKETS - 2 ? Long.MAX_VALUE : ( 2L << i ) - 1;
+                return Math.min( upperBound, maximumNanos() );
+            }
+        }
+        return maximumNanos();
+    }
+
+    // bucket 0 holds 0 and 1, and bucket i durations from 2^i to 2^(i+1)-1
+    private static int bucket( long duration ) {
+        return duration <= 1 ? 0 : 63 - Long.numberOfLeadingZeros( duration );
+    }
+}
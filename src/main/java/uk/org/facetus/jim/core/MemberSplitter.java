@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.Vocabulary;
+
+/**
+ * Divides a lexed Java file into the members of its top level classes, 
+ * so that each member can be parsed on its own, and a skeleton of the 
+ * file with the class bodies emptied. Parsing the skeleton recovers the 
+ * package and class names; the members hold everything else.
+ *
+ * <p>Members are found by matching braces. A member ends with a semicolon, 
+ * or with the brace that closes its body, unless it is a field with an 
+ * initialiser, which may contain braces of its own. Files with a top 
+ * level interface, enum or annotation type are not divided. The division 
+ * is only a guess at the structure of the file, which the parser 
+ * confirms.</p>
+ *
+ * <p>Like {@code DeclarationSkimmer}, the tokens are found by their 
+ * literal names in the vocabulary of a lexer.</p>
+ */
+class MemberSplitter {
+    
+    // the parts tokens play in finding members
+    private static final int OTHER = 0;
+    private static final int LPAREN = 1;
+    private static final int RPAREN = 2;
+    private static final int ASSIGN = 3;
+    private static final int CLASS = 4;
+    private static final int OTHER_TYPE = 5;
+    private static final int DOT = 6;
+    private static final int SEMI = 7;
+    private static final int LBRACE = 8;
+    private static final int RBRACE = 9;
+
+    private final int[] roles;
+
+    /**
+     * Creates a splitter for the tokens produced by a lexer.
+     * @param vocabulary the vocabulary of the lexer
+     * @throws IllegalArgumentException if the vocabulary lacks a token 
+     * the splitter needs
+     */
+    MemberSplitter( Vocabulary vocabulary ) {
+        this.roles = new int[ vocabulary.getMaxTokenType() + 1 ];
+        assign( vocabulary, "(", LPAREN );
+        assign( vocabulary, ")", RPAREN );
+        assign( vocabulary, "=", ASSIGN );
+        assign( vocabulary, "class", CLASS );
+        assign( vocabulary, "interface", OTHER_TYPE );
+        assign( vocabulary, "enum", OTHER_TYPE );
+        assign( vocabulary, ".", DOT );
+        assign( vocabulary, ";", SEMI );
+        assign( vocabulary, "{", LBRACE );
+        assign( vocabulary, "}", RBRACE );
+    }
+
+    /**
+     * Divides a file into its skeleton and class members. The tokens 
+     * returned are copies, so that parsing them does not disturb the 
+     * tokens given.
+     * @param tokens all the tokens from the file, including EOF
+     * @return the division of the file, or {@code null} if the file cannot 
+     * be divided
+     */
+    Split split( List<Token> tokens ) {
+        List<Token> skeleton = new ArrayList<>();
+        List<Member> members = new ArrayList<>();
+        int classCount = 0;
+        boolean inClassHeader = false;
+        int parenDepth = 0;
+        
+        int index = 0;
+        while ( index < tokens.size() ) {
+            Token token = tokens.get( index );
+            skeleton.add( new CommonToken( token ) );
+            switch ( role( token ) ) {
+                case LPAREN:
+                    parenDepth++;
+                    break;
+                    
+                case RPAREN:
+                    parenDepth--;
+                    break;
+                    
+                case OTHER_TYPE:
+                    if ( parenDepth == 0 ) {
+                        return null;
+                    }
+                    break;
+                    
+                case CLASS:
+                    // not a class literal in an annotation
+                    if ( index == 0 || role( tokens.get( index - 1 ) ) != DOT ) {
+                        inClassHeader = true;
+                    }
+                    break;
+                    
+                case LBRACE:
+                    if ( parenDepth > 0 ) {
+                        index = closingBrace( tokens, index + 1, skeleton );
+                        if ( index < 0 ) {
+                            return null;
+                        }
+                    }
+                    else if ( inClassHeader ) {
+                        index = members( tokens, index + 1, classCount, members );
+                        if ( index < 0 ) {
+                            return null;
+                        }
+                        skeleton.add( new CommonToken( tokens.get( index ) ) );
+                        classCount++;
+                        inClassHeader = false;
+                    }
+                    else {
+                        return null;
+                    }
+                    break;
+                    
+                case RBRACE:
+                    return null;
+                    
+                default:
+                    break;
+            }
+            index++;
+        }
+        
+        return members.size() < 2 ? null : new Split( skeleton, members, classCount );
+    }
+
+    // adds the members of a class body, and returns the index of the brace 
+    // closing the body, or -1 if the body cannot be divided
+    private int members( 
+            List<Token> tokens, 
+            int start, 
+            int classIndex, 
+            List<Member> members ) {
+        int index = start;
+        while ( index < tokens.size() ) {
+            Token token = tokens.get( index );
+            if ( token.getType() == Token.EOF ) {
+                return -1;
+            }
+            if ( role( token ) == RBRACE ) {
+                return index;
+            }
+            int end = memberEnd( tokens, index );
+            if ( end < 0 ) {
+                return -1;
+            }
+            members.add( new Member( classIndex, copy( tokens, index, end + 1 ) ) );
+            index = end + 1;
+        }
+        return -1;
+    }
+
+    // returns the index of the last token of the member starting at start, 
+    // or -1 if the member has no end
+    private int memberEnd( List<Token> tokens, int start ) {
+        int braceDepth = 0;
+        int parenDepth = 0;
+        boolean sawInitialiser = false;
+        for ( int index = start; index < tokens.size(); index++ ) {
+            Token token = tokens.get( index );
+            switch ( role( token ) ) {
+                case LPAREN:
+                    parenDepth++;
+                    break;
+                    
+                case RPAREN:
+                    parenDepth--;
+                    break;
+                    
+                case ASSIGN:
+                    if ( braceDepth == 0 && parenDepth == 0 ) {
+                        sawInitialiser = true;
+                    }
+                    break;
+                    
+                case LBRACE:
+                    braceDepth++;
+                    break;
+                    
+                case RBRACE:
+                    if ( braceDepth == 0 ) {
+                        return -1;
+                    }
+                    braceDepth--;
+                    if ( braceDepth == 0 && parenDepth == 0 && ! sawInitialiser ) {
+                        return index;
+                    }
+                    break;
+                    
+                case SEMI:
+                    if ( braceDepth == 0 && parenDepth == 0 ) {
+                        return index;
+                    }
+                    break;
+                    
+                default:
+                    if ( token.getType() == Token.EOF ) {
+                        return -1;
+                    }
+                    break;
+            }
+        }
+        return -1;
+    }
+
+    // copies the tokens up to the brace closing the one before start 
+    // into the skeleton, and returns its index, or -1 if there is none
+    private int closingBrace( List<Token> tokens, int start, List<Token> skeleton ) {
+        int depth = 1;
+        for ( int index = start; index < tokens.size(); index++ ) {
+            Token token = tokens.get( index );
+            skeleton.add( new CommonToken( token ) );
+            if ( role( token ) == LBRACE ) {
+                depth++;
+            }
+            else if ( role( token ) == RBRACE ) {
+                depth--;
+                if ( depth == 0 ) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static List<Token> copy( List<Token> tokens, int start, int end ) {
+        List<Token> copies = new ArrayList<>( end - start );
+        for ( int index = start; index < end; index++ ) {
+            copies.add( new CommonToken( tokens.get( index ) ) );
+        }
+        return copies;
+    }
+
+    private int role( Token token ) {
+        int type = token.getType();
+        return type >= 0 && type < this.roles.length ? this.roles[ type ] : OTHER;
+    }
+
+    private void assign( Vocabulary vocabulary, String literal, int role ) {
+        String literalName = "'" + literal + "'";
+        for ( int type = 0; type < this.roles.length; type++ ) {
+            if ( literalName.equals( vocabulary.getLiteralName( type ) ) ) {
+                this.roles[ type ] = role;
+                return;
+            }
+        }
+        throw new IllegalArgumentException( 
+                "The vocabulary has no token for " + literalName );
+    }
+
+
+    /**
+     * A file divided into a skeleton and the members of its classes.
+     */
+    static final class Split {
+        private final List<Token> skeleton;
+        private final List<Member> members;
+        private final int classCount;
+
+        Split( List<Token> skeleton, List<Member> members, int classCount ) {
+            this.skeleton = skeleton;
+            this.members = Collections.unmodifiableList( members );
+            this.classCount = classCount;
+        }
+
+        /**
+         * The tokens of the file without the contents of the class bodies.
+         * @return the tokens of the skeleton, including EOF
+         */
+        List<Token> skeleton() {
+            return this.skeleton;
+        }
+
+        /**
+         * The members of the top level classes, in source order.
+         * @return the members
+         */
+        List<Member> members() {
+            return this.members;
+        }
+
+        /**
+         * The number of top level classes.
+         * @return the number of classes
+         */
+        int classCount() {
+            return this.classCount;
+        }
+    }
+
+
+    /**
+     * The tokens of one class member.
+     */
+    static final class Member {
+        private final int classIndex;
+        private final List<Token> tokens;
+
+        Member( int classIndex, List<Token> tokens ) {
+            this.classIndex = classIndex;
+            this.tokens = tokens;
+        }
+
+        /**
+         * The position of the member's class among the top level classes.
+         * @return the index of the class
+         */
+        int classIndex() {
+            return this.classIndex;
+        }
+
+        /**
+         * The tokens of the member, without EOF.
+         * @return the tokens of the member
+         */
+        List<Token> tokens() {
+            return this.tokens;
+        }
+    }
+}
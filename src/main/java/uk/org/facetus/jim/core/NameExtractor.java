@@ -18,34 +18,103 @@ package uk.org.facetus.jim.core;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.antlr.v4.runtime.CharStream;
-import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CodePointBuffer;
+import org.antlr.v4.runtime.CodePointCharStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.InputMismatchException;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.ListTokenSource;
 import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.RecognitionException;
-import org.antlr.v4.runtime.tree.ParseTree;
-import uk.ac.open.crc.intt.IdentifierNameTokeniser;
-import uk.org.facetus.jim.core.parser.java8.Java8Lexer;
-import uk.org.facetus.jim.core.parser.java8.Java8Parser;
-import uk.org.facetus.jim.core.parser.java8.Java8Visitor;
-import uk.org.facetus.jim.core.parser.java8.Java8VisitorImplementation;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import uk.ac.open.crc.idtk.Species;
 
 /**
  * A worker class to extract names from a Java file. Instances are 
- * created by the {@code Jim} class
+ * created by the {@code Jim} class. An instance reuses its lexer and 
+ * parser for each file, so should only be used by one thread at a time, 
+ * but the {@code FileData} it returns may be used on any thread.
  */
 public class NameExtractor {
     
-    private final IdentifierNameTokeniser tokeniser;
+    // the read buffer is kept for the next file unless it is larger
+    private static final int MAXIMUM_KEPT_BUFFER = 4 * 1024 * 1024;
+    
+    // the parts of a divided file are timed together, not one by one
+    private static final FileMetrics.Builder NO_METRICS = 
+            new FileMetrics.Builder( false );
+    
+    private final Jim jim;
+    private final TokeniserPool tokenisers;
+    private final TokenisationCache tokenisationCache;
+    private final NameSplitter splitter;
+    private final InternPool internPool;
     private final TokenisationStrategy strategy;
+    private final ParsingStrategy parsingStrategy;
+    private final ExtractionMode extractionMode;
+    private final boolean streaming;
+    private final int parallelParsingThreshold;
+    private final GeneratedCodeDetector generatedCodeDetector;
+    private final boolean skipGeneratedFiles;
+    private final long parseTimeout;
+    private final GrammarBackend<?> backend;
+    private final GrammarBackend.Recognisers<?> recognisers;
+    private final BailErrorStrategy errorStrategy = new BailErrorStrategy();
+    private CommonTokenStream fileTokens = null;  // reused for each file
+    private ByteBuffer readBuffer = ByteBuffer.allocate( 64 * 1024 );  // reused for each file
+    private final FileMetrics.Builder metrics;  // of the current file
+    private final JimMonitor monitor;  // null unless the Jim is monitored
+    private final DfaCache dfaCache;
+    private final ResultCache resultCache;
+    private final String resultContext;
 
-    NameExtractor(IdentifierNameTokeniser tokeniser, TokenisationStrategy strategy) {
-	this.tokeniser = tokeniser; 
-        this.strategy = strategy;
+    NameExtractor( Jim jim ) {
+        this.jim = jim;
+	this.tokenisers = jim.tokenisers(); 
+        this.tokenisationCache = jim.tokenisationCache();
+        this.splitter = jim.nameSplitter();
+        this.internPool = jim.internPool();
+        this.strategy = jim.tokenisationStrategy();
+        this.extractionMode = jim.extractionMode();
+        this.streaming = jim.streaming();
+        this.parallelParsingThreshold = jim.parallelParsingThreshold();
+        this.generatedCodeDetector = jim.generatedCodeDetector();
+        this.skipGeneratedFiles = jim.skipGeneratedFiles();
+        this.parseTimeout = jim.parseTimeout();
+        this.monitor = jim.monitor();
+        this.metrics = new FileMetrics.Builder( 
+                jim.fileMetrics() || this.monitor != null );
+        this.backend = jim.backend();
+        this.parsingStrategy = this.backend.predictsWithSll() 
+                ? jim.parsingStrategy() : ParsingStrategy.LL;
+        this.recognisers = this.backend.recognisers();
+        this.dfaCache = this.backend.dfaCache();
+        this.resultCache = jim.resultCache();
+        this.resultContext = this.resultCache == null 
+                ? null 
+                : ResultCache.context( this.backend, this.extractionMode, 
+                        jim.dictionary(), this.strategy );
     }
     
     /**
@@ -57,38 +126,489 @@ public class NameExtractor {
      * @throws FileNotFoundException thrown by ANTLR
      * @throws IOException thrown by ANTLR 
      * @throws JimParserException aggregates ANTLR lexer and parser exceptions
+     * @throws JimParseTimeoutException if the file is not parsed within the 
+     * time set by {@code Jim.parseTimeout()}
      */
     public FileData process( String fileName ) 
 	    throws FileNotFoundException, IOException, JimParserException {
 	RawFileData rawFileData = new RawFileData(fileName); 
-	return process( rawFileData, new FileInputStream( fileName ) );
+        try ( InputStream is = new FileInputStream( fileName ) ) {
+            return process( rawFileData, is );
+        }
+    }
+    
+    /**
+     * Parses the specified Java file to extract names. The file is read 
+     * into a buffer that the extractor reuses for each file, and files 
+     * that are entirely ASCII are lexed directly from the buffer without 
+     * being decoded or copied. Other files are decoded as UTF-8. The file 
+     * is closed before the method returns, and nothing holds it open 
+     * afterwards.
+     * @param file the path of the file to parse
+     * @return a {@code FileData} object 
+     * @throws IOException if the file cannot be read
+     * @throws JimParserException aggregates ANTLR lexer and parser exceptions
+     * @throws JimParseTimeoutException if the file is not parsed within the 
+     * time set by {@code Jim.parseTimeout()}
+     */
+    public FileData process( Path file ) throws IOException, JimParserException {
+        this.metrics.start();
+        ByteBuffer source = read( file );
+        return process( new RawFileData( file.toString() ), source );
+    }
+    
+    /**
+     * Parses the specified Java file and passes each program entity found 
+     * to a listener, with the tokens of its name, as it is found. No 
+     * {@code FileData} is created and the entities are not kept, so the 
+     * memory used does not grow with the number of entities in the file. 
+     * The file is read as by {@link #process(Path)}. Files are parsed as a 
+     * whole, rather than by member, and the result cache is not used. 
+     * With the {@code TWO_STAGE} strategy and streaming extraction, files 
+     * are parsed using LL prediction, so that entities recorded by a 
+     * failed SLL parse are not passed to the listener. Generated files 
+     * that are skipped are not passed to the listener at all.
+     * @param file the path of the file to parse
+     * @param listener receives the entities found in the file
+     * @throws IOException if the file cannot be read
+     * @throws JimParserException aggregates ANTLR lexer and parser exceptions
+     * @throws JimParseTimeoutException if the file is not parsed within the 
+     * time set by {@code Jim.parseTimeout()}
+     */
+    public void process( Path file, EntityListener listener ) 
+            throws IOException, JimParserException {
+        process( file.toString(), read( file ), listener );
+    }
+    
+    void process( String fileName, InputStream is, EntityListener listener ) 
+            throws IOException, JimParserException {
+        process( fileName, ByteBuffer.wrap( readAll( is ) ), listener );
+    }
+    
+    private void process( String fileName, ByteBuffer source, EntityListener listener ) 
+            throws JimParserException {
+        if ( this.generatedCodeDetector.isGenerated( source ) ) {
+            this.jim.recordGeneratedFile();
+            if ( this.skipGeneratedFiles ) {
+                return;
+            }
+        }
+        RawFileData data = new RawFileData( fileName, 
+                ( entity, container ) -> listener.entity( 
+                        entity.species(), 
+                        entity.identifierName(), 
+                        container, 
+                        tokens( entity.identifierName() ) ) );
+        listener.startFile( fileName );
+        RawFileData extracted = extractFile( data, charStream( source, fileName ) );
+        listener.endFile( fileName, extracted.packageName() );
     }
     
     FileData process( RawFileData data, InputStream is ) throws IOException, JimParserException {
+        this.metrics.start();
+        return process( data, ByteBuffer.wrap( readAll( is ) ) );
+    }
+    
+    // generated files are recognised from the bytes already read, and 
+    // are not parsed if they are to be skipped
+    private FileData process( RawFileData data, ByteBuffer source ) 
+            throws JimParserException {
+        this.metrics.read( source.remaining() );
+        if ( this.generatedCodeDetector.isGenerated( source ) ) {
+            this.jim.recordGeneratedFile();
+            data.generated( true );
+            if ( this.skipGeneratedFiles ) {
+                return withMetrics( new FileData( this.tokenisers, 
+                        this.tokenisationCache, this.splitter, this.internPool, 
+                        data, strategy ) );
+            }
+        }
+        if ( this.resultCache == null ) {
+            return parse( data, charStream( source, data.fileName() ) );
+        }
+        
+        String key = ResultCache.key( this.resultContext, source );
+        RawFileData cachedData = new RawFileData( data.fileName() );
+        cachedData.generated( data.generated() );
+        FileData cached = this.resultCache.load( 
+                key, cachedData, this.strategy, this.internPool );
+        if ( cached != null ) {
+            return withMetrics( cached );
+        }
+        FileData result = parse( data, charStream( source, data.fileName() ) );
+        this.resultCache.store( key, result );
+        return result;
+    }
+    
+    private FileData parse( RawFileData data, CharStream input ) throws JimParserException {
+        RawFileData extracted = extractFile( data, input );
+        extracted.generated( data.generated() );
+        return withMetrics( new FileData( this.tokenisers, this.tokenisationCache, 
+                this.splitter, this.internPool, extracted, strategy ) );
+    }
+    
+    // ends the building phase of the file
+    private FileData withMetrics( FileData result ) {
+        FileMetrics fileMetrics = this.metrics.build( result.names().size() );
+        result.metrics( fileMetrics, this.monitor );
+        if ( this.monitor != null ) {
+            this.monitor.fileProcessed( fileMetrics );
+        }
+        return result;
+    }
+    
+    private <E extends JimParserException> E failed( E e ) {
+        if ( this.monitor != null ) {
+            this.monitor.parseFailed( e );
+        }
+        return e;
+    }
+    
+    private RawFileData extractFile( RawFileData data, CharStream input ) 
+            throws JimParserException {
+        this.metrics.decoded();
+        long deadline = System.nanoTime() + this.parseTimeout;
         try {
-            CharStream input = CharStreams.fromStream( is );
-            Java8Lexer lexer = new Java8Lexer( input );
-            CommonTokenStream tokens = new CommonTokenStream( lexer );
-            Java8Parser java8Parser = new Java8Parser( tokens );
-            java8Parser.removeErrorListeners();
-            java8Parser.setErrorHandler( new BailErrorStrategy() );
-            ParseTree parseTree = java8Parser.compilationUnit();  // grammar root.
-
-            Java8Visitor java8Visitor = 
-                    new Java8VisitorImplementation( data );
-            java8Visitor.visit( parseTree );
-            return new FileData( this.tokeniser, data, strategy );
+            CommonTokenStream tokens = 
+                    fileTokens( this.recognisers.lexer( input ), deadline );
+            if ( this.metrics.enabled() ) {
+                // lexes the whole file first, so that lexing is timed apart 
+                // from parsing
+                tokens.fill();
+                this.metrics.lexed( tokens.size() );
+            }
+            if ( this.extractionMode == ExtractionMode.DECLARATIONS ) {
+                tokens.fill();
+                tokens = tokenStream( new ListTokenSource( 
+                        this.backend.skimmer().skim( tokens.getTokens() ) ), 
+                        deadline );
+            }
+            return extract( data, tokens, deadline );
+        }
+        catch ( DeadlineTokenStream.Expired e ) {
+            this.jim.recordParseTimeout();
+            RawFileData partial = 
+                    e.partialData() == null ? data : e.partialData();
+            partial.generated( data.generated() );
+            throw failed( new JimParseTimeoutException( 
+                    String.format( "%s was not parsed within %d ms", 
+                            data.fileName(), 
+                            TimeUnit.NANOSECONDS.toMillis( this.parseTimeout ) ),
+                    new FileData( this.tokenisers, this.tokenisationCache, 
+                            this.splitter, this.internPool, partial, strategy ) ) );
         }
         catch ( RuntimeException e ) {
-            Throwable cause = e.getCause();
-            if ( cause instanceof RecognitionException 
-                    || cause instanceof InputMismatchException ) {
-                throw new JimParserException( e );
+            if ( isSyntaxError( e ) ) {
+                throw failed( new JimParserException( e ) );
             }
             else {
                 throw e ;
             }
         }
+        finally {
+            this.recognisers.release();
+            if ( this.fileTokens != null ) {
+                this.fileTokens.setTokenSource( null );
+            }
+            this.dfaCache.enforceLimits();
+        }
+    }
+    
+    // parses from the grammar root using the configured prediction strategy.
+    // SLL failures are not reported: the file is re-parsed with full LL,
+    // which either succeeds or raises the syntax error the caller sees.
+    // Anything the streaming listener recorded during a failed SLL parse
+    // is discarded, which is not possible once entities have been passed 
+    // on to a sink. Nor can the members of a file be passed on in order if 
+    // they are parsed in parallel.
+    private RawFileData extract( 
+            RawFileData data, 
+            CommonTokenStream tokens, 
+            long deadline ) {
+        boolean passedOn = data.entitySink() != null;
+        if ( this.parallelParsingThreshold > 0 && ! passedOn ) {
+            tokens.fill();
+            if ( tokens.size() >= this.parallelParsingThreshold ) {
+                RawFileData divided = 
+                        extractByMember( data.fileName(), tokens, deadline );
+                if ( divided != null ) {
+                    this.jim.recordParallelParse();
+                    this.metrics.parsed( null );
+                    return divided;
+                }
+                this.jim.recordParallelParseFallback();
+            }
+        }
+        
+        if ( this.parsingStrategy == ParsingStrategy.TWO_STAGE 
+                && ! ( passedOn && this.streaming ) ) {
+            try {
+                return extract( data, tokens, PredictionMode.SLL );
+            }
+            catch ( RuntimeException e ) {
+                if ( ! isSyntaxError( e ) ) {
+                    throw e;
+                }
+            }
+            this.jim.recordLlFallback();
+            tokens.seek( 0 );
+            data = new RawFileData( data.fileName(), data.entitySink() );
+        }
+        
+        return extract( data, tokens, PredictionMode.LL );
+    }
+    
+    private RawFileData extract( 
+            RawFileData data, 
+            CommonTokenStream tokens, 
+            PredictionMode predictionMode ) {
+        try {
+            prepare( this.recognisers, tokens, predictionMode, this.errorStrategy );
+            this.recognisers.extract( data, this.streaming, this.metrics );
+            this.metrics.visited();
+        }
+        catch ( DeadlineTokenStream.Expired e ) {
+            throw e.partialData( data );
+        }
+        return data;
+    }
+    
+    private static void prepare( 
+            GrammarBackend.Recognisers<?> parts,
+            CommonTokenStream tokens, 
+            PredictionMode predictionMode, 
+            BailErrorStrategy errorStrategy ) {
+        Parser parser = parts.parser( tokens );
+        parser.removeErrorListeners();
+        parser.setErrorHandler( errorStrategy );
+        parser.getInterpreter().setPredictionMode( predictionMode );
+    }
+    
+    // parses the skeleton of a large file, and then its class members in 
+    // parallel, and adds the names found in each member to its class in 
+    // source order. Returns null if the file cannot be divided or a part 
+    // does not parse, and the file is then parsed as a whole, which 
+    // reports any syntax error.
+    private RawFileData extractByMember( 
+            String fileName, 
+            CommonTokenStream tokens, 
+            long deadline ) {
+        MemberSplitter.Split split = 
+                this.backend.memberSplitter().split( tokens.getTokens() );
+        if ( split == null ) {
+            return null;
+        }
+        RawFileData skeleton = 
+                extractPart( fileName, split.skeleton(), false, deadline );
+        if ( skeleton == null ) {
+            return null;
+        }
+        List<RawFileData> members;
+        try {
+            members = split.members().parallelStream()
+                    .map( member -> extractPart( 
+                            fileName, member.tokens(), true, deadline ) )
+                    .collect( Collectors.toList() );
+        }
+        catch ( DeadlineTokenStream.Expired e ) {
+            // the members parsed so far are not attached to their classes
+            throw new DeadlineTokenStream.Expired().partialData( skeleton );
+        }
+        if ( members.contains( null ) ) {
+            return null;
+        }
+        
+        List<ProgramEntity> classes = new ArrayList<>();
+        skeleton.topLevelEntities().forEach( entity -> addClasses( entity, classes ) );
+        if ( classes.size() != split.classCount() ) {
+            return null;
+        }
+        List<List<RawFileData>> classMembers = new ArrayList<>();
+        classes.forEach( c -> classMembers.add( new ArrayList<>() ) );
+        for ( int i = 0; i < members.size(); i++ ) {
+            classMembers.get( split.members().get( i ).classIndex() )
+                    .add( members.get( i ) );
+        }
+        // the builder of a whole file never leaves a class, and may leave 
+        // other containers open at the end of a member, so each member and 
+        // each later class is added to the innermost container left open 
+        // before it
+        ArrayDeque<ProgramEntity> open = new ArrayDeque<>();
+        for ( int i = 0; i < classes.size(); i++ ) {
+            ProgramEntity c = classes.get( i );
+            c.children().removeAll( classes );
+            if ( ! skeleton.topLevelEntities().contains( c ) ) {
+                open.peekFirst().addChild( c );
+            }
+            open.push( c );
+            for ( RawFileData member : classMembers.get( i ) ) {
+                open.peekFirst().children()
+                        .addAll( member.memberContainer().children() );
+                member.openContainers().forEach( open::push );
+            }
+        }
+        return skeleton;
+    }
+    
+    // parses a skeleton or member with the configured prediction strategy
+    private RawFileData extractPart( 
+            String fileName, 
+            List<org.antlr.v4.runtime.Token> tokens, 
+            boolean member, 
+            long deadline ) {
+        if ( this.parsingStrategy == ParsingStrategy.TWO_STAGE ) {
+            RawFileData data = extractPart( 
+                    fileName, tokens, member, deadline, PredictionMode.SLL );
+            if ( data != null ) {
+                return data;
+            }
+        }
+        return extractPart( 
+                fileName, tokens, member, deadline, PredictionMode.LL );
+    }
+    
+    private RawFileData extractPart( 
+            String fileName, 
+            List<org.antlr.v4.runtime.Token> tokens, 
+            boolean member, 
+            long deadline, 
+            PredictionMode predictionMode ) {
+        RawFileData data = member 
+                ? RawFileData.member( fileName ) 
+                : new RawFileData( fileName );
+        CommonTokenStream partTokens = 
+                tokenStream( new ListTokenSource( tokens ), deadline );
+        // parts are parsed on other threads, each with its own recognisers
+        GrammarBackend.Recognisers<?> parts = this.backend.recognisers();
+        try {
+            prepare( parts, partTokens, predictionMode, new BailErrorStrategy() );
+            if ( member ) {
+                parts.extractMember( data, this.streaming );
+            }
+            else {
+                parts.extract( data, this.streaming, NO_METRICS );
+            }
+        }
+        catch ( DeadlineTokenStream.Expired e ) {
+            throw e.partialData( data );
+        }
+        catch ( RuntimeException e ) {
+            if ( isSyntaxError( e ) ) {
+                return null;
+            }
+            throw e;
+        }
+        // a member that ends early was divided in the wrong place
+        return partTokens.LA( 1 ) == IntStream.EOF ? data : null;
+    }
+    
+    // resets the token stream of the previous file to read from the lexer
+    private CommonTokenStream fileTokens( TokenSource lexer, long deadline ) {
+        if ( this.fileTokens == null ) {
+            this.fileTokens = tokenStream( lexer, deadline );
+        }
+        else if ( this.fileTokens instanceof DeadlineTokenStream ) {
+            ( (DeadlineTokenStream) this.fileTokens ).restart( lexer, deadline );
+        }
+        else {
+            this.fileTokens.setTokenSource( lexer );
+        }
+        return this.fileTokens;
+    }
+    
+    // tokenises a name passed to an entity listener
+    private List<Token> tokens( String name ) {
+        if ( this.strategy == TokenisationStrategy.NONE ) {
+            return Collections.emptyList();
+        }
+        return FileData.tokenise( name, this.strategy, this.tokenisers, 
+                this.tokenisationCache, this.splitter, this.internPool ).tokens();
+    }
+    
+    // only checks the time when a timeout is set
+    private CommonTokenStream tokenStream( TokenSource source, long deadline ) {
+        return this.parseTimeout > 0 
+                ? new DeadlineTokenStream( source, deadline ) 
+                : new CommonTokenStream( source );
+    }
+    
+    private static void addClasses( ProgramEntity entity, List<ProgramEntity> classes ) {
+        if ( entity.species() == Species.CLASS ) {
+            classes.add( entity );
+        }
+        entity.children().forEach( child -> addClasses( child, classes ) );
+    }
+    
+    // reads the whole file rather than mapping it, so that the file is 
+    // released when the channel is closed, not when a mapping is collected
+    private ByteBuffer read( Path file ) throws IOException {
+        try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) ) {
+            long size = channel.size();
+            if ( size > Integer.MAX_VALUE ) {
+                throw new IOException( "File too large to parse: " + size + " bytes" );
+            }
+            ByteBuffer bytes = readBuffer( (int) size );
+            while ( bytes.hasRemaining() && channel.read( bytes ) != -1 ) {
+                // read until full or the file is truncated
+            }
+            bytes.flip();
+            return bytes;
+        }
+    }
+    
+    // the buffer of the last file is overwritten, as nothing read from it 
+    // is kept once the file has been processed
+    private ByteBuffer readBuffer( int size ) {
+        if ( size > MAXIMUM_KEPT_BUFFER ) {
+            return ByteBuffer.allocate( size );
+        }
+        if ( this.readBuffer.capacity() < size ) {
+            int capacity = Math.max( size, 2 * this.readBuffer.capacity() );
+            this.readBuffer = 
+                    ByteBuffer.allocate( Math.min( capacity, MAXIMUM_KEPT_BUFFER ) );
+        }
+        this.readBuffer.clear();
+        this.readBuffer.limit( size );
+        return this.readBuffer;
+    }
+    
+    // ASCII is lexed in place. Anything else is decoded as UTF-8, as 
+    // CharStreams.fromStream() does, replacing malformed input.
+    private static CharStream charStream( ByteBuffer source, String sourceName ) {
+        if ( AsciiCharStream.isAscii( source ) ) {
+            return new AsciiCharStream( source, sourceName );
+        }
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput( CodingErrorAction.REPLACE )
+                .onUnmappableCharacter( CodingErrorAction.REPLACE );
+        CharBuffer chars;
+        try {
+            chars = decoder.decode( source.duplicate() );
+        }
+        catch ( CharacterCodingException e ) {
+            // not thrown when errors are replaced
+            throw new IllegalStateException( e );
+        }
+        CodePointBuffer.Builder codePoints = 
+                CodePointBuffer.builder( chars.remaining() );
+        codePoints.append( chars );
+        return CodePointCharStream.fromBuffer( codePoints.build(), sourceName );
+    }
+    
+    private static byte[] readAll( InputStream is ) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[ 8192 ];
+        int count;
+        while ( ( count = is.read( buffer ) ) != -1 ) {
+            bytes.write( buffer, 0, count );
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static boolean isSyntaxError( RuntimeException e ) {
+        Throwable cause = e.getCause();
+        return cause instanceof RecognitionException 
+                || cause instanceof InputMismatchException;
     }
     
     // Error strategy class for ANTLR see ANTLR 4 book pp172-3
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Splits identifier names whose tokens are unambiguous, for the 
+ * {@code ADAPTIVE} tokenisation strategy. A name is split if it consists 
+ * only of ASCII letters and underscores, every change from upper to lower 
+ * case starts a capitalised word, as in {@code getUserName} or 
+ * {@code MAX_SIZE}, and every token of more than one letter is a known 
+ * word. Such names are split at underscores and before each upper case 
+ * letter that follows a lower case letter or starts a capitalised word. 
+ * Other names are left to intt: {@code parseXMLfile}, where {@code XMLf} 
+ * could be split in more than one place; names containing digits; and 
+ * names with a token that may be words run together, such as 
+ * {@code maxval}, which intt divides with its dictionary.
+ * 
+ * <p>The known words are the tokens intt has returned for the names left 
+ * to it, so a run of letters is only taken as one word once intt has 
+ * taken it as one word, and the two strategies agree. Few names are split 
+ * until intt has seen a sample of the vocabulary of a corpus.</p>
+ * 
+ * <p>The tokens are substrings of the name and are not tagged with the 
+ * word lists they appear in. The splitter counts the names it splits and 
+ * those it leaves to intt, and may be used by many threads.</p>
+ */
+class NameSplitter {
+    private static final List<String> NO_WORD_LISTS = Collections.emptyList();
+    
+    // enough for the vocabulary of a large corpus
+    private static final int MAXIMUM_KNOWN_WORDS = 100_000;
+    
+    private final Set<String> knownWords = ConcurrentHashMap.newKeySet();
+    private final LongAdder split = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    
+    /**
+     * Splits a name, if it is unambiguous.
+     * @param name an identifier name
+     * @return the tokens of the name, or {@code null} if the name should 
+     * be tokenised by intt
+     */
+    List<Token> split( String name ) {
+        List<Token> tokens = tokens( name );
+        if ( tokens == null ) {
+            this.deferred.increment();
+        }
+        else {
+            this.split.increment();
+        }
+        return tokens;
+    }
+    
+    /**
+     * Adds the tokens intt found in a name to the known words. Once the 
+     * maximum number of words is known, no more are added.
+     * @param tokens the tokens found by intt
+     */
+    void learn( List<Token> tokens ) {
+        for ( Token token : tokens ) {
+            if ( this.knownWords.size() >= MAXIMUM_KNOWN_WORDS ) {
+                return;
+            }
+            this.knownWords.add( token.getContent().toLowerCase() );
+        }
+    }
+    
+    long splitCount() {
+        return this.split.sum();
+    }
+    
+    long deferredCount() {
+        return this.deferred.sum();
+    }
+    
+    private List<Token> tokens( String name ) {
+        int length = name.length();
+        List<Token> tokens = new ArrayList<>( 4 );
+        int start = 0;  // of the current token
+        for ( int i = 0; i < length; i++ ) {
+            char c = name.charAt( i );
+            if ( c == '_' ) {
+                if ( ! add( name, start, i, tokens ) ) {
+                    return null;
+                }
+                start = i + 1;
+            }
+            else if ( isUpper( c ) ) {
+                if ( i > start && isLower( name.charAt( i - 1 ) ) ) {
+                    if ( ! add( name, start, i, tokens ) ) {
+                        return null;
+                    }
+                    start = i;
+                }
+            }
+            else if ( isLower( c ) ) {
+                // a run of upper case letters before a lower case letter 
+                // can be split in more than one place
+                if ( i - start > 1 && isUpper( name.charAt( i - 1 ) ) ) {
+                    return null;
+                }
+            }
+            else {
+                return null;
+            }
+        }
+        if ( ! add( name, start, length, tokens ) ) {
+            return null;
+        }
+        return tokens.isEmpty() ? null : tokens;
+    }
+    
+    // returns false if the token may be several words run together
+    private boolean add( String name, int start, int end, List<Token> tokens ) {
+        if ( end > start ) {
+            String token = name.substring( start, end );
+            if ( end - start > 1 
+                    && ! this.knownWords.contains( token.toLowerCase() ) ) {
+                return false;
+            }
+            tokens.add( new Token( token, NO_WORD_LISTS ) );
+        }
+        return true;
+    }
+    
+    private static boolean isUpper( char c ) {
+        return c >= 'A' && c <= 'Z';
+    }
+    
+    private static boolean isLower( char c ) {
+        return c >= 'a' && c <= 'z';
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+/**
+ * Values that can be used to select the grammar used to parse Java files.
+ * {@code JLS} uses a grammar that follows the Java Language Specification 
+ * closely and is the default. {@code FAST} uses a grammar, derived from 
+ * the Java grammar in the ANTLR grammars-v4 collection, that is much 
+ * faster to parse with but is more permissive than the specification, 
+ * and does not accept type annotations within qualified type names. Both 
+ * grammars recover the same names, with the same species, from a file.
+ *
+ */
+public enum ParserBackend {
+    JLS,
+    FAST;
+}
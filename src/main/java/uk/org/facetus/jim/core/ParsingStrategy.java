@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+/**
+ * Values that can be used to set the prediction strategy used by the
+ * parser. {@code LL} runs the parser in ANTLR's full LL mode for every
+ * file and is the default. {@code TWO_STAGE} first tries the much faster
+ * SLL prediction mode and only re-parses a file with full LL when SLL
+ * fails. Where SLL succeeds the result is the same as for LL, and where it
+ * fails the LL parse decides whether the file has a syntax error, so the
+ * two strategies accept the same files.
+ *
+ * <p>{@code TWO_STAGE} only pays off with {@link ParserBackend#FAST}. SLL 
+ * cannot parse ordinary statements, such as method calls and increments, 
+ * with the {@link ParserBackend#JLS} grammar, so files parsed with that 
+ * grammar always use LL.</p>
+ *
+ */
+public enum ParsingStrategy {
+    LL,
+    TWO_STAGE;
+}
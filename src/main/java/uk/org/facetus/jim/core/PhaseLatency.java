@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A summary of the time taken by one phase of processing files, as
+ * published by {@link JimMonitorMXBean}. Percentiles are accurate to
+ * within a factor of two. The accessors follow the JavaBeans naming
+ * conventions required of an MXBean.
+ */
+public final class PhaseLatency {
+    private final long count;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    @ConstructorProperties( {
+        "count", "meanNanos", "p50Nanos", "p90Nanos", "p99Nanos", "maxNanos" } )
+    public PhaseLatency(
+            long count,
+            long meanNanos,
+            long p50Nanos,
+            long p90Nanos,
+            long p99Nanos,
+            long maxNanos ) {
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    static PhaseLatency of( LatencyHistogram histogram ) {
+        long count = histogram.count();
+        return new PhaseLatency(
+                count,
+                count == 0 ? 0 : histogram.totalNanos() / count,
+                histogram.percentile( 0.5 ),
+                histogram.percentile( 0.9 ),
+                histogram.percentile( 0.99 ),
+                histogram.maximumNanos() );
+    }
+
+    /**
+     * The number of files timed.
+     * @return the number of files
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * The mean time taken.
+     * @return a time in nanoseconds
+     */
+    public long getMeanNanos() {
+        return this.meanNanos;
+    }
+
+    /**
+     * The median time taken.
+     * @return a time in nanoseconds
+     */
+    public long getP50Nanos() {
+        return this.p50Nanos;
+    }
+
+    /**
+     * The 90th percentile of the time taken.
+     * @return a time in nanoseconds
+     */
+    public long getP90Nanos() {
+        return this.p90Nanos;
+    }
+
+    /**
+     * The 99th percentile of the time taken.
+     * @return a time in nanoseconds
+     */
+    public long getP99Nanos() {
+        return this.p99Nanos;
+    }
+
+    /**
+     * The longest time taken.
+     * @return a time in nanoseconds
+     */
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format( "count=%d mean=%d p50=%d p90=%d p99=%d max=%d",
+                this.count, this.meanNanos, this.p50Nanos, this.p90Nanos,
+                this.p99Nanos, this.maxNanos );
+    }
+}
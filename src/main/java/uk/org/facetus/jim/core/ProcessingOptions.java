@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+
+/**
+ * Settings for processing all the Java files in a directory tree with 
+ * {@code Jim.processAll()}. By default every file with the extension 
+ * {@code .java} is processed, using one worker thread per available 
+ * processor.
+ */
+public class ProcessingOptions {
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private PathMatcher fileMatcher = 
+            FileSystems.getDefault().getPathMatcher( "glob:**.java" );
+
+    /**
+     * Sets the number of worker threads used to process files.
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if {@code parallelism} is less 
+     * than 1
+     */
+    public void parallelism( int parallelism ) {
+        if ( parallelism < 1 ) {
+            throw new IllegalArgumentException( 
+                    "parallelism must be at least 1, not " + parallelism );
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the matcher that selects the files to process. The matcher 
+     * is applied to the path of each regular file found, which includes 
+     * the root of the tree.
+     * @param fileMatcher a path matcher
+     */
+    public void fileMatcher( PathMatcher fileMatcher ) {
+        this.fileMatcher = fileMatcher;
+    }
+
+    int parallelism() {
+        return this.parallelism;
+    }
+
+    PathMatcher fileMatcher() {
+        return this.fileMatcher;
+    }
+}
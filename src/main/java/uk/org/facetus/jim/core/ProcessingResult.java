@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A summary of the files processed by {@code Jim.processAll()}. Files 
+ * that could not be read or parsed are recorded with the exception 
+ * thrown, rather than ending the processing of the remaining files.
+ */
+public class ProcessingResult {
+    private final int filesFound;
+    private final Map<Path, JimParserException> parserFailures;
+    private final Map<Path, IOException> ioFailures;
+
+    ProcessingResult( 
+            int filesFound, 
+            Map<Path, JimParserException> parserFailures, 
+            Map<Path, IOException> ioFailures ) {
+        this.filesFound = filesFound;
+        this.parserFailures = Collections.unmodifiableMap( parserFailures );
+        this.ioFailures = Collections.unmodifiableMap( ioFailures );
+    }
+
+    /**
+     * The number of files selected for processing.
+     * @return the number of files found
+     */
+    public int filesFound() {
+        return this.filesFound;
+    }
+
+    /**
+     * The number of files successfully processed and passed to the 
+     * consumer.
+     * @return the number of files processed
+     */
+    public int filesProcessed() {
+        return this.filesFound - this.parserFailures.size() - this.ioFailures.size();
+    }
+
+    /**
+     * The files that could not be parsed, including those whose parsing 
+     * timed out.
+     * @return a map of file paths to the exception thrown for each
+     */
+    public Map<Path, JimParserException> parserFailures() {
+        return this.parserFailures;
+    }
+
+    /**
+     * The files that could not be read.
+     * @return a map of file paths to the exception thrown for each
+     */
+    public Map<Path, IOException> ioFailures() {
+        return this.ioFailures;
+    }
+}
@@ -57,6 +57,14 @@ public class ProgramEntity {
     public ProgramEntity ( Species species, String identifierName ) {
 	this( species, null, identifierName );
     }
+    
+    // a read only view of an entity in a compact tree
+    ProgramEntity ( CompactEntityTree tree, int index ) {
+	this.species = tree.species( index );
+	this.children = tree.children( index );
+	this.identifierName = tree.identifierName( index );
+	this.typeName = tree.typeName( index );
+    }
 
     boolean addChild ( ProgramEntity child ) {
 	return this.children.add( child );
@@ -66,11 +74,23 @@ public class ProgramEntity {
 	return this.children;
     }
     
-    String identifierName() {
+    /**
+     * The identifier name of the entity.
+     * @return the name as it appears in the source code
+     */
+    public String identifierName() {
 	return this.identifierName;
     }
     
-    Species species() {
+    /**
+     * The kind of entity.
+     * @return the {@code Species} of the entity
+     */
+    public Species species() {
 	return this.species;
     }
+    
+    TypeName typeName() {
+	return this.typeName;
+    }
 }
@@ -17,7 +17,11 @@
 package uk.org.facetus.jim.core;
 
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.BiConsumer;
+import uk.ac.open.crc.idtk.Species;
 
 /**
  * Internal class for collecting data from the visitor.
@@ -26,18 +30,156 @@ import java.util.List;
 public class RawFileData {
     private String packageName;
     private final String fileName;
+    private boolean generated = false;
+    private final BiConsumer<ProgramEntity, ProgramEntity> entitySink;
     
-    private final List<ProgramEntity> topLevelEntities;
+    private List<ProgramEntity> topLevelEntities;
+    private CompactEntityTree compactEntities = null;
+    
+    private ProgramEntity memberContainer = null;
+    private Deque<ProgramEntity> containers = null;
     
     RawFileData(String fileName) {
+	this(fileName, null);
+    }
+    
+    /**
+     * Creates a record of a file that passes each entity to a sink, with 
+     * its container, instead of keeping it.
+     * @param fileName the name of the file
+     * @param entitySink receives each entity and its container, which is 
+     * {@code null} for a top level entity, or {@code null} to keep the 
+     * entities
+     */
+    RawFileData(String fileName, BiConsumer<ProgramEntity, ProgramEntity> entitySink) {
 	this.fileName = fileName;
+	this.entitySink = entitySink;
 	this.packageName = ""; 
 	this.topLevelEntities = new ArrayList<>();
     }
     
     
+    /**
+     * Creates a record of a class member parsed on its own. The entities 
+     * of the member are added to a placeholder for its class, so that 
+     * they are nested as they would be in the whole file.
+     * @param fileName the name of the file
+     * @return a record of the member
+     */
+    static RawFileData member(String fileName) {
+	RawFileData data = new RawFileData(fileName);
+	data.memberContainer = new ProgramEntity( Species.CLASS, "" );
+	return data;
+    }
+    
+    /**
+     * The placeholder for the class of a member.
+     * @return the placeholder, or {@code null} if this is not a member
+     */
+    ProgramEntity memberContainer() {
+	return this.memberContainer;
+    }
+    
+    /**
+     * Keeps the stack of containers of the builder collecting a member, 
+     * so that the containers left open at its end can be found.
+     * @param containers the stack of containers, with the placeholder at 
+     * the bottom
+     */
+    void containers(Deque<ProgramEntity> containers) {
+	this.containers = containers;
+    }
+    
+    /**
+     * The containers opened while collecting a member and not closed by 
+     * its end, which receive the entities that follow the member in a 
+     * whole file.
+     * @return the open containers, outermost first
+     */
+    List<ProgramEntity> openContainers() {
+	List<ProgramEntity> open = new ArrayList<>();
+	if ( this.containers != null ) {
+	    Iterator<ProgramEntity> outward = this.containers.descendingIterator();
+	    while ( outward.hasNext() ) {
+		ProgramEntity container = outward.next();
+		if ( container != this.memberContainer ) {
+		    open.add( container );
+		}
+	    }
+	}
+	return open;
+    }
+    
+    /**
+     * Records whether the file appears to have been generated by software.
+     * @param generated {@code true} if a generated code marker was found
+     */
+    void generated( boolean generated ) {
+	this.generated = generated;
+    }
+    
+    boolean generated() {
+	return this.generated;
+    }
+    
+    BiConsumer<ProgramEntity, ProgramEntity> entitySink() {
+	return this.entitySink;
+    }
+    
+    /**
+     * Records an entity, either adding it to the tree of entities or 
+     * passing it to the sink.
+     * @param entity a program entity
+     * @param container the entity containing it, or {@code null} for a 
+     * top level entity
+     */
+    void record(ProgramEntity entity, ProgramEntity container) {
+	if ( this.entitySink != null ) {
+	    this.entitySink.accept( entity, container );
+	}
+	else if ( container == null ) {
+	    add( entity );
+	}
+	else {
+	    container.addChild( entity );
+	}
+    }
+    
     List<ProgramEntity> topLevelEntities() {
-	return this.topLevelEntities;
+	return this.compactEntities == null 
+		? this.topLevelEntities 
+		: this.compactEntities.topLevelEntities();
+    }
+    
+    /**
+     * Replaces the tree of program entities with a compact copy, once 
+     * all the entities have been added. The entities are then read only.
+     */
+    void compact() {
+	compact( InternPool.NONE );
+    }
+    
+    /**
+     * Replaces the tree of program entities with a compact copy whose 
+     * names are canonicalised by a pool. Has no effect if the tree has 
+     * already been compacted.
+     * @param internPool the pool of names
+     */
+    void compact(InternPool internPool) {
+	if ( this.compactEntities == null ) {
+	    this.compactEntities = 
+		    CompactEntityTree.of( this.topLevelEntities, internPool );
+	    this.topLevelEntities = null;
+	}
+    }
+    
+    /**
+     * The names of the program entities in depth first order.
+     * @return a read only list of names
+     */
+    List<String> names() {
+	compact();
+	return this.compactEntities.names();
     }
     
     /**
@@ -47,8 +189,13 @@ public class RawFileData {
      * partial. 
      * @param entity a top-level program entity
      * @return the {@code boolean} value returned by {@code List.add()}
+     * @throws IllegalStateException if the entities have been compacted
      */
     public boolean add(ProgramEntity entity) {
+	if ( this.compactEntities != null ) {
+	    throw new IllegalStateException( 
+		    "Entities cannot be added to a compacted file: " + this.fileName );
+	}
 	return this.topLevelEntities.add(entity);
     }
     
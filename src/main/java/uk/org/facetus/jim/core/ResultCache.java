@@ -0,0 +1,440 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import uk.ac.open.crc.idtk.Species;
+
+/**
+ * An on-disk cache of the names and tokens extracted from source files, 
+ * so that unchanged files need not be parsed or tokenised again. Entries 
+ * are keyed by a digest of the source bytes and of everything else that 
+ * determines the result: the version of the library, the grammar, the 
+ * extraction mode, the word lists and the tokenisation strategy.
+ * 
+ * <p>Each entry is a file written to a temporary name and then moved into 
+ * place, so that concurrent readers, in this or another process, see 
+ * either a complete entry or none. Entries that cannot be read are 
+ * treated as misses. Reading an entry updates its modification time, 
+ * which eviction uses as the time the entry was last used.</p>
+ */
+class ResultCache {
+    private static final int MAGIC = 0x4A494D52;  // "JIMR"
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".jimr";
+    private static final String NO_SPECIES = "";
+    private static final int STORES_BETWEEN_EVICTIONS = 1000;
+
+    private final Path directory;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicInteger storesSinceEviction = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private volatile long maximumSize = 0;  // bytes, 0 is unbounded
+    private volatile long maximumAge = 0;   // milliseconds, 0 is unbounded
+
+    /**
+     * Opens a cache, creating the directory if necessary.
+     * @param directory the directory holding the cache entries
+     * @throws IOException if the directory cannot be created
+     */
+    ResultCache( Path directory ) throws IOException {
+        this.directory = Files.createDirectories( directory );
+    }
+
+    /**
+     * Creates a description of the settings that determine the result of 
+     * processing a file, for use with {@link #key(String, byte[])}.
+     * @param backend the grammar backend
+     * @param extractionMode the extraction mode
+     * @param dictionary a description of the word lists used by intt
+     * @param strategy the tokenisation strategy
+     * @return a description of the settings
+     */
+    static String context( 
+            GrammarBackend<?> backend, 
+            ExtractionMode extractionMode,
+            String dictionary,
+            TokenisationStrategy strategy ) {
+        Package jimPackage = ResultCache.class.getPackage();
+        String version = jimPackage == null 
+                ? null : jimPackage.getImplementationVersion();
+        return String.join( "|", 
+                Integer.toString( FORMAT_VERSION ),
+                String.valueOf( version ),
+                backend.grammarVersion(),
+                extractionMode.name(),
+                dictionary,
+                strategy.name() );
+    }
+
+    /**
+     * Computes the key of a source file. The bytes of the buffer are not 
+     * consumed.
+     * @param context a description of the settings
+     * @param source the bytes of the source file
+     * @return the key for the file
+     */
+    static String key( String context, ByteBuffer source ) {
+        MessageDigest digest = sha1();
+        digest.update( context.getBytes( StandardCharsets.UTF_8 ) );
+        digest.update( (byte) 0 );
+        digest.update( source.duplicate() );
+        return hex( digest.digest() );
+    }
+
+    /**
+     * Computes a digest of some text.
+     * @param text the text to digest
+     * @return the digest in hexadecimal
+     */
+    static String digest( String text ) {
+        return hex( sha1().digest( text.getBytes( StandardCharsets.UTF_8 ) ) );
+    }
+
+    /**
+     * Retrieves the result for a key, if cached.
+     * @param key the key of a source file
+     * @param data an empty record of the source file, which receives the 
+     * cached entities, and must not be used if the result is {@code null}
+     * @param strategy the strategy the cached tokens were produced by
+     * @param internPool canonicalises the names and tokens read
+     * @return the cached result, or {@code null} if there is none
+     */
+    FileData load( 
+            String key, 
+            RawFileData data, 
+            TokenisationStrategy strategy, 
+            InternPool internPool ) {
+        Path entry = entry( key );
+        try ( DataInputStream in = new DataInputStream( 
+                new BufferedInputStream( Files.newInputStream( entry ) ) ) ) {
+            FileData result = read( in, data, strategy, internPool );
+            if ( result != null ) {
+                Files.setLastModifiedTime( 
+                        entry, FileTime.fromMillis( System.currentTimeMillis() ) );
+                this.hits.increment();
+                return result;
+            }
+        }
+        catch ( IOException | IllegalArgumentException e ) {
+            // missing, being evicted, or unreadable: parse the file again
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    /**
+     * Adds a result to the cache. Failures to write are ignored, as the 
+     * result has been computed and the cache is only an optimisation.
+     * @param key the key of the source file
+     * @param result the result of processing the file
+     */
+    void store( String key, FileData result ) {
+        Path entry = entry( key );
+        Path temporary = null;
+        try {
+            Files.createDirectories( entry.getParent() );
+            temporary = Files.createTempFile( entry.getParent(), key, ".tmp" );
+            try ( DataOutputStream out = new DataOutputStream( 
+                    new BufferedOutputStream( Files.newOutputStream( temporary ) ) ) ) {
+                write( out, result );
+            }
+            move( temporary, entry );
+            temporary = null;
+        }
+        catch ( IOException e ) {
+            // leave the file uncached
+        }
+        finally {
+            deleteQuietly( temporary );
+        }
+        
+        if ( this.storesSinceEviction.incrementAndGet() >= STORES_BETWEEN_EVICTIONS ) {
+            this.storesSinceEviction.set( 0 );
+            evictQuietly();
+        }
+    }
+
+    void maximumSize( long bytes ) {
+        this.maximumSize = bytes;
+    }
+
+    void maximumAge( long milliseconds ) {
+        this.maximumAge = milliseconds;
+    }
+
+    long hitCount() {
+        return this.hits.sum();
+    }
+
+    long missCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Deletes the entries older than the maximum age, and then the least 
+     * recently used entries until the cache is within its maximum size. 
+     * Only one thread evicts at a time; other callers return immediately.
+     * @throws IOException if the cache directory cannot be read
+     */
+    void evict() throws IOException {
+        if ( ! this.evicting.compareAndSet( false, true ) ) {
+            return;
+        }
+        try {
+            List<Entry> entries = entries();
+            long now = System.currentTimeMillis();
+            long size = 0;
+            List<Entry> retained = new ArrayList<>( entries.size() );
+            for ( Entry entry : entries ) {
+                if ( this.maximumAge > 0 && now - entry.lastUsed > this.maximumAge ) {
+                    deleteQuietly( entry.path );
+                }
+                else {
+                    retained.add( entry );
+                    size += entry.size;
+                }
+            }
+            
+            if ( this.maximumSize > 0 && size > this.maximumSize ) {
+                retained.sort( Comparator.comparingLong( e -> e.lastUsed ) );
+                for ( Entry entry : retained ) {
+                    if ( size <= this.maximumSize ) {
+                        break;
+                    }
+                    deleteQuietly( entry.path );
+                    size -= entry.size;
+                }
+            }
+        }
+        finally {
+            this.evicting.set( false );
+        }
+    }
+
+    // entries are spread over subdirectories named by the first two 
+    // characters of the key, to keep directories small
+    private Path entry( String key ) {
+        return this.directory.resolve( key.substring( 0, 2 ) ).resolve( key + SUFFIX );
+    }
+
+    private List<Entry> entries() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try ( DirectoryStream<Path> subdirectories = 
+                Files.newDirectoryStream( this.directory, Files::isDirectory ) ) {
+            for ( Path subdirectory : subdirectories ) {
+                try ( DirectoryStream<Path> files = 
+                        Files.newDirectoryStream( subdirectory, "*" + SUFFIX ) ) {
+                    for ( Path file : files ) {
+                        try {
+                            BasicFileAttributes attributes = Files.readAttributes( 
+                                    file, BasicFileAttributes.class );
+                            entries.add( new Entry( file, 
+                                    attributes.size(), 
+                                    attributes.lastModifiedTime().toMillis() ) );
+                        }
+                        catch ( NoSuchFileException e ) {
+                            // removed by another process
+                        }
+                    }
+                }
+            }
+        }
+        catch ( DirectoryIteratorException e ) {
+            throw e.getCause();
+        }
+        return entries;
+    }
+
+    private void evictQuietly() {
+        try {
+            evict();
+        }
+        catch ( IOException e ) {
+            // try again after the next batch of stores
+        }
+    }
+
+    private static void write( DataOutputStream out, FileData result ) 
+            throws IOException {
+        out.writeInt( MAGIC );
+        out.writeInt( FORMAT_VERSION );
+        RawFileData data = result.rawData();
+        out.writeUTF( data.packageName() );
+        writeEntities( out, data.topLevelEntities() );
+        List<TokenisedName> tokenisedNames = result.tokenisedNames();
+        out.writeInt( tokenisedNames.size() );
+        for ( TokenisedName tokenisedName : tokenisedNames ) {
+            out.writeInt( tokenisedName.tokens().size() );
+            for ( Token token : tokenisedName.tokens() ) {
+                out.writeUTF( token.getContent() );
+                out.writeInt( token.wordLists().size() );
+                for ( String wordList : token.wordLists() ) {
+                    out.writeUTF( wordList );
+                }
+            }
+        }
+    }
+
+    private static void writeEntities( 
+            DataOutputStream out, 
+            List<ProgramEntity> entities ) throws IOException {
+        out.writeInt( entities.size() );
+        for ( ProgramEntity entity : entities ) {
+            Species species = entity.species();
+            out.writeUTF( species == null ? NO_SPECIES : species.name() );
+            out.writeUTF( entity.identifierName() );
+            writeEntities( out, entity.children() );
+        }
+    }
+
+    // returns null if the entry was written in another format
+    private static FileData read( 
+            DataInputStream in, 
+            RawFileData data, 
+            TokenisationStrategy strategy, 
+            InternPool internPool ) throws IOException {
+        if ( in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION ) {
+            return null;
+        }
+        data.packageName( in.readUTF() );
+        for ( ProgramEntity entity : readEntities( in ) ) {
+            data.add( entity );
+        }
+        
+        List<String> names = data.names();
+        int nameCount = in.readInt();
+        int expectedCount = 
+                strategy == TokenisationStrategy.NONE ? 0 : names.size();
+        if ( nameCount != expectedCount ) {
+            throw new IOException( "Inconsistent cache entry" );
+        }
+        List<TokenisedName> tokenisedNames = new ArrayList<>( nameCount );
+        for ( String name : names.subList( 0, nameCount ) ) {
+            int tokenCount = in.readInt();
+            List<Token> tokens = new ArrayList<>( tokenCount );
+            for ( int i = 0; i < tokenCount; i++ ) {
+                String content = in.readUTF();
+                int wordListCount = in.readInt();
+                List<String> wordLists = new ArrayList<>( wordListCount );
+                for ( int j = 0; j < wordListCount; j++ ) {
+                    wordLists.add( in.readUTF() );
+                }
+                tokens.add( new Token( internPool.intern( content ), 
+                        internPool.intern( wordLists ) ) );
+            }
+            tokenisedNames.add( TokenisedName.fromTokens( name, tokens ) );
+        }
+        return new FileData( data, tokenisedNames, internPool, strategy );
+    }
+
+    private static List<ProgramEntity> readEntities( DataInputStream in ) 
+            throws IOException {
+        int count = in.readInt();
+        List<ProgramEntity> entities = new ArrayList<>( count );
+        for ( int i = 0; i < count; i++ ) {
+            String species = in.readUTF();
+            ProgramEntity entity = new ProgramEntity( 
+                    species.equals( NO_SPECIES ) ? null : Species.valueOf( species ), 
+                    in.readUTF() );
+            for ( ProgramEntity child : readEntities( in ) ) {
+                entity.addChild( child );
+            }
+            entities.add( entity );
+        }
+        return entities;
+    }
+
+    private static void move( Path source, Path target ) throws IOException {
+        try {
+            Files.move( source, target, 
+                    StandardCopyOption.ATOMIC_MOVE, 
+                    StandardCopyOption.REPLACE_EXISTING );
+        }
+        catch ( AtomicMoveNotSupportedException e ) {
+            Files.move( source, target, StandardCopyOption.REPLACE_EXISTING );
+        }
+    }
+
+    private static void deleteQuietly( Path path ) {
+        if ( path == null ) {
+            return;
+        }
+        try {
+            Files.deleteIfExists( path );
+        }
+        catch ( IOException e ) {
+            // in use, or already gone
+        }
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e ) {
+            // every Java platform is required to support SHA-1
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static String hex( byte[] bytes ) {
+        StringBuilder hex = new StringBuilder( bytes.length * 2 );
+        for ( byte b : bytes ) {
+            hex.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) );
+            hex.append( Character.forDigit( b & 0xF, 16 ) );
+        }
+        return hex.toString();
+    }
+
+
+    private static class Entry {
+        private final Path path;
+        private final long size;
+        private final long lastUsed;
+
+        Entry( Path path, long size, long lastUsed ) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -33,6 +33,11 @@ public class Token {
         this.wordLists = tt.wordLists();
     }
     
+    Token(String content, List<String> wordLists) {
+        this.content = content;
+        this.wordLists = wordLists;
+    }
+    
     
     /** 
      * Recovers the token itself.
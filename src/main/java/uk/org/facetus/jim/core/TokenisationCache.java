@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * A bounded cache of the tokenisations of identifier names, shared by the 
+ * {@code NameExtractor} instances created by a {@code Jim}. Common names
+ * recur many times in a corpus and the cache avoids tokenising them again.
+ * 
+ * <p>Names are keyed by the tokenisation strategy used and spread over a 
+ * number of segments, each an LRU map with its own lock, so that threads 
+ * rarely contend for a lock. All the segments are shared by the 
+ * strategies, so a {@code Jim} using a single strategy may fill the whole 
+ * cache. The least recently used names in a segment are evicted to keep 
+ * the cache within its maximum size, which is therefore approximate.</p>
+ */
+class TokenisationCache {
+    private static final int SEGMENTS = 16;  // a power of two
+    
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    private volatile int segmentCapacity;
+    
+    /**
+     * Creates an empty cache.
+     * @param maximumSize the maximum number of names to cache
+     */
+    TokenisationCache( long maximumSize ) {
+        this.segments = new Segment[ SEGMENTS ];
+        for ( int i = 0; i < SEGMENTS; i++ ) {
+            this.segments[i] = new Segment();
+        }
+        maximumSize( maximumSize );
+    }
+    
+    /**
+     * Retrieves the tokenisation of a name, if cached, and records a hit
+     * or a miss.
+     * @param strategy the strategy used to tokenise the name
+     * @param name an identifier name
+     * @return the cached tokens, or {@code null}
+     */
+    List<Token> get( TokenisationStrategy strategy, String name ) {
+        List<Token> tokens = null;
+        if ( this.segmentCapacity > 0 ) {
+            Key key = new Key( strategy, name );
+            Segment segment = segment( key );
+            synchronized ( segment ) {
+                tokens = segment.get( key );
+            }
+        }
+        if ( tokens == null ) {
+            this.misses.increment();
+        }
+        else {
+            this.hits.increment();
+        }
+        return tokens;
+    }
+    
+    /**
+     * Adds the tokenisation of a name to the cache.
+     * @param strategy the strategy used to tokenise the name
+     * @param name an identifier name
+     * @param tokens the tokens found in the name
+     * @return the cached, unmodifiable, list of tokens
+     */
+    List<Token> put( 
+            TokenisationStrategy strategy, 
+            String name, 
+            List<Token> tokens ) {
+        List<Token> cached = Collections.unmodifiableList( tokens );
+        int capacity = this.segmentCapacity;
+        if ( capacity > 0 ) {
+            Key key = new Key( strategy, name );
+            Segment segment = segment( key );
+            synchronized ( segment ) {
+                segment.put( key, cached );
+                segment.trim( capacity );
+            }
+        }
+        return cached;
+    }
+    
+    /**
+     * Sets the maximum number of names cached, and evicts names if 
+     * necessary. A maximum of 0 disables the cache.
+     * @param maximumSize the maximum number of names to cache
+     */
+    final void maximumSize( long maximumSize ) {
+        if ( maximumSize < 0 ) {
+            throw new IllegalArgumentException( 
+                    "maximum size must not be negative: " + maximumSize );
+        }
+        long capacity = ( maximumSize + SEGMENTS - 1 ) / SEGMENTS;
+        this.segmentCapacity = (int) Math.min( capacity, Integer.MAX_VALUE );
+        for ( Segment segment : this.segments ) {
+            synchronized ( segment ) {
+                segment.trim( this.segmentCapacity );
+            }
+        }
+    }
+    
+    /**
+     * Passes each cached tokenisation made with a strategy to an action, 
+     * holding the lock on one segment at a time.
+     * @param strategy a tokenisation strategy
+     * @param action receives each name and its tokens
+     */
+    void forEach( 
+            TokenisationStrategy strategy, 
+            BiConsumer<String, List<Token>> action ) {
+        for ( Segment segment : this.segments ) {
+            synchronized ( segment ) {
+                segment.forEach( ( key, tokens ) -> {
+                    if ( key.strategy == strategy ) {
+                        action.accept( key.name, tokens );
+                    }
+                } );
+            }
+        }
+    }
+    
+    long size() {
+        long size = 0;
+        for ( Segment segment : this.segments ) {
+            synchronized ( segment ) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+    
+    void clear() {
+        for ( Segment segment : this.segments ) {
+            synchronized ( segment ) {
+                segment.clear();
+            }
+        }
+    }
+    
+    long hitCount() {
+        return this.hits.sum();
+    }
+    
+    long missCount() {
+        return this.misses.sum();
+    }
+    
+    private Segment segment( Key key ) {
+        int hash = key.hashCode();
+        hash ^= ( hash >>> 16 );  // spread the high bits, as HashMap does
+        return this.segments[ hash & ( SEGMENTS - 1 ) ];
+    }
+    
+    
+    // a name and the strategy used to tokenise it
+    private static final class Key {
+        private final TokenisationStrategy strategy;
+        private final String name;
+        
+        Key( TokenisationStrategy strategy, String name ) {
+            this.strategy = strategy;
+            this.name = name;
+        }
+        
+        @Override
+        public int hashCode() {
+            return 31 * this.name.hashCode() + this.strategy.ordinal();
+        }
+        
+        @Override
+        public boolean equals( Object other ) {
+            if ( ! ( other instanceof Key ) ) {
+                return false;
+            }
+            Key key = (Key) other;
+            return this.strategy == key.strategy && this.name.equals( key.name );
+        }
+    }
+    
+    
+    // an access ordered map, so the eldest entry is the least recently used
+    private static class Segment extends LinkedHashMap<Key, List<Token>> {
+        private static final long serialVersionUID = 1L;
+        
+        Segment() {
+            super( 16, 0.75f, true );
+        }
+        
+        void trim( int capacity ) {
+            Iterator<Key> keys = keySet().iterator();
+            while ( size() > capacity && keys.hasNext() ) {
+                keys.next();
+                keys.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes snapshots of the tokenisation cache. Loading the word
+ * lists takes seconds, which dominates the run time of short-lived jobs.
+ * A snapshot records the tokenisations prepared by an earlier run so
+ * that a {@code Jim} loaded from it only needs the word lists for names
+ * the snapshot does not contain.
+ *
+ * <p>A snapshot is a binary file that is memory mapped when read. It
+ * begins with a description of the word lists it was made with, which
+ * must match those of the {@code Jim} it is loaded into, followed by a
+ * table of word list names, so that each token refers to its word lists
+ * by index, and then the names and tokens of each tokenisation strategy.
+ * Strings are stored as a length and UTF-8 bytes.</p>
+ */
+class TokenisationSnapshot {
+    private static final int MAGIC = 0x4A494D54;  // "JIMT"
+    private static final int FORMAT_VERSION = 1;
+
+    private TokenisationSnapshot() {}
+
+    /**
+     * Writes the contents of a tokenisation cache to a file, replacing
+     * the file if it exists.
+     * @param file the snapshot file
+     * @param dictionary a description of the word lists used
+     * @param cache the cache to write
+     * @throws IOException if the file cannot be written
+     */
+    static void write( Path file, String dictionary, TokenisationCache cache )
+            throws IOException {
+        // copy each strategy's entries so that the segment locks are
+        // not held while writing
+        Map<TokenisationStrategy, Map<String, List<Token>>> entries =
+                new HashMap<>();
+        Map<String, Integer> wordLists = new HashMap<>();
+        List<String> wordListNames = new ArrayList<>();
+        for ( TokenisationStrategy strategy : TokenisationStrategy.values() ) {
+            Map<String, List<Token>> strategyEntries = new HashMap<>();
+            cache.forEach( strategy, strategyEntries::put );
+            entries.put( strategy, strategyEntries );
+            strategyEntries.values().forEach( tokens -> tokens.forEach(
+                    token -> token.wordLists().forEach( wordList ->
+                            wordLists.computeIfAbsent( wordList, w -> {
+                                wordListNames.add( w );
+                                return wordListNames.size() - 1;
+                            } ) ) ) );
+        }
+
+        Path absolute = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(
+                absolute.getParent(), absolute.getFileName().toString(), ".tmp" );
+        try {
+            try ( DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream( Files.newOutputStream( temporary ) ) ) ) {
+                out.writeInt( MAGIC );
+                out.writeInt( FORMAT_VERSION );
+                writeString( out, dictionary );
+                out.writeInt( wordListNames.size() );
+                for ( String wordList : wordListNames ) {
+                    writeString( out, wordList );
+                }
+                out.writeInt( entries.size() );
+                for ( Map.Entry<TokenisationStrategy, Map<String, List<Token>>> strategyEntries
+                        : entries.entrySet() ) {
+                    writeString( out, strategyEntries.getKey().name() );
+                    out.writeInt( strategyEntries.getValue().size() );
+                    for ( Map.Entry<String, List<Token>> entry
+                            : strategyEntries.getValue().entrySet() ) {
+                        writeString( out, entry.getKey() );
+                        out.writeInt( entry.getValue().size() );
+                        for ( Token token : entry.getValue() ) {
+                            writeString( out, token.getContent() );
+                            out.writeInt( token.wordLists().size() );
+                            for ( String wordList : token.wordLists() ) {
+                                out.writeInt( wordLists.get( wordList ) );
+                            }
+                        }
+                    }
+                }
+            }
+            Files.move( temporary, absolute, StandardCopyOption.REPLACE_EXISTING );
+            temporary = null;
+        }
+        finally {
+            if ( temporary != null ) {
+                Files.deleteIfExists( temporary );
+            }
+        }
+    }
+
+    /**
+     * Adds the tokenisations held in a snapshot to a cache. Entries are
+     * evicted as usual if the snapshot holds more names than the cache
+     * may.
+     * @param file the snapshot file
+     * @param dictionary a description of the word lists of the cache,
+     * which must match those the snapshot was made with
+     * @param cache the cache to fill
+     * @return the number of tokenisations read
+     * @throws IOException if the file cannot be read, is not a snapshot,
+     * or was made with other word lists
+     */
+    static long read( Path file, String dictionary, TokenisationCache cache )
+            throws IOException {
+        ByteBuffer buffer;
+        try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) ) {
+            buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+        }
+
+        try {
+            if ( buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION ) {
+                throw new IOException( "Not a tokenisation snapshot: " + file );
+            }
+            String snapshotDictionary = readString( buffer );
+            if ( ! snapshotDictionary.equals( dictionary ) ) {
+                throw new IOException( String.format(
+                        "Snapshot %s was made with the word lists %s, not %s",
+                        file, snapshotDictionary, dictionary ) );
+            }
+            int wordListCount = buffer.getInt();
+            List<List<String>> wordLists = new ArrayList<>( wordListCount );
+            for ( int i = 0; i < wordListCount; i++ ) {
+                // tokens found in one word list share the same list
+                wordLists.add( Collections.singletonList( readString( buffer ) ) );
+            }
+
+            long count = 0;
+            int strategyCount = buffer.getInt();
+            for ( int i = 0; i < strategyCount; i++ ) {
+                TokenisationStrategy strategy =
+                        TokenisationStrategy.valueOf( readString( buffer ) );
+                int entryCount = buffer.getInt();
+                for ( int j = 0; j < entryCount; j++ ) {
+                    String name = readString( buffer );
+                    int tokenCount = buffer.getInt();
+                    List<Token> tokens = new ArrayList<>( tokenCount );
+                    for ( int k = 0; k < tokenCount; k++ ) {
+                        String content = readString( buffer );
+                        tokens.add( new Token( content,
+                                readWordLists( buffer, wordLists ) ) );
+                    }
+                    cache.put( strategy, name, tokens );
+                    count++;
+                }
+            }
+            return count;
+        }
+        catch ( BufferUnderflowException | IndexOutOfBoundsException
+                | IllegalArgumentException e ) {
+            throw new IOException( "Corrupt tokenisation snapshot: " + file, e );
+        }
+    }
+
+    private static List<String> readWordLists(
+            ByteBuffer buffer,
+            List<List<String>> wordLists ) {
+        int count = buffer.getInt();
+        if ( count == 0 ) {
+            return Collections.emptyList();
+        }
+        if ( count == 1 ) {
+            return wordLists.get( buffer.getInt() );
+        }
+        List<String> tokenWordLists = new ArrayList<>( count );
+        for ( int i = 0; i < count; i++ ) {
+            tokenWordLists.add( wordLists.get( buffer.getInt() ).get( 0 ) );
+        }
+        return Collections.unmodifiableList( tokenWordLists );
+    }
+
+    private static void writeString( DataOutputStream out, String text )
+            throws IOException {
+        byte[] bytes = text.getBytes( StandardCharsets.UTF_8 );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    private static String readString( ByteBuffer buffer ) {
+        int length = buffer.getInt();
+        if ( length < 0 || length > buffer.remaining() ) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[ length ];
+        buffer.get( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+}
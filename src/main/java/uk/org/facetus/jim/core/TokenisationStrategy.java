@@ -22,10 +22,20 @@ package uk.org.facetus.jim.core;
  * a naive of conservative tokenisation where the tokeniser uses only separators 
  * and camel case (unambiguous boundaries) to tokenise names. The latter may 
  * be faster for most names, but relies on the assumption that names have a 
- * simple construction. 
+ * simple construction. {@code ADAPTIVE} splits names that follow the 
+ * usual conventions, such as {@code getUserName} or {@code MAX_SIZE}, 
+ * without the tokeniser, and gives the tokeniser the remainder to tokenise 
+ * as {@code FULL} does, including names with a run of letters, such as 
+ * {@code maxsize}, that the tokeniser has not yet taken as one word. 
+ * Tokens split without the tokeniser are not tagged with word lists. 
+ * {@code NONE} does not tokenise names at all, and the word lists used by 
+ * the tokeniser are never loaded, for applications that only need the 
+ * names themselves. 
  * 
  */
 public enum TokenisationStrategy {
    FULL,
-   SIMPLE;
+   SIMPLE,
+   ADAPTIVE,
+   NONE;
 }
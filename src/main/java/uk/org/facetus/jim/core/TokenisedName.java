@@ -17,7 +17,6 @@ package uk.org.facetus.jim.core;
 
 import java.util.ArrayList;
 import java.util.List;
-import uk.ac.open.crc.intt.TaggedToken;
 
 /**
  * Represents a tokenised identifier name as a name and a list of tokens. 
@@ -29,10 +28,17 @@ public class TokenisedName {
     private String name;
     private List<Token> tokens;
     
-    TokenisedName( String name, List<TaggedToken> taggedTokens ) {
+    private TokenisedName( String name ) {
         this.name = name;
         this.tokens = new ArrayList<>();
-        taggedTokens.forEach( tt -> tokens.add(new Token( tt )) );
+    }
+    
+    // creates a tokenised name from tokens that may be shared with the 
+    // tokenisation cache, or were stored by the result cache
+    static TokenisedName fromTokens( String name, List<Token> tokens ) {
+        TokenisedName tokenisedName = new TokenisedName( name );
+        tokenisedName.tokens.addAll( tokens );
+        return tokenisedName;
     }
     
     public String name() {
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import uk.ac.open.crc.intt.IdentifierNameTokeniser;
+import uk.ac.open.crc.intt.IdentifierNameTokeniserFactory;
+
+/**
+ * Gives each thread its own tokeniser. Tokenisers keep state while they
+ * tokenise a name, so one may not be used by two threads at once, but
+ * the word lists are loaded by the factory and are shared, read only, by
+ * every tokeniser it creates. A thread therefore costs a tokeniser,
+ * not another copy of the word lists, and names can be tokenised on
+ * many threads at once without locking.
+ *
+ * <p>The tokeniser used is that of the thread doing the tokenisation,
+ * which need not be the thread that parsed the file, so {@code FileData}
+ * instances tokenised lazily on another thread remain safe.</p>
+ *
+ * <p>The factory, and so the word lists, are only loaded when the first
+ * tokeniser is needed. Names found in the tokenisation cache, which may
+ * have been loaded from a snapshot, do not need a tokeniser.</p>
+ */
+class TokeniserPool {
+
+    private final Supplier<IdentifierNameTokeniserFactory> factorySupplier;
+    private IdentifierNameTokeniserFactory factory = null;  // guarded by this
+    private final ThreadLocal<IdentifierNameTokeniser> tokenisers =
+            ThreadLocal.withInitial( this::create );
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * Creates a pool of tokenisers that share the word lists of a factory.
+     * @param factorySupplier creates the factory, which loads the word 
+     * lists, when the first tokeniser is needed
+     */
+    TokeniserPool( Supplier<IdentifierNameTokeniserFactory> factorySupplier ) {
+        this.factorySupplier = factorySupplier;
+    }
+
+    /**
+     * The tokeniser of the calling thread, which is created on the first
+     * call from each thread.
+     * @return a tokeniser for the exclusive use of the calling thread
+     */
+    IdentifierNameTokeniser get() {
+        return this.tokenisers.get();
+    }
+
+    /**
+     * The number of tokenisers created, which is the number of threads
+     * that have tokenised names.
+     * @return the number of tokenisers
+     */
+    int size() {
+        return this.created.get();
+    }
+
+    // the factory is not documented as thread safe
+    private synchronized IdentifierNameTokeniser create() {
+        if ( this.factory == null ) {
+            this.factory = this.factorySupplier.get();
+        }
+        IdentifierNameTokeniser tokeniser = this.factory.create();
+        this.created.incrementAndGet();
+        return tokeniser;
+    }
+}
@@ -15,10 +15,13 @@
  */
 package uk.org.facetus.jim.core;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * A set of utilities.
@@ -34,6 +37,9 @@ public class Utils {
      * once to test it and then again to process it. However, the caller 
      * gains by not needing to process the generated file. In other words, 
      * there is a penalty for many files and a saving for generated files. 
+     * {@code NameExtractor} makes the same test on the bytes it reads, 
+     * without opening the file again: see {@code FileData.isGenerated()} 
+     * and {@code Jim.skipGeneratedFiles()}.
      * @param sourceFile the {@code File} to be processed
      * @return a boolean indicating whether the inspected file may have been 
      * generated by software
@@ -41,27 +47,31 @@ public class Utils {
      * @throws IOException if there is a problem accessing, reading or closing the file
      */
     public static boolean isGenerated( File sourceFile ) throws FileNotFoundException, IOException {
-        boolean isGenerated = false;
-        try (BufferedReader in = new BufferedReader( new java.io.FileReader( sourceFile ) )) {
-            int lineCount = 0;
-            final int linesToRead = 100; // should be in the first few lines, but be safe, just in case of licence statements.
-            String line;
-            while ( (line = in.readLine()) != null && lineCount < linesToRead ) {
-                if ( line.matches( "\\/\\/ \\$ANTLR.*" )
-                        || line.matches( "\\/\\* Generated.*(JavaCC|JJTree).*" )
-                        || line.matches( "^.*\\* Generated by the IDL-to-Java compiler.*$" )
-                        || line.matches( "^.*\\* This file was auto-generated.*$" )// apache axis, which has changed statements. The version used is a compromise to catch different versions
-                        || line.matches( "^.*Generated by the protocol buffer compiler.*$" ) // google web toolkit
-                        || line.matches( "^.*generated by make_pydocs\\.py.*$" ) // jython
-                        || line.matches( "^.*Generated file, do not modify.*$" ) // jython
-                        ) {
-                    isGenerated = true;
-                    break;
+        try ( InputStream in = new FileInputStream( sourceFile ) ) {
+            return GeneratedCodeDetector.DEFAULT.isGenerated( 
+                    ByteBuffer.wrap( readLines( in, GeneratedCodeDetector.LINES_TO_READ ) ) );
+        }
+    }
+    
+    // reads at least the first lines of a stream
+    private static byte[] readLines( InputStream in, int lines ) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[ 8192 ];
+        int newLines = 0;
+        int carriageReturns = 0;
+        int count;
+        while ( Math.max( newLines, carriageReturns ) < lines 
+                && ( count = in.read( buffer ) ) != -1 ) {
+            for ( int i = 0; i < count; i++ ) {
+                if ( buffer[i] == '\n' ) {
+                    newLines++;
+                }
+                else if ( buffer[i] == '\r' ) {
+                    carriageReturns++;
                 }
-                lineCount++;
             }
+            bytes.write( buffer, 0, count );
         }
-
-        return isGenerated;
+        return bytes.toByteArray();
     }
 }
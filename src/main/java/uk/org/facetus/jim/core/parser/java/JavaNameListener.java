@@ -0,0 +1,331 @@
+/*
+    Copyright (C) 2019 Simon Butler
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package uk.org.facetus.jim.core.parser.java;
+
+import java.util.ArrayDeque;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import uk.ac.open.crc.idtk.Species;
+import uk.org.facetus.jim.core.FileDataBuilder;
+import uk.org.facetus.jim.core.ProgramEntity;
+import uk.org.facetus.jim.core.RawFileData;
+
+/**
+ * A listener that extracts names from files parsed with the grammar 
+ * derived from grammars-v4, recording the same program entities, in the 
+ * same order, as {@code Java8VisitorImplementation} records for the JLS 
+ * grammar. The listener may either walk a parse tree or be registered 
+ * with {@code Parser.addParseListener()} so that no parse tree is built.
+ *
+ * <p>Names are recorded as each {@code Identifier} token is seen, using 
+ * the rule that matched the token to decide what the name is, because 
+ * the tokens matched by a rule are attached to its context whether or not 
+ * a tree is built. Entering and exiting rules maintains the declaration 
+ * context and the container stack.</p>
+ */
+public class JavaNameListener extends JavaBaseListener {
+
+    private final ArrayDeque<Species> declarationContextStack = new ArrayDeque<>();
+    private final FileDataBuilder dataBuilder;
+
+    private boolean inPackageDeclaration = false;
+    private StringBuilder packageName = null;
+
+    public JavaNameListener( RawFileData fileData ) {
+        this.dataBuilder = new FileDataBuilder( fileData );
+    }
+
+    /**
+     * Discards the state of the last file so that the listener can be 
+     * reused for another.
+     * @param fileData receives the names found in the next file
+     */
+    public void reset( RawFileData fileData ) {
+        this.declarationContextStack.clear();
+        this.inPackageDeclaration = false;
+        this.packageName = null;
+        this.dataBuilder.reset( fileData );
+    }
+
+    @Override
+    public void visitTerminal( TerminalNode node ) {
+        ParserRuleContext context = (ParserRuleContext) node.getParent();
+        if ( this.inPackageDeclaration ) {
+            recordPackageName( node, context );
+            return;
+        }
+        if ( node.getSymbol().getType() != JavaLexer.Identifier ) {
+            return;
+        }
+
+        String name = node.getText();
+        switch ( context.getRuleIndex() ) {
+            case JavaParser.RULE_classDeclaration:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.CLASS, name ) );
+                break;
+
+            case JavaParser.RULE_methodDeclarator:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.METHOD, name ) );
+                break;
+
+            case JavaParser.RULE_constructorDeclarator:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.CONSTRUCTOR, name ) );
+                break;
+
+            case JavaParser.RULE_enumDeclaration:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.ENUMERATION, name ) );
+                break;
+
+            case JavaParser.RULE_enumConstant:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.ENUMERATION_CONSTANT, name ) );
+                break;
+
+            case JavaParser.RULE_interfaceDeclaration:
+            case JavaParser.RULE_annotationTypeDeclaration:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.INTERFACE, name ) );
+                break;
+
+            case JavaParser.RULE_annotationTypeElementDeclaration:
+                this.dataBuilder.add(
+                        new ProgramEntity( Species.ANNOTATION_MEMBER, name ) );
+                break;
+
+            case JavaParser.RULE_variableDeclaratorId:
+                // the species is set by the containing declaration
+                this.dataBuilder.add( new ProgramEntity(
+                        this.declarationContextStack.peekFirst(), name ) );
+                break;
+
+            case JavaParser.RULE_labeledStatement:
+                this.dataBuilder.add( new ProgramEntity( Species.LABEL, name ) );
+                break;
+
+            case JavaParser.RULE_lambdaParameters:
+            case JavaParser.RULE_inferredFormalParameterList:
+                this.dataBuilder.add(
+                        new ProgramEntity( Species.LAMBDA_PARAMETER, name ) );
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    // the package name is the qualified name following 'package'; 
+    // annotations on the package declaration also contain qualified names
+    private void recordPackageName( 
+            TerminalNode node, 
+            ParserRuleContext context ) {
+        if ( node.getSymbol().getType() == JavaLexer.PACKAGE ) {
+            this.packageName = new StringBuilder();
+        }
+        else if ( this.packageName != null 
+                && context.getRuleIndex() == JavaParser.RULE_qualifiedName ) {
+            this.packageName.append( node.getText() );
+        }
+    }
+
+    @Override
+    public void enterPackageDeclaration(
+            JavaParser.PackageDeclarationContext context ) {
+        this.inPackageDeclaration = true;
+    }
+
+    @Override
+    public void exitPackageDeclaration(
+            JavaParser.PackageDeclarationContext context ) {
+        this.inPackageDeclaration = false;
+        this.dataBuilder.packageName( this.packageName.toString() );
+        this.packageName = null;
+    }
+
+    @Override
+    public void enterFieldDeclaration(
+            JavaParser.FieldDeclarationContext context ) {
+        this.declarationContextStack.push( Species.FIELD );
+    }
+
+    @Override
+    public void exitFieldDeclaration(
+            JavaParser.FieldDeclarationContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterConstantDeclaration(
+            JavaParser.ConstantDeclarationContext context ) {
+        this.declarationContextStack.push( Species.FIELD );
+    }
+
+    @Override
+    public void exitConstantDeclaration(
+            JavaParser.ConstantDeclarationContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterMethodDeclarator(
+            JavaParser.MethodDeclaratorContext context ) {
+        this.declarationContextStack.push( Species.FORMAL_ARGUMENT );
+    }
+
+    @Override
+    public void exitMethodDeclarator(
+            JavaParser.MethodDeclaratorContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterFormalParameter(
+            JavaParser.FormalParameterContext context ) {
+        this.declarationContextStack.push( Species.FORMAL_ARGUMENT );
+    }
+
+    @Override
+    public void exitFormalParameter(
+            JavaParser.FormalParameterContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterLastFormalParameter(
+            JavaParser.LastFormalParameterContext context ) {
+        this.declarationContextStack.push( Species.FORMAL_ARGUMENT );
+    }
+
+    @Override
+    public void exitLastFormalParameter(
+            JavaParser.LastFormalParameterContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void exitMethodBody( JavaParser.MethodBodyContext context ) {
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void enterConstructorDeclarator(
+            JavaParser.ConstructorDeclaratorContext context ) {
+        this.declarationContextStack.push( Species.CONSTRUCTOR );
+    }
+
+    @Override
+    public void exitConstructorDeclarator(
+            JavaParser.ConstructorDeclaratorContext context ) {
+        this.declarationContextStack.pop();
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void exitEnumBody( JavaParser.EnumBodyContext context ) {
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void exitEnumConstant( JavaParser.EnumConstantContext context ) {
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void exitInterfaceDeclaration(
+            JavaParser.InterfaceDeclarationContext context ) {
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void exitAnnotationTypeDeclaration(
+            JavaParser.AnnotationTypeDeclarationContext context ) {
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void enterLocalVariableDeclaration(
+            JavaParser.LocalVariableDeclarationContext context ) {
+        this.declarationContextStack.push( Species.LOCAL_VARIABLE );
+    }
+
+    @Override
+    public void exitLocalVariableDeclaration(
+            JavaParser.LocalVariableDeclarationContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterEnhancedForControl(
+            JavaParser.EnhancedForControlContext context ) {
+        this.declarationContextStack.push( Species.LOCAL_VARIABLE );
+    }
+
+    @Override
+    public void exitEnhancedForControl(
+            JavaParser.EnhancedForControlContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterCatchFormalParameter(
+            JavaParser.CatchFormalParameterContext context ) {
+        this.declarationContextStack.push( Species.FORMAL_ARGUMENT );
+    }
+
+    @Override
+    public void exitCatchFormalParameter(
+            JavaParser.CatchFormalParameterContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterFinally_( JavaParser.Finally_Context context ) {
+        this.declarationContextStack.push( Species.LOCAL_VARIABLE );
+    }
+
+    @Override
+    public void exitFinally_( JavaParser.Finally_Context context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterResourceSpecification(
+            JavaParser.ResourceSpecificationContext context ) {
+        this.declarationContextStack.push( Species.LOCAL_VARIABLE );
+    }
+
+    @Override
+    public void exitResourceSpecification(
+            JavaParser.ResourceSpecificationContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterLambdaParameters(
+            JavaParser.LambdaParametersContext context ) {
+        this.declarationContextStack.push( Species.LAMBDA_PARAMETER );
+    }
+
+    @Override
+    public void exitLambdaParameters(
+            JavaParser.LambdaParametersContext context ) {
+        this.declarationContextStack.pop();
+    }
+}
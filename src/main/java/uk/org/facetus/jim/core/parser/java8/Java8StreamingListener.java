@@ -0,0 +1,330 @@
+/*
+    Copyright (C) 2019 Simon Butler
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package uk.org.facetus.jim.core.parser.java8;
+
+import java.util.ArrayDeque;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import uk.ac.open.crc.idtk.Species;
+import uk.org.facetus.jim.core.FileDataBuilder;
+import uk.org.facetus.jim.core.ProgramEntity;
+import uk.org.facetus.jim.core.RawFileData;
+
+/**
+ * A parse listener that extracts names while the file is being parsed,
+ * so that the parser need not build a parse tree. The listener is
+ * registered with {@code Parser.addParseListener()} and records the same
+ * program entities, in the same order, as
+ * {@code Java8VisitorImplementation}.
+ *
+ * <p>Without a parse tree the child rule contexts are not available to
+ * the listener, but ANTLR still attaches the tokens matched by a rule to
+ * its context. Names are therefore recorded as each {@code Identifier}
+ * token is consumed, using the rule that matched the token to decide what
+ * the name is. Entering and exiting rules maintains the declaration
+ * context and the container stack, as the visitor does.</p>
+ */
+public class Java8StreamingListener extends Java8BaseListener {
+
+    private final ArrayDeque<Species> declarationContextStack = new ArrayDeque<>();
+    private final FileDataBuilder dataBuilder;
+
+    private StringBuilder packageName = null;
+
+    public Java8StreamingListener( RawFileData fileData ) {
+        this.dataBuilder = new FileDataBuilder( fileData );
+    }
+
+    /**
+     * Discards the state of the last file parsed so that the listener can 
+     * be reused for another.
+     * @param fileData receives the names found in the next file
+     */
+    public void reset( RawFileData fileData ) {
+        this.declarationContextStack.clear();
+        this.packageName = null;
+        this.dataBuilder.reset( fileData );
+    }
+
+    @Override
+    public void visitTerminal( TerminalNode node ) {
+        ParserRuleContext context = (ParserRuleContext) node.getParent();
+        if ( this.packageName != null
+                && context.getRuleIndex() == Java8Parser.RULE_packageName ) {
+            this.packageName.append( node.getText() );
+            return;
+        }
+        if ( node.getSymbol().getType() != Java8Lexer.Identifier ) {
+            return;
+        }
+
+        String name = node.getText();
+        switch ( context.getRuleIndex() ) {
+            case Java8Parser.RULE_normalClassDeclaration:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.CLASS, name ) );
+                break;
+
+            case Java8Parser.RULE_methodDeclarator:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.METHOD, name ) );
+                break;
+
+            case Java8Parser.RULE_simpleTypeName:
+                // only used in constructorDeclarator
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.CONSTRUCTOR, name ) );
+                break;
+
+            case Java8Parser.RULE_enumDeclaration:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.ENUMERATION, name ) );
+                break;
+
+            case Java8Parser.RULE_enumConstant:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.ENUMERATION_CONSTANT, name ) );
+                break;
+
+            case Java8Parser.RULE_normalInterfaceDeclaration:
+            case Java8Parser.RULE_annotationTypeDeclaration:
+                this.dataBuilder.addAsContainer(
+                        new ProgramEntity( Species.INTERFACE, name ) );
+                break;
+
+            case Java8Parser.RULE_annotationTypeElementDeclaration:
+                this.dataBuilder.add(
+                        new ProgramEntity( Species.ANNOTATION_MEMBER, name ) );
+                break;
+
+            case Java8Parser.RULE_variableDeclaratorId:
+                // the species is set by the containing declaration
+                this.dataBuilder.add( new ProgramEntity(
+                        this.declarationContextStack.peekFirst(), name ) );
+                break;
+
+            case Java8Parser.RULE_labeledStatement:
+            case Java8Parser.RULE_labeledStatementNoShortIf:
+                this.dataBuilder.add( new ProgramEntity( Species.LABEL, name ) );
+                break;
+
+            case Java8Parser.RULE_lambdaParameters:
+            case Java8Parser.RULE_inferredFormalParameterList:
+                this.dataBuilder.add(
+                        new ProgramEntity( Species.LAMBDA_PARAMETER, name ) );
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void enterPackageDeclaration(
+            Java8Parser.PackageDeclarationContext context ) {
+        this.packageName = new StringBuilder();
+    }
+
+    @Override
+    public void exitPackageDeclaration(
+            Java8Parser.PackageDeclarationContext context ) {
+        this.dataBuilder.packageName( this.packageName.toString() );
+        this.packageName = null;
+    }
+
+    @Override
+    public void enterFieldDeclaration(
+            Java8Parser.FieldDeclarationContext context ) {
+        this.declarationContextStack.push( Species.FIELD );
+    }
+
+    @Override
+    public void exitFieldDeclaration(
+            Java8Parser.FieldDeclarationContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterMethodDeclarator(
+            Java8Parser.MethodDeclaratorContext context ) {
+        this.declarationContextStack.push( Species.FORMAL_ARGUMENT );
+    }
+
+    @Override
+    public void exitMethodDeclarator(
+            Java8Parser.MethodDeclaratorContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterFormalParameter(
+            Java8Parser.FormalParameterContext context ) {
+        this.declarationContextStack.push( Species.FORMAL_ARGUMENT );
+    }
+
+    @Override
+    public void exitFormalParameter(
+            Java8Parser.FormalParameterContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterLastFormalParameter(
+            Java8Parser.LastFormalParameterContext context ) {
+        this.declarationContextStack.push( Species.FORMAL_ARGUMENT );
+    }
+
+    @Override
+    public void exitLastFormalParameter(
+            Java8Parser.LastFormalParameterContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void exitMethodBody( Java8Parser.MethodBodyContext context ) {
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void enterConstructorDeclarator(
+            Java8Parser.ConstructorDeclaratorContext context ) {
+        this.declarationContextStack.push( Species.CONSTRUCTOR );
+    }
+
+    @Override
+    public void exitConstructorDeclarator(
+            Java8Parser.ConstructorDeclaratorContext context ) {
+        this.declarationContextStack.pop();
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void exitEnumBody( Java8Parser.EnumBodyContext context ) {
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void exitEnumConstant( Java8Parser.EnumConstantContext context ) {
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void exitNormalInterfaceDeclaration(
+            Java8Parser.NormalInterfaceDeclarationContext context ) {
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void enterConstantDeclaration(
+            Java8Parser.ConstantDeclarationContext context ) {
+        this.declarationContextStack.push( Species.FIELD );
+    }
+
+    @Override
+    public void exitConstantDeclaration(
+            Java8Parser.ConstantDeclarationContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void exitAnnotationTypeDeclaration(
+            Java8Parser.AnnotationTypeDeclarationContext context ) {
+        this.dataBuilder.moveToParent();
+    }
+
+    @Override
+    public void enterLocalVariableDeclaration(
+            Java8Parser.LocalVariableDeclarationContext context ) {
+        this.declarationContextStack.push( Species.LOCAL_VARIABLE );
+    }
+
+    @Override
+    public void exitLocalVariableDeclaration(
+            Java8Parser.LocalVariableDeclarationContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterEnhancedForStatement(
+            Java8Parser.EnhancedForStatementContext context ) {
+        this.declarationContextStack.push( Species.LOCAL_VARIABLE );
+    }
+
+    @Override
+    public void exitEnhancedForStatement(
+            Java8Parser.EnhancedForStatementContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterEnhancedForStatementNoShortIf(
+            Java8Parser.EnhancedForStatementNoShortIfContext context ) {
+        this.declarationContextStack.push( Species.LOCAL_VARIABLE );
+    }
+
+    @Override
+    public void exitEnhancedForStatementNoShortIf(
+            Java8Parser.EnhancedForStatementNoShortIfContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterCatchFormalParameter(
+            Java8Parser.CatchFormalParameterContext context ) {
+        this.declarationContextStack.push( Species.FORMAL_ARGUMENT );
+    }
+
+    @Override
+    public void exitCatchFormalParameter(
+            Java8Parser.CatchFormalParameterContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterFinally_( Java8Parser.Finally_Context context ) {
+        this.declarationContextStack.push( Species.LOCAL_VARIABLE );
+    }
+
+    @Override
+    public void exitFinally_( Java8Parser.Finally_Context context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterResourceSpecification(
+            Java8Parser.ResourceSpecificationContext context ) {
+        this.declarationContextStack.push( Species.LOCAL_VARIABLE );
+    }
+
+    @Override
+    public void exitResourceSpecification(
+            Java8Parser.ResourceSpecificationContext context ) {
+        this.declarationContextStack.pop();
+    }
+
+    @Override
+    public void enterLambdaParameters(
+            Java8Parser.LambdaParametersContext context ) {
+        this.declarationContextStack.push( Species.LAMBDA_PARAMETER );
+    }
+
+    @Override
+    public void exitLambdaParameters(
+            Java8Parser.LambdaParametersContext context ) {
+        this.declarationContextStack.pop();
+    }
+}
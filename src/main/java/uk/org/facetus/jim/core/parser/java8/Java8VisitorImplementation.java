@@ -66,6 +66,18 @@ public class Java8VisitorImplementation extends Java8BaseVisitor<String> {
 
         this.dataBuilder = new FileDataBuilder(fileData);
     }
+    
+    /**
+     * Discards the state of the last file visited so that the visitor can 
+     * be reused for another.
+     * @param fileData receives the names found in the next file
+     */
+    public void reset( RawFileData fileData ) {
+        this.imports.clear();
+        this.declarationContextStack.clear();
+        this.variableContext = null;
+        this.dataBuilder.reset( fileData );
+    }
 
     	/**
 	 * {@inheritDoc}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core.warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A sample of commonly used Java language constructs, parsed by 
+ * Jim.warmUp() to populate the DFA cache.
+ */
+@SuppressWarnings( { "unchecked", "rawtypes" } )
+public class WarmUpSample<K extends Comparable<K>, V> extends AbstractMap<K, V> 
+        implements Cloneable, java.io.Serializable {
+    private static final long serialVersionUID = 1L;
+    public static final int DEFAULT_CAPACITY = 1 << 4;
+    private static final String[] NAMES = { "alpha", "beta", "gamma" };
+    
+    private final Map<K, List<V>> entries = new HashMap<>();
+    private transient volatile int modificationCount = 0;
+    private int[][] grid = new int[ 3 ][];
+    private final Comparator<String> byLength = new Comparator<String>() {
+        @Override
+        public int compare( String first, String second ) {
+            return Integer.compare( first.length(), second.length() );
+        }
+    };
+    
+    static {
+        Arrays.sort( NAMES );
+    }
+    
+    public WarmUpSample() {
+        this( DEFAULT_CAPACITY );
+    }
+    
+    protected WarmUpSample( int capacity ) throws IllegalArgumentException {
+        super();
+        if ( capacity < 0 || capacity > Integer.MAX_VALUE >>> 1 ) {
+            throw new IllegalArgumentException( "Illegal capacity: " + capacity );
+        }
+        this.grid[ 0 ] = new int[] { capacity, capacity * 2, -capacity };
+    }
+    
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> result = new LinkedHashSet<>();
+        for ( Map.Entry<K, List<V>> entry : this.entries.entrySet() ) {
+            for ( V value : entry.getValue() ) {
+                result.add( new AbstractMap.SimpleEntry<>( entry.getKey(), value ) );
+            }
+        }
+        return Collections.unmodifiableSet( result );
+    }
+    
+    @Override
+    public V put( K key, V value ) {
+        requireNonNull( key, "key" );
+        List<V> values = this.entries.computeIfAbsent( key, k -> new ArrayList<>() );
+        V previous = values.isEmpty() ? null : values.get( values.size() - 1 );
+        values.add( value );
+        modificationCount++;
+        return previous;
+    }
+    
+    public <R> List<R> transform( Function<? super V, ? extends R> mapper ) {
+        return this.entries.values().stream()
+                .flatMap( List::stream )
+                .filter( Objects::nonNull )
+                .map( mapper )
+                .collect( Collectors.toList() );
+    }
+    
+    public synchronized int countLines( Reader source ) throws IOException {
+        int count = 0;
+        try ( BufferedReader reader = new BufferedReader( source ) ) {
+            String line;
+            while ( ( line = reader.readLine() ) != null ) {
+                if ( line.trim().isEmpty() || line.startsWith( "//" ) ) {
+                    continue;
+                }
+                count += 1;
+            }
+        }
+        catch ( IOException | RuntimeException e ) {
+            throw e;
+        }
+        finally {
+            modificationCount--;
+        }
+        return count;
+    }
+    
+    public static long checksum( final byte... data ) {
+        long hash = 0xcbf29ce484222325L;
+        outer:
+        for ( int i = 0, n = data.length; i < n; i++ ) {
+            switch ( data[ i ] ) {
+                case 0:
+                    break outer;
+                case '\n':
+                case '\r':
+                    continue;
+                default:
+                    hash ^= ( data[ i ] & 0xff );
+                    hash *= 0x100000001b3L;
+            }
+        }
+        do {
+            hash = ( hash >> 7 ) | ( hash << 57 );
+        } while ( hash < 0 && !( hash == Long.MIN_VALUE ) );
+        return (int) hash == 0 ? 1L : hash % 1000003L;
+    }
+    
+    @Override
+    public boolean equals( Object other ) {
+        if ( this == other ) {
+            return true;
+        }
+        else if ( !( other instanceof WarmUpSample ) ) {
+            return false;
+        }
+        WarmUpSample<?, ?> that = (WarmUpSample<?, ?>) other;
+        return this.entries.equals( that.entries ) && super.equals( that );
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * this.entries.hashCode() + ( this.modificationCount & 0x7 );
+    }
+    
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        return super.clone();
+    }
+    
+    public enum Colour implements Function<String, String> {
+        RED( "r" ) {
+            @Override
+            public String apply( String text ) {
+                return text.toUpperCase( Locale.ROOT );
+            }
+        },
+        GREEN( "g" ),
+        BLUE( "b" );
+        
+        private final String code;
+        
+        Colour( String code ) {
+            this.code = code;
+        }
+        
+        @Override
+        public String apply( String text ) {
+            return this.code + ':' + text;
+        }
+    }
+    
+    interface Visitor<T> {
+        T visit( Node node );
+        
+        default T visitAll( Iterable<? extends Node> nodes ) {
+            T last = null;
+            for ( Node node : nodes ) {
+                last = node.accept( this );
+            }
+            return last;
+        }
+    }
+    
+    static abstract class Node {
+        abstract <T> T accept( Visitor<T> visitor );
+    }
+    
+    @interface Marker {
+        String value() default "";
+        int[] order() default { 1, 2 };
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.List;
+import org.junit.Test;
+import uk.ac.open.crc.idtk.Species;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests the compact representation of the program entities of a file.
+ *
+ */
+public class CompactEntityTreeTest {
+
+    @Test
+    public void viewsMatchTreeTest() {
+        RawFileData fileData = new RawFileData( "a-file.name" );
+        FileDataBuilder builder = new FileDataBuilder( fileData );
+        builder.addAsContainer( new ProgramEntity( Species.CLASS, "AClass" ) );
+        builder.add( new ProgramEntity( Species.FIELD, "value" ) );
+        builder.addAsContainer( new ProgramEntity( Species.METHOD, "compute" ) );
+        builder.add( new ProgramEntity( Species.FORMAL_ARGUMENT, "value" ) );
+        builder.moveToParent();
+        builder.add( new ProgramEntity( Species.FIELD, "count" ) );
+        fileData.add( new ProgramEntity( Species.CLASS, "AnotherClass" ) );
+
+        fileData.compact();
+        assertThat( "Unexpected names",
+                fileData.names(),
+                contains( "AClass", "value", "compute", "value", "count",
+                        "AnotherClass" ) );
+
+        List<ProgramEntity> topLevel = fileData.topLevelEntities();
+        assertThat( "Expected two top level entities",
+                topLevel,
+                hasSize( 2 ) );
+        ProgramEntity aClass = topLevel.get( 0 );
+        assertThat( "Expected three children",
+                aClass.children(),
+                hasSize( 3 ) );
+        ProgramEntity method = aClass.children().get( 1 );
+        assertThat( "Unexpected species for the method",
+                method.species(),
+                is( Species.METHOD ) );
+        assertThat( "Unexpected parameter name",
+                method.children().get( 0 ).identifierName(),
+                is( "value" ) );
+        assertThat( "Expected no children for the field",
+                aClass.children().get( 2 ).children(),
+                empty() );
+        assertThat( "Unexpected second top level entity",
+                topLevel.get( 1 ).identifierName(),
+                is( "AnotherClass" ) );
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void compactedIsReadOnlyTest() {
+        RawFileData fileData = new RawFileData( "a-file.name" );
+        fileData.add( new ProgramEntity( Species.CLASS, "AClass" ) );
+        fileData.compact();
+        fileData.add( new ProgramEntity( Species.CLASS, "AnotherClass" ) );
+    }
+}
@@ -61,6 +61,34 @@ public class FileDataBuilderTest {
 		is("aField"));
     }
 
+    /**
+     * Test of reset method, of class FileDataBuilder.
+     */
+    @Test
+    public void resetTest () {
+	RawFileData firstFile = new RawFileData("a-file.name");
+	FileDataBuilder builder = new FileDataBuilder( firstFile );
+	builder.addAsContainer( new ProgramEntity(Species.CLASS, "AClass") );
+	builder.addAsContainer( new ProgramEntity(Species.METHOD, "aMethod") );
+	
+	RawFileData secondFile = new RawFileData("another-file.name");
+	builder.reset( secondFile );
+	builder.add( new ProgramEntity(Species.CLASS, "AnotherClass") );
+	
+	assertThat("Expected the first file to be unchanged", 
+		firstFile.topLevelEntities(), 
+		hasSize(1));
+	assertThat("Expected one top level entity in the second file", 
+		secondFile.topLevelEntities(), 
+		hasSize(1));
+	assertThat("Expected a top level class after the reset",
+		secondFile.topLevelEntities().get(0).identifierName(), 
+		is("AnotherClass"));
+	assertThat("Expected the file name of the second file",
+		builder.fileName(), 
+		is("another-file.name"));
+    }
+
     /**
      * Test of addAsContainer method, of class FileDataBuilder.
      */
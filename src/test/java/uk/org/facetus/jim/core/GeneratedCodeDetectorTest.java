@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import org.junit.Test;
+
+/**
+ * Tests the recognition of generated files from the markers in their 
+ * first lines.
+ *
+ */
+public class GeneratedCodeDetectorTest {
+
+    @Test
+    public void defaultMarkersTest() {
+        String[] generated = {
+            "// $ANTLR 3.5.2 Expression.g 2019-11-20 10:15:42",
+            "/* Generated By:JavaCC: Do not edit this line. Parser.java */",
+            "/* Generated By:JJTree: Do not edit this line. Node.java */",
+            " * Generated by the IDL-to-Java compiler (portable), version \"3.2\"",
+            " * This file was auto-generated from WSDL",
+            "// Generated by the protocol buffer compiler.  DO NOT EDIT!",
+            "// generated by make_pydocs.py",
+            "// Generated file, do not modify"
+        };
+        for ( String line : generated ) {
+            assertThat( "Expected a generated file: " + line,
+                    GeneratedCodeDetector.DEFAULT.isGenerated( 
+                            source( "package p;\n" + line + "\nclass A {}\n" ) ),
+                    is( true ) );
+        }
+    }
+
+    @Test
+    public void anchoredMarkerTest() {
+        assertThat( "Expected an anchored marker to need the start of a line",
+                GeneratedCodeDetector.DEFAULT.isGenerated( 
+                        source( "int i; // $ANTLR\n" ) ),
+                is( false ) );
+        assertThat( "Expected an anchored marker after a carriage return",
+                GeneratedCodeDetector.DEFAULT.isGenerated( 
+                        source( "package p;\r\n// $ANTLR 3.5\r\n" ) ),
+                is( true ) );
+    }
+
+    @Test
+    public void wildcardMarkerTest() {
+        assertThat( "Expected the rest of the marker on the same line",
+                GeneratedCodeDetector.DEFAULT.isGenerated( 
+                        source( "/* Generated by hand */\n// JavaCC\n" ) ),
+                is( false ) );
+        GeneratedCodeDetector detector = new GeneratedCodeDetector( 
+                Arrays.asList( "@Generated.*value.*tool" ) );
+        assertThat( "Expected the fragments in order",
+                detector.isGenerated( 
+                        source( "@Generated( value = \"tool\" )\n" ) ),
+                is( true ) );
+        assertThat( "Expected the fragments in order",
+                detector.isGenerated( 
+                        source( "@Generated( tool = \"value\" )\n" ) ),
+                is( false ) );
+    }
+
+    @Test
+    public void overlappingMarkersTest() {
+        GeneratedCodeDetector detector = new GeneratedCodeDetector( 
+                Arrays.asList( "generated code", "rated", "^ode" ) );
+        assertThat( "Expected a marker found through a failure transition",
+                detector.isGenerated( source( "// degenerated\n" ) ),
+                is( true ) );
+        assertThat( "Expected no marker",
+                detector.isGenerated( source( "// generate code\n" ) ),
+                is( false ) );
+    }
+
+    @Test
+    public void lineLimitTest() {
+        StringBuilder text = new StringBuilder();
+        for ( int i = 0; i < GeneratedCodeDetector.LINES_TO_READ; i++ ) {
+            text.append( "//\n" );
+        }
+        text.append( "// Generated file, do not modify\n" );
+        assertThat( "Expected markers after the first lines to be ignored",
+                GeneratedCodeDetector.DEFAULT.isGenerated( source( text.toString() ) ),
+                is( false ) );
+    }
+
+    @Test
+    public void noMarkersTest() {
+        GeneratedCodeDetector detector = 
+                new GeneratedCodeDetector( Collections.emptyList() );
+        assertThat( "Expected no file to be generated",
+                detector.isGenerated( source( "// $ANTLR 3.5\n" ) ),
+                is( false ) );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMarkerTest() {
+        new GeneratedCodeDetector( Arrays.asList( "^.*generated" ) );
+    }
+
+    private static ByteBuffer source( String text ) {
+        return ByteBuffer.wrap( text.getBytes( StandardCharsets.UTF_8 ) );
+    }
+}
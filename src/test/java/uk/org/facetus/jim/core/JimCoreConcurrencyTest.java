@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Checks that one Jim can be used by many threads at once, each with its
+ * own NameExtractor, and that the results match those found on a single
+ * thread.
+ *
+ */
+public class JimCoreConcurrencyTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final int THREADS = 8;
+
+    private static final String[] TEST_FILES = {
+        "SimpleTestEmptyClass.java",
+        "SimpleConstructorAndMethodTest.java",
+        "LambdaPlain.java",
+        "EnumerationTest.java",
+        "InterfaceTest.java",
+        "LocalVariableTest.java",
+        "NestedClassTest.java",
+        "TryCatchTest.java",
+        "MoreThanOneTopLevelClass.java",
+        "UmlautBezeichnerTest.java"
+    };
+
+    @Test
+    public void concurrentExtractorsTest() {
+        List<List<String>> expected = tokensOfAll( new Jim().create() );
+
+        Jim library = new Jim();
+        List<List<List<String>>> found =
+                runOnThreads( () -> tokensOfAll( library.create() ) );
+
+        found.forEach( tokens -> assertThat(
+                "Expected the same tokens on every thread",
+                tokens,
+                is( expected ) ) );
+        assertThat( "Expected at most one tokeniser for each thread",
+                library.tokeniserCount(),
+                allOf( greaterThan( 0 ), lessThanOrEqualTo( THREADS ) ) );
+    }
+
+    @Test
+    public void tokeniseOnOtherThreadsTest() {
+        List<List<String>> expected = tokensOfAll( new Jim().create() );
+
+        // parse on one thread and tokenise the same FileData on many
+        Jim library = new Jim();
+        List<FileData> parsed = processAll( library.create() );
+        List<List<List<String>>> found = runOnThreads( () -> {
+            List<List<String>> tokens = new ArrayList<>();
+            parsed.forEach( fileData -> tokens.add( fileData.tokens() ) );
+            return tokens;
+        } );
+
+        found.forEach( tokens -> assertThat(
+                "Expected the same tokens on every thread",
+                tokens,
+                is( expected ) ) );
+    }
+
+    @Test
+    public void noTokeniserTest() {
+        Jim library = new Jim( TokenisationStrategy.NONE );
+        runOnThreads( () -> tokensOfAll( library.create() ) );
+        assertThat( "Expected no tokenisers to be created",
+                library.tokeniserCount(),
+                is( 0 ) );
+    }
+
+    private <T> List<T> runOnThreads( Callable<T> work ) {
+        ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for ( int i = 0; i < THREADS; i++ ) {
+                futures.add( executor.submit( work ) );
+            }
+            List<T> results = new ArrayList<>();
+            for ( Future<T> future : futures ) {
+                results.add( future.get() );
+            }
+            return results;
+        }
+        catch ( InterruptedException | ExecutionException e ) {
+            fail( "Worker failed: " + e.getMessage() );
+            return null;
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<List<String>> tokensOfAll( NameExtractor extractor ) {
+        List<List<String>> tokens = new ArrayList<>();
+        processAll( extractor ).forEach( fileData -> tokens.add( fileData.tokens() ) );
+        return tokens;
+    }
+
+    private List<FileData> processAll( NameExtractor extractor ) {
+        List<FileData> results = new ArrayList<>();
+        for ( String fileName : TEST_FILES ) {
+            try {
+                results.add( extractor.process( new RawFileData( fileName ),
+                        JimCoreConcurrencyTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) ) );
+            }
+            catch ( IOException e ) {
+                fail( "unable to access test class " + fileName );
+            }
+            catch ( JimParserException e ) {
+                fail( "Parser exception thrown for " + fileName );
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.atn.LexerATNSimulator;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the measurement and limits of the DFA cache. The cache is shared
+ * by all Jim instances, so each test leaves it without limits.
+ *
+ */
+public class JimCoreDfaCacheTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+
+    @After
+    public void tearDown() {
+        Jim library = new Jim();
+        library.dfaCacheMaximumSize( 0 );
+        library.dfaCacheMaximumAge( 0, TimeUnit.SECONDS );
+    }
+
+    @Test
+    public void sizeAndClearTest() {
+        Jim library = new Jim();
+        library.clearDfaCache();
+        assertThat( "Expected an empty cache",
+                library.dfaCacheSize(),
+                is( 0L ) );
+
+        process( library, "SimpleTestEmptyClass.java" );
+        assertThat( "Expected the cache to be populated",
+                library.dfaCacheSize(),
+                greaterThan( 0L ) );
+
+        library.clearDfaCache();
+        assertThat( "Expected the cache to be cleared",
+                library.dfaCacheSize(),
+                is( 0L ) );
+    }
+
+    @Test
+    public void maximumSizeTest() {
+        Jim library = new Jim();
+        library.dfaCacheMaximumSize( 1 );
+
+        process( library, "SimpleTestEmptyClass.java" );
+        assertThat( "Expected the cache to be cleared after processing",
+                library.dfaCacheSize(),
+                is( 0L ) );
+    }
+
+    @Test
+    public void maximumAgeTest() {
+        Jim library = new Jim();
+        library.dfaCacheMaximumAge( 1, TimeUnit.NANOSECONDS );
+
+        process( library, "SimpleTestEmptyClass.java" );
+        assertThat( "Expected the cache to be cleared after processing",
+                library.dfaCacheSize(),
+                is( 0L ) );
+    }
+
+    @Test
+    public void warmUpTest() {
+        Jim library = new Jim();
+        library.clearDfaCache();
+        library.warmUp();
+        assertThat( "Expected warm up to populate the cache",
+                library.dfaCacheSize(),
+                greaterThan( 0L ) );
+        assertThat( "Expected the cache to be shared",
+                new Jim().dfaCacheSize(),
+                is( library.dfaCacheSize() ) );
+    }
+
+    @Test
+    public void simulatorReuseTest() {
+        Jim library = new Jim();
+        GrammarBackend.Recognisers<?> parts = library.backend().recognisers();
+        Lexer lexer = parts.lexer( CharStreams.fromString( "class A {}" ) );
+        Parser parser = parts.parser( new CommonTokenStream( lexer ) );
+        LexerATNSimulator lexerInterpreter = lexer.getInterpreter();
+        ParserATNSimulator parserInterpreter = parser.getInterpreter();
+
+        lexer = parts.lexer( CharStreams.fromString( "class B {}" ) );
+        parser = parts.parser( new CommonTokenStream( lexer ) );
+        assertThat( "Expected the lexer interpreter to be kept",
+                lexer.getInterpreter(),
+                sameInstance( lexerInterpreter ) );
+        assertThat( "Expected the parser interpreter to be kept",
+                parser.getInterpreter(),
+                sameInstance( parserInterpreter ) );
+
+        library.clearDfaCache();
+        lexer = parts.lexer( CharStreams.fromString( "class C {}" ) );
+        parser = parts.parser( new CommonTokenStream( lexer ) );
+        assertThat( "Expected a new lexer interpreter for the cleared cache",
+                lexer.getInterpreter(),
+                not( sameInstance( lexerInterpreter ) ) );
+        assertThat( "Expected a new parser interpreter for the cleared cache",
+                parser.getInterpreter(),
+                not( sameInstance( parserInterpreter ) ) );
+    }
+
+    private void process( Jim library, String fileName ) {
+        try {
+            library.create().process( new RawFileData( fileName ),
+                    JimCoreTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + fileName ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + fileName );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+import uk.ac.open.crc.idtk.Species;
+
+/**
+ * Checks that an {@code EntityListener} receives the same names, in the 
+ * same order, as are recorded in {@code FileData}.
+ *
+ */
+public class JimCoreEntityListenerTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+
+    private static final String[] TEST_FILES = {
+        "SimpleConstructorAndMethodTest.java",
+        "LambdaPlain.java",
+        "EnumerationTest.java",
+        "InterfaceTest.java",
+        "NestedClassTest.java",
+        "TryCatchTest.java",
+        "MoreThanOneTopLevelClass.java",
+        "DeclarationSkimTest.java",
+        "MemberDivisionTest.java"
+    };
+
+    @Test
+    public void listenerMatchesFileDataTest() {
+        compareAll( new Jim() );
+    }
+
+    @Test
+    public void listenerStreamingTwoStageTest() {
+        Jim library = new Jim( ParserBackend.FAST );
+        library.streaming( true );
+        library.parsingStrategy( ParsingStrategy.TWO_STAGE );
+        compareAll( library );
+    }
+
+    @Test
+    public void listenerParallelFastBackendTest() {
+        Jim library = new Jim( ParserBackend.FAST );
+        library.parallelParsingThreshold( 1 );
+        compareAll( library );
+    }
+
+    @Test
+    public void listenerNoTokensTest() {
+        Jim library = new Jim( TokenisationStrategy.NONE );
+        compareAll( library );
+    }
+
+    @Test
+    public void containerTest() {
+        CollectingListener listener = 
+                process( new Jim(), "SimpleConstructorAndMethodTest.java" );
+        assertThat( "Expected the start of the file",
+                listener.started,
+                is( "SimpleConstructorAndMethodTest.java" ) );
+        assertThat( "Expected the end of the file",
+                listener.ended,
+                is( "SimpleConstructorAndMethodTest.java" ) );
+        assertThat( "Expected the default package",
+                listener.packageName,
+                is( "" ) );
+        assertThat( "Unexpected species",
+                listener.species,
+                contains( Species.CLASS, Species.CONSTRUCTOR, Species.METHOD ) );
+        assertThat( "Expected no container for the class",
+                listener.containers.get( 0 ),
+                is( nullValue() ) );
+        assertThat( "Expected the class to contain the method",
+                listener.containers.get( 2 ),
+                is( "SimpleConstructorAndMethodTest" ) );
+    }
+
+    @Test
+    public void syntaxErrorTest() {
+        CollectingListener listener = new CollectingListener();
+        try {
+            new Jim().create().process( "BrokenSyntaxLexer.java",
+                    JimCoreEntityListenerTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + "BrokenSyntaxLexer.java" ),
+                    listener );
+            fail( "Expected JimParserException to be thrown" );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class BrokenSyntaxLexer" );
+        }
+        catch ( JimParserException e ) {
+            assertThat( "Expected the end of the file not to be reported",
+                    listener.ended,
+                    is( nullValue() ) );
+        }
+    }
+
+    private void compareAll( Jim library ) {
+        NameExtractor n = library.create();
+        for ( String fileName : TEST_FILES ) {
+            try {
+                FileData expected = n.process( new RawFileData( fileName ),
+                        JimCoreEntityListenerTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) );
+                CollectingListener found = process( library, fileName );
+                assertThat(
+                        String.format( "Names differ for %s", fileName ),
+                        found.names,
+                        is( expected.names() ) );
+                assertThat(
+                        String.format( "Tokens differ for %s", fileName ),
+                        found.tokens,
+                        is( expected.tokens() ) );
+                assertThat(
+                        String.format( "Package name differs for %s", fileName ),
+                        found.packageName,
+                        is( expected.packageName() ) );
+            }
+            catch ( IOException e ) {
+                fail( "unable to access test class " + fileName );
+            }
+            catch ( JimParserException e ) {
+                fail( "Parser exception thrown for " + fileName );
+            }
+        }
+    }
+
+    private CollectingListener process( Jim library, String fileName ) {
+        CollectingListener listener = new CollectingListener();
+        try {
+            library.create().process( fileName,
+                    JimCoreEntityListenerTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + fileName ),
+                    listener );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + fileName );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown for " + fileName );
+        }
+        return listener;
+    }
+
+
+    private static class CollectingListener implements EntityListener {
+        private final List<Species> species = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<String> containers = new ArrayList<>();
+        private final List<String> tokens = new ArrayList<>();
+        private String started = null;
+        private String ended = null;
+        private String packageName = null;
+
+        @Override
+        public void startFile( String fileName ) {
+            this.started = fileName;
+        }
+
+        @Override
+        public void entity( Species species, String name, 
+                ProgramEntity container, List<Token> nameTokens ) {
+            this.species.add( species );
+            this.names.add( name );
+            this.containers.add( 
+                    container == null ? null : container.identifierName() );
+            this.tokens.addAll( nameTokens.stream()
+                    .map( t -> t.getContent().toLowerCase() )
+                    .collect( Collectors.toList() ) );
+        }
+
+        @Override
+        public void endFile( String fileName, String packageName ) {
+            this.ended = fileName;
+            this.packageName = packageName;
+        }
+    }
+}
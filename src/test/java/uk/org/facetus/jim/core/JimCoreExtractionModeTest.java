@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.ac.open.crc.idtk.Species;
+
+/**
+ * Tests the declaration only extraction mode.
+ *
+ */
+public class JimCoreExtractionModeTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static Jim declarationsLibrary;
+
+    @BeforeClass
+    public static void setUp() {
+        declarationsLibrary = new Jim();
+        declarationsLibrary.extractionMode( ExtractionMode.DECLARATIONS );
+    }
+
+    @Test
+    public void declarationsTest() {
+        NameExtractor n = declarationsLibrary.create();
+
+        try {
+            FileData d = n.process( new RawFileData( "DeclarationSkimTest.java" ),
+                    JimCoreTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + "DeclarationSkimTest.java" ) );
+            // declarations in field initialisers are retained, names in
+            // method, constructor, initialiser and lambda bodies are not
+            assertThat( "Unexpected names recovered",
+                    d.names(),
+                    contains( "DeclarationSkimTest", "SIZES", "byLength",
+                            "compare", "first", "second",
+                            "measure", "text", "parse", "value", 
+                            "worker", "runs", "run",
+                            "DeclarationSkimTest", "name",
+                            "largest", "left", "right",
+                            "Direction", "UP", "sign", "DOWN", "value",
+                            "Direction", "Direction", "value", "sign",
+                            "Shape", "area", "describe", "prefix",
+                            "Marker", "label" ) );
+            assertThat( "Unexpected package name",
+                    d.packageName(),
+                    is( "skim.test" ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class DeclarationSkimTest" );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    @Test
+    public void noLocalVariablesTest() {
+        NameExtractor n = declarationsLibrary.create();
+
+        try {
+            FileData d = n.process( new RawFileData( "DeclarationSkimTest.java" ),
+                    JimCoreTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + "DeclarationSkimTest.java" ) );
+            assertThat( "Found a local variable",
+                    species( d.rawData().topLevelEntities() ),
+                    not( hasItem( Species.LOCAL_VARIABLE ) ) );
+            assertThat( "Found a local variable of a lambda or anonymous class",
+                    d.names(),
+                    everyItem( not( isOneOf( "inLambda", "anonLocal", "difference" ) ) ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class DeclarationSkimTest" );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    @Test
+    public void localVariablesSkippedTest() {
+        NameExtractor n = declarationsLibrary.create();
+
+        try {
+            FileData d = n.process( new RawFileData( "LocalVariableTest.java" ),
+                    JimCoreTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + "LocalVariableTest.java" ) );
+            assertThat( "Expected only class, method and parameter names",
+                    d.names(),
+                    contains( "LocalVariableTest", "aMethod", "parameter" ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class LocalVariableTest" );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    @Test
+    public void interfaceTest() {
+        NameExtractor n = declarationsLibrary.create();
+
+        try {
+            FileData d = n.process( new RawFileData( "InterfaceTest.java" ),
+                    JimCoreTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + "InterfaceTest.java" ) );
+            assertThat( "Did not find the interface default method 'defaultMethod'",
+                    d.names(),
+                    hasItem( "defaultMethod" ) );
+            assertThat( "Did not find the interface constant 'A_CONSTANT'",
+                    d.names(),
+                    hasItem( "A_CONSTANT" ) );
+            assertThat( "Found the local variable 'someText'",
+                    d.names(),
+                    not( hasItem( "someText" ) ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class InterfaceTest" );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    private static List<Species> species( List<ProgramEntity> entities ) {
+        List<Species> species = new ArrayList<>();
+        for ( ProgramEntity entity : entities ) {
+            species.add( entity.species() );
+            species.addAll( species( entity.children() ) );
+        }
+        return species;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the per file metrics recorded when processing files.
+ *
+ */
+public class JimCoreFileMetricsTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final String TEST_FILE = "SimpleConstructorAndMethodTest.java";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void metricsTest() {
+        Jim library = new Jim();
+        library.fileMetrics( true );
+        Path file = copy( TEST_FILE );
+
+        FileData d = process( library, file );
+        FileMetrics metrics = d.metrics();
+        try {
+            assertThat( "Expected the size of the file",
+                    metrics.inputBytes(),
+                    is( Files.size( file ) ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access copy of " + TEST_FILE );
+        }
+        assertThat( "Expected tokens to be counted",
+                metrics.tokenCount(),
+                greaterThan( 0L ) );
+        assertThat( "Expected more nodes than tokens",
+                metrics.parseTreeNodeCount(),
+                greaterThan( metrics.tokenCount() ) );
+        assertThat( "Expected an entity for each name",
+                metrics.entityCount(),
+                is( (long) d.names().size() ) );
+        assertThat( "Expected the lexer to be timed",
+                metrics.lexNanos(),
+                greaterThan( 0L ) );
+        assertThat( "Expected the parser to be timed",
+                metrics.parseNanos(),
+                greaterThan( 0L ) );
+        assertThat( "Expected the visitor to be timed",
+                metrics.visitNanos(),
+                greaterThan( 0L ) );
+        assertThat( "Expected no tokenisation before tokens are requested",
+                metrics.tokeniseNanos(),
+                is( 0L ) );
+
+        d.tokens();
+        assertThat( "Expected tokenisation to be timed",
+                d.metrics().tokeniseNanos(),
+                greaterThan( 0L ) );
+        assertThat( "Expected the other metrics to be kept",
+                d.metrics().parseNanos(),
+                is( metrics.parseNanos() ) );
+    }
+
+    @Test
+    public void streamingTest() {
+        Jim library = new Jim();
+        library.fileMetrics( true );
+        library.streaming( true );
+
+        FileMetrics metrics = process( library, copy( TEST_FILE ) ).metrics();
+        assertThat( "Expected no parse tree",
+                metrics.parseTreeNodeCount(),
+                is( 0L ) );
+        assertThat( "Expected the parser to be timed",
+                metrics.parseNanos(),
+                greaterThan( 0L ) );
+    }
+
+    @Test
+    public void notRecordedTest() {
+        FileData d = process( new Jim(), copy( TEST_FILE ) );
+        d.tokens();
+        assertThat( "Expected no metrics",
+                d.metrics(),
+                sameInstance( FileMetrics.NONE ) );
+    }
+
+    private FileData process( Jim library, Path file ) {
+        try {
+            return library.create().process( file );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + file );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+        return null;
+    }
+
+    private Path copy( String fileName ) {
+        try ( InputStream in = JimCoreFileMetricsTest.class.getResourceAsStream(
+                JAVA_TEST_FILE_FOLDER + fileName ) ) {
+            Path file = folder.getRoot().toPath().resolve( fileName );
+            Files.copy( in, file );
+            return file;
+        }
+        catch ( IOException e ) {
+            fail( "unable to copy test class " + fileName );
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests the recognition and skipping of generated files.
+ *
+ */
+public class JimCoreGeneratedCodeTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final String GENERATED_FILE = "GeneratedParserTest.java";
+    private static final String HANDWRITTEN_FILE = "SimpleConstructorAndMethodTest.java";
+
+    @Test
+    public void generatedFlagTest() {
+        Jim library = new Jim();
+        FileData generated = process( library, GENERATED_FILE );
+        assertThat( "Expected a generated file",
+                generated.isGenerated(),
+                is( true ) );
+        assertThat( "Expected the names of a generated file",
+                generated.names(),
+                contains( "GeneratedParserTest", "ruleIndex", 
+                        "expression", "precedence", "start" ) );
+        assertThat( "Expected a handwritten file",
+                process( library, HANDWRITTEN_FILE ).isGenerated(),
+                is( false ) );
+        assertThat( "Expected one generated file to be counted",
+                library.generatedFileCount(),
+                is( 1L ) );
+    }
+
+    @Test
+    public void skipGeneratedFilesTest() {
+        Jim library = new Jim();
+        library.skipGeneratedFiles( true );
+        FileData generated = process( library, GENERATED_FILE );
+        assertThat( "Expected a generated file",
+                generated.isGenerated(),
+                is( true ) );
+        assertThat( "Expected no names from a skipped file",
+                generated.names(),
+                is( empty() ) );
+        assertThat( "Expected the names of a handwritten file",
+                process( library, HANDWRITTEN_FILE ).names(),
+                is( not( empty() ) ) );
+    }
+
+    @Test
+    public void customMarkersTest() {
+        Jim library = new Jim();
+        library.generatedCodeMarkers( Arrays.asList( "^public class Simple" ) );
+        assertThat( "Expected the default markers to be replaced",
+                process( library, GENERATED_FILE ).isGenerated(),
+                is( false ) );
+        assertThat( "Expected a file with a custom marker",
+                process( library, HANDWRITTEN_FILE ).isGenerated(),
+                is( true ) );
+    }
+
+    @Test
+    public void utilsTest() {
+        try {
+            assertThat( "Expected Utils to recognise a generated file",
+                    Utils.isGenerated( file( GENERATED_FILE ) ),
+                    is( true ) );
+            assertThat( "Expected Utils to recognise a handwritten file",
+                    Utils.isGenerated( file( HANDWRITTEN_FILE ) ),
+                    is( false ) );
+        }
+        catch ( IOException | URISyntaxException e ) {
+            fail( "unable to access test classes" );
+        }
+    }
+
+    private File file( String fileName ) throws URISyntaxException {
+        return new File( JimCoreGeneratedCodeTest.class.getResource(
+                JAVA_TEST_FILE_FOLDER + fileName ).toURI() );
+    }
+
+    private FileData process( Jim library, String fileName ) {
+        try {
+            return library.create().process( new RawFileData( fileName ),
+                    JimCoreGeneratedCodeTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + fileName ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + fileName );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown for " + fileName );
+        }
+        return null;
+    }
+}
@@ -17,6 +17,7 @@ package uk.org.facetus.jim.core;
 
 import java.io.IOException;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import org.junit.Test;
@@ -89,4 +90,29 @@ public class JimCoreGermanTest {
             fail( "Parser exception thrown" );
         }
     }
+
+    @Test
+    public void nonAsciiIdentifierTest() {
+	Jim library = new Jim( DictionaryConfiguration.GERMAN );
+	
+	NameExtractor n = library.create();
+	
+	try {
+	    FileData d = n.process( 
+		    new RawFileData("UmlautBezeichnerTest.java"), 
+		    JimCoreTest.class.getResourceAsStream( 
+		    JAVA_TEST_FILE_FOLDER + "UmlautBezeichnerTest.java"));
+	    assertThat("Failed to recover names containing non-ASCII characters", 
+		    d.names(), 
+		    contains("UmlautBezeichnerTest", "maßstab", "übersicht", 
+			    "berechneFläche", "breite", "höhe", "ergebnis", 
+			    "\uD835\uDC65Wert", "_\u20ACbetrag"));
+	}
+	catch (IOException e) {
+	    fail( "unable to access test class UmlautBezeichnerTest" );
+	}
+        catch ( JimParserException e) {
+            fail( "Parser exception thrown" );
+        }
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests the sharing of equal names, tokens and word list tags between
+ * the {@code FileData} instances of a {@code Jim}.
+ *
+ */
+public class JimCoreInterningTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final String TEST_FILE = "LocalVariableTest.java";
+
+    @Test
+    public void interningTest() {
+        Jim library = new Jim();
+        library.interning( true );
+
+        FileData first = process( library );
+        FileData second = process( library );
+        assertThat( "Expected the same names",
+                second.names(),
+                is( first.names() ) );
+        assertThat( "Expected names to be shared between files",
+                second.names().get( 0 ),
+                sameInstance( first.names().get( 0 ) ) );
+        assertThat( "Expected tokens to be shared between files",
+                second.tokens().get( 0 ),
+                sameInstance( first.tokens().get( 0 ) ) );
+        assertThat( "Expected word list tags to be shared between files",
+                second.tokenisedNames().get( 0 ).tokens().get( 0 ).wordLists(),
+                sameInstance( first.tokenisedNames().get( 0 ).tokens().get( 0 ).wordLists() ) );
+
+        assertThat( "Expected duplicates to be counted",
+                library.internedDuplicateCount(),
+                greaterThan( 0L ) );
+        assertThat( "Expected memory to be saved",
+                library.internedBytesSaved(),
+                greaterThan( 0L ) );
+        assertThat( "Expected values to be pooled",
+                library.internPoolSize(),
+                greaterThan( 0L ) );
+    }
+
+    @Test
+    public void sameResultsTest() {
+        Jim library = new Jim();
+        library.interning( true );
+        FileData interned = process( library );
+        FileData plain = process( new Jim() );
+
+        assertThat( "Expected the same names with interning",
+                interned.names(),
+                is( plain.names() ) );
+        assertThat( "Expected the same tokens with interning",
+                interned.tokens(),
+                is( plain.tokens() ) );
+    }
+
+    @Test
+    public void disabledTest() {
+        Jim library = new Jim();
+
+        FileData first = process( library );
+        FileData second = process( library );
+        assertThat( "Expected names not to be shared",
+                second.names().get( 0 ),
+                not( sameInstance( first.names().get( 0 ) ) ) );
+        assertThat( "Expected no duplicates to be counted",
+                library.internedDuplicateCount(),
+                is( 0L ) );
+        assertThat( "Expected nothing to be pooled",
+                library.internPoolSize(),
+                is( 0L ) );
+    }
+
+    private FileData process( Jim library ) {
+        try {
+            FileData d = library.create().process( new RawFileData( TEST_FILE ),
+                    JimCoreInterningTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + TEST_FILE ) );
+            d.tokens();  // names are tokenised on first use
+            return d;
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + TEST_FILE );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+        return null;
+    }
+}
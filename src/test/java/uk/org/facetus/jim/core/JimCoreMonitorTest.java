@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the metrics published through JMX for a monitored {@code Jim}.
+ *
+ */
+public class JimCoreMonitorTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final String TEST_FILE = "SimpleConstructorAndMethodTest.java";
+    private static final String BROKEN_FILE = "BrokenSyntaxLexer.java";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void mbeanTest() {
+        Jim library = new Jim();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = library.registerMBean( "monitor-test" );
+            try {
+                NameExtractor extractor = library.create();
+                extractor.process( copy( TEST_FILE ) );
+                try {
+                    extractor.process( copy( BROKEN_FILE ) );
+                    fail( "Expected a parser exception" );
+                }
+                catch ( JimParserException e ) {
+                    // expected
+                }
+
+                assertThat( "Expected one file processed",
+                        server.getAttribute( name, "FilesProcessed" ),
+                        is( 1L ) );
+                assertThat( "Expected one parse failure",
+                        server.getAttribute( name, "ParseFailures" ),
+                        is( 1L ) );
+                CompositeData parse =
+                        (CompositeData) server.getAttribute( name, "ParseLatency" );
+                assertThat( "Expected the parser to be timed",
+                        parse.get( "count" ),
+                        is( 1L ) );
+                assertThat( "Expected a parse time",
+                        (Long) parse.get( "maxNanos" ),
+                        greaterThan( 0L ) );
+            }
+            finally {
+                library.unregisterMBean();
+            }
+            assertThat( "Expected the MBean to be removed",
+                    server.isRegistered( name ),
+                    is( false ) );
+        }
+        catch ( JMException e ) {
+            fail( "unable to access MBean: " + e.getMessage() );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class" );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    @Test
+    public void notMonitoredTest() {
+        try {
+            FileData d = new Jim().create().process( copy( TEST_FILE ) );
+            assertThat( "Expected no metrics",
+                    d.metrics(),
+                    sameInstance( FileMetrics.NONE ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + TEST_FILE );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    private Path copy( String fileName ) {
+        try ( InputStream in = JimCoreMonitorTest.class.getResourceAsStream(
+                JAVA_TEST_FILE_FOLDER + fileName ) ) {
+            Path file = folder.getRoot().toPath().resolve( fileName );
+            Files.copy( in, file );
+            return file;
+        }
+        catch ( IOException e ) {
+            fail( "unable to copy test class " + fileName );
+        }
+        return null;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Checks that parsing the members of large files in parallel recovers the 
+ * same names as parsing each file as a whole.
+ *
+ */
+public class JimCoreParallelParsingTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final String WARM_UP_SAMPLE = "warmup/WarmUpSample.java";
+
+    private static final String[] TEST_FILES = {
+        "SimpleTestEmptyClass.java",
+        "SimpleConstructorAndMethodTest.java",
+        "LambdaPlain.java",
+        "EnumerationTest.java",
+        "InterfaceTest.java",
+        "LocalVariableTest.java",
+        "NestedClassTest.java",
+        "TryCatchTest.java",
+        "MoreThanOneTopLevelClass.java",
+        "AntlrIssue1097.java",
+        "DeclarationSkimTest.java",
+        "MemberDivisionTest.java",
+        WARM_UP_SAMPLE
+    };
+
+    @Test
+    public void parallelMatchesWholeFileTest() {
+        Jim parallelLibrary = new Jim();
+        parallelLibrary.parallelParsingThreshold( 1 );
+        compareAll( new Jim(), parallelLibrary );
+        assertThat( "Expected files to be parsed in parallel",
+                parallelLibrary.parallelParseCount(),
+                greaterThan( 0L ) );
+    }
+
+    @Test
+    public void parallelStreamingTwoStageTest() {
+        Jim library = new Jim( ParserBackend.FAST );
+        library.streaming( true );
+        library.parsingStrategy( ParsingStrategy.TWO_STAGE );
+        Jim parallelLibrary = new Jim( ParserBackend.FAST );
+        parallelLibrary.streaming( true );
+        parallelLibrary.parsingStrategy( ParsingStrategy.TWO_STAGE );
+        parallelLibrary.parallelParsingThreshold( 1 );
+        compareAll( library, parallelLibrary );
+    }
+
+    @Test
+    public void parallelFastBackendTest() {
+        Jim parallelLibrary = new Jim( ParserBackend.FAST );
+        parallelLibrary.parallelParsingThreshold( 1 );
+        compareAll( new Jim( ParserBackend.FAST ), parallelLibrary );
+    }
+
+    @Test
+    public void parallelDeclarationsTest() {
+        Jim library = new Jim();
+        library.extractionMode( ExtractionMode.DECLARATIONS );
+        Jim parallelLibrary = new Jim();
+        parallelLibrary.extractionMode( ExtractionMode.DECLARATIONS );
+        parallelLibrary.parallelParsingThreshold( 1 );
+        compareAll( library, parallelLibrary );
+    }
+
+    @Test
+    public void divisionTest() {
+        Jim library = new Jim();
+        library.parallelParsingThreshold( 1 );
+        NameExtractor n = library.create();
+        process( n, "InterfaceTest.java" );
+        assertThat( "Expected a file with an interface to be parsed whole",
+                library.parallelParseCount(),
+                is( 0L ) );
+        assertThat( "Expected the whole file parse to be counted",
+                library.parallelParseFallbackCount(),
+                is( 1L ) );
+        process( n, "MemberDivisionTest.java" );
+        assertThat( "Expected the file to be parsed in parallel",
+                library.parallelParseCount(),
+                is( 1L ) );
+        assertThat( "Expected no further whole file parses",
+                library.parallelParseFallbackCount(),
+                is( 1L ) );
+    }
+
+    @Test
+    public void thresholdTest() {
+        Jim library = new Jim();
+        library.parallelParsingThreshold( 100_000 );
+        process( library.create(), "MemberDivisionTest.java" );
+        assertThat( "Expected a small file to be parsed whole",
+                library.parallelParseCount(),
+                is( 0L ) );
+    }
+
+    @Test(expected = JimParserException.class)
+    public void parallelSyntaxErrorTest() throws JimParserException {
+        Jim library = new Jim();
+        library.parallelParsingThreshold( 1 );
+        try {
+            library.create().process( new RawFileData( "BrokenSyntaxLexer.java" ),
+                    stream( "BrokenSyntaxLexer.java" ) );
+            fail( "Expected JimParserException to be thrown" );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class BrokenSyntaxLexer" );
+        }
+    }
+
+    private void compareAll( Jim expectedLibrary, Jim foundLibrary ) {
+        NameExtractor expectedExtractor = expectedLibrary.create();
+        NameExtractor foundExtractor = foundLibrary.create();
+
+        for ( String fileName : TEST_FILES ) {
+            FileData expected = process( expectedExtractor, fileName );
+            FileData found = process( foundExtractor, fileName );
+            assertThat(
+                    String.format( "Names differ for %s", fileName ),
+                    found.names(),
+                    is( expected.names() ) );
+            assertThat(
+                    String.format( "Entity trees differ for %s", fileName ),
+                    tree( found.rawData().topLevelEntities() ),
+                    is( tree( expected.rawData().topLevelEntities() ) ) );
+            assertThat(
+                    String.format( "Package name differs for %s", fileName ),
+                    found.packageName(),
+                    is( expected.packageName() ) );
+        }
+    }
+
+    // the species and name of each entity, with its children indented 
+    // beneath it
+    private static String tree( List<ProgramEntity> entities ) {
+        StringBuilder text = new StringBuilder();
+        appendTree( text, entities, "" );
+        return text.toString();
+    }
+
+    private static void appendTree( 
+            StringBuilder text, 
+            List<ProgramEntity> entities, 
+            String indent ) {
+        for ( ProgramEntity entity : entities ) {
+            text.append( indent )
+                    .append( entity.species() )
+                    .append( ' ' )
+                    .append( entity.identifierName() )
+                    .append( '\n' );
+            appendTree( text, entity.children(), indent + "  " );
+        }
+    }
+
+    private FileData process( NameExtractor n, String fileName ) {
+        try {
+            return n.process( new RawFileData( fileName ), stream( fileName ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + fileName );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown for " + fileName );
+        }
+        return null;
+    }
+
+    private static InputStream stream( String fileName ) {
+        return fileName.equals( WARM_UP_SAMPLE ) 
+                ? Jim.class.getResourceAsStream( fileName )
+                : JimCoreParallelParsingTest.class.getResourceAsStream(
+                        JAVA_TEST_FILE_FOLDER + fileName );
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests the time limit on parsing a file.
+ *
+ */
+public class JimCoreParseTimeoutTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final String TEST_FILE = "MemberDivisionTest.java";
+
+    @Test
+    public void timeoutTest() {
+        Jim library = new Jim();
+        library.parseTimeout( 1, TimeUnit.NANOSECONDS );
+        expectTimeout( library );
+    }
+
+    @Test
+    public void streamingTimeoutTest() {
+        Jim library = new Jim( ParserBackend.FAST );
+        library.streaming( true );
+        library.parsingStrategy( ParsingStrategy.TWO_STAGE );
+        library.parseTimeout( 1, TimeUnit.NANOSECONDS );
+        expectTimeout( library );
+    }
+
+    @Test
+    public void parallelTimeoutTest() {
+        Jim library = new Jim();
+        library.parallelParsingThreshold( 1 );
+        library.extractionMode( ExtractionMode.DECLARATIONS );
+        library.parseTimeout( 1, TimeUnit.NANOSECONDS );
+        expectTimeout( library );
+    }
+
+    @Test
+    public void withinTimeoutTest() {
+        Jim library = new Jim();
+        library.parseTimeout( 1, TimeUnit.MINUTES );
+        try {
+            FileData expected = process( new Jim() );
+            FileData found = process( library );
+            assertThat( "Names differ within the timeout",
+                    found.names(),
+                    is( expected.names() ) );
+            assertThat( "Expected no timeouts",
+                    library.parseTimeoutCount(),
+                    is( 0L ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + TEST_FILE );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeTimeoutTest() {
+        new Jim().parseTimeout( -1, TimeUnit.SECONDS );
+    }
+
+    private void expectTimeout( Jim library ) {
+        try {
+            process( library );
+            fail( "Expected JimParseTimeoutException to be thrown" );
+        }
+        catch ( JimParseTimeoutException e ) {
+            assertThat( "Expected the partial data for the file",
+                    e.partialData().fileName(),
+                    is( TEST_FILE ) );
+            assertThat( "Expected the timeout to be counted",
+                    library.parseTimeoutCount(),
+                    is( 1L ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + TEST_FILE );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    private FileData process( Jim library ) 
+            throws IOException, JimParserException {
+        return library.create().process( new RawFileData( TEST_FILE ),
+                JimCoreParseTimeoutTest.class.getResourceAsStream(
+                        JAVA_TEST_FILE_FOLDER + TEST_FILE ) );
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Checks that the FAST parser backend recovers the same names, nested in
+ * the same entities, as the JLS backend from each of the test files.
+ *
+ */
+public class JimCoreParserBackendTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final String WARM_UP_FILE = "warmup/WarmUpSample.java";
+
+    // the test files that do not parse, by design
+    private static final List<String> BROKEN_FILES = 
+            Arrays.asList( "BrokenSyntaxLexer.java" );
+
+    @Test
+    public void fastMatchesJlsTest() {
+        compareAll( new Jim(), new Jim( ParserBackend.FAST ) );
+    }
+
+    @Test
+    public void fastStreamingMatchesJlsTest() {
+        Jim fastLibrary = new Jim( ParserBackend.FAST );
+        fastLibrary.streaming( true );
+        compareAll( new Jim(), fastLibrary );
+    }
+
+    @Test
+    public void fastDeclarationsMatchJlsTest() {
+        Jim library = new Jim();
+        library.extractionMode( ExtractionMode.DECLARATIONS );
+        Jim fastLibrary = new Jim( ParserBackend.FAST );
+        fastLibrary.extractionMode( ExtractionMode.DECLARATIONS );
+        fastLibrary.parsingStrategy( ParsingStrategy.TWO_STAGE );
+        compareAll( library, fastLibrary );
+    }
+
+    @Test
+    public void fastWarmUpSampleTest() {
+        try {
+            FileData expected = process( new Jim(), WARM_UP_FILE,
+                    Jim.class.getResourceAsStream( WARM_UP_FILE ) );
+            FileData found = process( new Jim( ParserBackend.FAST ), WARM_UP_FILE,
+                    Jim.class.getResourceAsStream( WARM_UP_FILE ) );
+            assertThat( "Names differ for the warm up sample",
+                    found.names(),
+                    is( expected.names() ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access the warm up sample" );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown for the warm up sample" );
+        }
+    }
+
+    @Test(expected = JimParserException.class)
+    public void fastSyntaxErrorTest() throws JimParserException {
+        try {
+            process( new Jim( ParserBackend.FAST ), "BrokenSyntaxLexer.java",
+                    JimCoreParserBackendTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + "BrokenSyntaxLexer.java" ) );
+            fail( "Expected JimParserException to be thrown" );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class BrokenSyntaxLexer" );
+        }
+    }
+
+    private void compareAll( Jim expectedLibrary, Jim foundLibrary ) {
+        List<String> testFiles = testFiles();
+        assertThat( "Expected to find the test files",
+                testFiles,
+                not( empty() ) );
+        for ( String fileName : testFiles ) {
+            try {
+                FileData expected = process( expectedLibrary, fileName,
+                        JimCoreParserBackendTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) );
+                FileData found = process( foundLibrary, fileName,
+                        JimCoreParserBackendTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) );
+                assertThat(
+                        String.format( "Names differ for %s", fileName ),
+                        found.names(),
+                        is( expected.names() ) );
+                assertThat(
+                        String.format( "Entity trees differ for %s", fileName ),
+                        tree( found.rawData().topLevelEntities() ),
+                        is( tree( expected.rawData().topLevelEntities() ) ) );
+                assertThat(
+                        String.format( "Package name differs for %s", fileName ),
+                        found.packageName(),
+                        is( expected.packageName() ) );
+            }
+            catch ( IOException e ) {
+                fail( "unable to access test class " + fileName );
+            }
+            catch ( JimParserException e ) {
+                fail( "Parser exception thrown for " + fileName );
+            }
+        }
+    }
+
+    // every parseable file in the test file folder, so that files added 
+    // later are compared too
+    private static List<String> testFiles() {
+        try ( Stream<Path> files = Files.list( Paths.get( 
+                JimCoreParserBackendTest.class.getResource( 
+                        JAVA_TEST_FILE_FOLDER ).toURI() ) ) ) {
+            return files.map( file -> file.getFileName().toString() )
+                    .filter( name -> name.endsWith( ".java" ) )
+                    .filter( name -> ! BROKEN_FILES.contains( name ) )
+                    .sorted()
+                    .collect( Collectors.toList() );
+        }
+        catch ( IOException | URISyntaxException e ) {
+            fail( "unable to list the test files" );
+        }
+        return null;
+    }
+
+    // the species and name of each entity, with its children indented 
+    // beneath it
+    private static String tree( List<ProgramEntity> entities ) {
+        StringBuilder text = new StringBuilder();
+        appendTree( text, entities, "" );
+        return text.toString();
+    }
+
+    private static void appendTree( 
+            StringBuilder text, 
+            List<ProgramEntity> entities, 
+            String indent ) {
+        for ( ProgramEntity entity : entities ) {
+            text.append( indent )
+                    .append( entity.species() )
+                    .append( ' ' )
+                    .append( entity.identifierName() )
+                    .append( '\n' );
+            appendTree( text, entity.children(), indent + "  " );
+        }
+    }
+
+    private FileData process( Jim library, String fileName, InputStream is )
+            throws IOException, JimParserException {
+        return library.create().process( new RawFileData( fileName ), is );
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.util.List;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Checks that the two stage SLL/LL parsing strategy recovers the same names,
+ * nested in the same entities, as the default LL strategy, and that SLL 
+ * suffices for valid files.
+ *
+ */
+public class JimCoreParsingStrategyTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+
+    private static final String[] TEST_FILES = {
+        "SimpleTestEmptyClass.java",
+        "SimpleConstructorAndMethodTest.java",
+        "LambdaPlain.java",
+        "EnumerationTest.java",
+        "InterfaceTest.java",
+        "LocalVariableTest.java",
+        "NestedClassTest.java",
+        "TryCatchTest.java",
+        "MoreThanOneTopLevelClass.java",
+        "AntlrIssue1097.java",
+        "EinfacherLeereKlasseTest.java"
+    };
+
+    @Test
+    public void twoStageMatchesLlTest() {
+        compare( new Jim(), twoStage( ParserBackend.JLS ) );
+    }
+
+    @Test
+    public void fastTwoStageMatchesLlTest() {
+        compare( new Jim( ParserBackend.FAST ), twoStage( ParserBackend.FAST ) );
+    }
+
+    @Test
+    public void fastNoLlFallbackTest() {
+        Jim library = twoStage( ParserBackend.FAST );
+        compare( new Jim( ParserBackend.FAST ), library );
+        assertThat( "Expected SLL to parse every valid file",
+                library.llFallbackCount(),
+                is( 0L ) );
+    }
+
+    @Test
+    public void jlsNoLlFallbackTest() {
+        // SLL cannot parse the JLS grammar, so files are parsed with LL alone
+        Jim library = twoStage( ParserBackend.JLS );
+        compare( new Jim(), library );
+        assertThat( "Expected the JLS grammar to be parsed with LL only",
+                library.llFallbackCount(),
+                is( 0L ) );
+    }
+
+    private static Jim twoStage( ParserBackend parserBackend ) {
+        Jim library = new Jim( parserBackend );
+        library.parsingStrategy( ParsingStrategy.TWO_STAGE );
+        return library;
+    }
+
+    private void compare( Jim llLibrary, Jim twoStageLibrary ) {
+        NameExtractor ll = llLibrary.create();
+        NameExtractor twoStage = twoStageLibrary.create();
+
+        for ( String fileName : TEST_FILES ) {
+            try {
+                FileData expected = ll.process( new RawFileData( fileName ),
+                        JimCoreParsingStrategyTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) );
+                FileData found = twoStage.process( new RawFileData( fileName ),
+                        JimCoreParsingStrategyTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) );
+                assertThat(
+                        String.format( "Names differ for %s", fileName ),
+                        found.names(),
+                        is( expected.names() ) );
+                assertThat(
+                        String.format( "Entity trees differ for %s", fileName ),
+                        tree( found.rawData().topLevelEntities() ),
+                        is( tree( expected.rawData().topLevelEntities() ) ) );
+                assertThat(
+                        String.format( "Package name differs for %s", fileName ),
+                        found.packageName(),
+                        is( expected.packageName() ) );
+            }
+            catch ( IOException e ) {
+                fail( "unable to access test class " + fileName );
+            }
+            catch ( JimParserException e ) {
+                fail( "Parser exception thrown for " + fileName );
+            }
+        }
+    }
+
+    @Test(expected = JimParserException.class)
+    public void twoStageSyntaxErrorTest() throws JimParserException {
+        Jim library = twoStage( ParserBackend.FAST );
+        NameExtractor n = library.create();
+
+        try {
+            n.process( new RawFileData( "BrokenSyntaxLexer.java" ),
+                    JimCoreParsingStrategyTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + "BrokenSyntaxLexer.java" ) );
+            fail( "Expected JimParserException to be thrown" );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class BrokenSyntaxLexer" );
+        }
+        finally {
+            // the failure is only reported once LL has also failed
+            assertThat( "Expected the file to be re-parsed with LL",
+                    library.llFallbackCount(),
+                    is( 1L ) );
+        }
+    }
+
+    // the species and name of each entity, with its children indented 
+    // beneath it
+    private static String tree( List<ProgramEntity> entities ) {
+        StringBuilder text = new StringBuilder();
+        appendTree( text, entities, "" );
+        return text.toString();
+    }
+
+    private static void appendTree( 
+            StringBuilder text, 
+            List<ProgramEntity> entities, 
+            String indent ) {
+        for ( ProgramEntity entity : entities ) {
+            text.append( indent )
+                    .append( entity.species() )
+                    .append( ' ' )
+                    .append( entity.identifierName() )
+                    .append( '\n' );
+            appendTree( text, entity.children(), indent + "  " );
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that processing a file by its path, which reads the file into a 
+ * buffer reused for each file, recovers the same names as processing a 
+ * stream.
+ *
+ */
+public class JimCorePathInputTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final int PADDING = 80 * 1024;  // grows the read buffer
+
+    private static final String[] TEST_FILES = {
+        "SimpleConstructorAndMethodTest.java",
+        "LambdaPlain.java",
+        "EnumerationTest.java",
+        "NestedClassTest.java",
+        "DeclarationSkimTest.java",
+        "UmlautBezeichnerTest.java"
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void pathMatchesStreamTest() {
+        for ( String fileName : TEST_FILES ) {
+            compare( fileName, bytes( fileName ) );
+        }
+    }
+
+    @Test
+    public void largeFileTest() {
+        for ( String fileName : TEST_FILES ) {
+            compare( fileName, pad( bytes( fileName ) ) );
+        }
+    }
+
+    @Test
+    public void reusedBufferTest() {
+        // a small file read after a large one must not see the rest of it
+        NameExtractor n = new Jim().create();
+        try {
+            FileData large = n.process( write( "EnumerationTest.java", 
+                    pad( bytes( "EnumerationTest.java" ) ) ) );
+            FileData small = n.process( write( "LambdaPlain.java", 
+                    bytes( "LambdaPlain.java" ) ) );
+            FileData expected = new Jim().create().process( 
+                    new RawFileData( "LambdaPlain.java" ),
+                    new ByteArrayInputStream( bytes( "LambdaPlain.java" ) ) );
+            assertThat( "Expected names from the large file",
+                    large.names(),
+                    not( empty() ) );
+            assertThat( "Names differ for the file read second",
+                    small.names(),
+                    is( expected.names() ) );
+            Files.delete( this.folder.getRoot().toPath().resolve( "LambdaPlain.java" ) );
+        }
+        catch ( IOException e ) {
+            fail( "IOException thrown" );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    @Test
+    public void resultCacheTest() {
+        Jim library = new Jim();
+        try {
+            library.resultCache( this.folder.newFolder( "cache" ).toPath() );
+            Path file = write( "LambdaPlain.java", bytes( "LambdaPlain.java" ) );
+            FileData first = library.create().process( file );
+            FileData second = library.create().process( file );
+            assertThat( "Expected the second file to be cached",
+                    library.resultCacheHitCount(),
+                    is( 1L ) );
+            assertThat( "Names differ for the cached file",
+                    second.names(),
+                    is( first.names() ) );
+        }
+        catch ( IOException e ) {
+            fail( "IOException thrown" );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void missingFileTest() throws IOException, JimParserException {
+        new Jim().create().process( 
+                this.folder.getRoot().toPath().resolve( "Missing.java" ) );
+    }
+
+    @Test
+    public void isAsciiTest() {
+        byte[] bytes = "public class Ascii { int i; }".getBytes( StandardCharsets.UTF_8 );
+        assertThat( "Expected ASCII",
+                AsciiCharStream.isAscii( ByteBuffer.wrap( bytes ) ),
+                is( true ) );
+        for ( int i = 0; i < bytes.length; i++ ) {
+            byte[] copy = bytes.clone();
+            copy[i] = (byte) 0xc3;
+            assertThat( "Expected a non-ASCII byte at " + i,
+                    AsciiCharStream.isAscii( ByteBuffer.wrap( copy ) ),
+                    is( false ) );
+        }
+        assertThat( "Expected an empty buffer to be ASCII",
+                AsciiCharStream.isAscii( ByteBuffer.allocate( 0 ) ),
+                is( true ) );
+    }
+
+    private void compare( String fileName, byte[] source ) {
+        NameExtractor n = new Jim().create();
+        try {
+            FileData expected = n.process( new RawFileData( fileName ),
+                    new ByteArrayInputStream( source ) );
+            FileData found = n.process( write( fileName, source ) );
+            assertThat(
+                    String.format( "Names differ for %s", fileName ),
+                    found.names(),
+                    is( expected.names() ) );
+            assertThat(
+                    String.format( "Package name differs for %s", fileName ),
+                    found.packageName(),
+                    is( expected.packageName() ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + fileName );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown for " + fileName );
+        }
+    }
+
+    private Path write( String fileName, byte[] source ) throws IOException {
+        Path file = this.folder.getRoot().toPath().resolve( fileName );
+        Files.write( file, source );
+        return file;
+    }
+
+    // appends a comment larger than the initial read buffer
+    private static byte[] pad( byte[] source ) {
+        StringBuilder padding = new StringBuilder( "\n/*" );
+        while ( padding.length() < PADDING ) {
+            padding.append( " padding" );
+        }
+        padding.append( " */\n" );
+        byte[] comment = padding.toString().getBytes( StandardCharsets.UTF_8 );
+        byte[] padded = new byte[ source.length + comment.length ];
+        System.arraycopy( source, 0, padded, 0, source.length );
+        System.arraycopy( comment, 0, padded, source.length, comment.length );
+        return padded;
+    }
+
+    private static byte[] bytes( String fileName ) {
+        try ( InputStream is = JimCorePathInputTest.class.getResourceAsStream(
+                JAVA_TEST_FILE_FOLDER + fileName ) ) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[ 8192 ];
+            int count;
+            while ( ( count = is.read( buffer ) ) != -1 ) {
+                bytes.write( buffer, 0, count );
+            }
+            return bytes.toByteArray();
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + fileName );
+            return null;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests processing a directory tree of Java files in parallel.
+ *
+ */
+public class JimCoreProcessAllTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+
+    private static final String[] TEST_FILES = {
+        "SimpleTestEmptyClass.java",
+        "SimpleConstructorAndMethodTest.java",
+        "LambdaPlain.java",
+        "EnumerationTest.java",
+        "InterfaceTest.java",
+        "LocalVariableTest.java",
+        "NestedClassTest.java",
+        "TryCatchTest.java"
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+
+    @Before
+    public void setUp() throws IOException {
+        this.root = this.folder.getRoot().toPath();
+        Path nested = Files.createDirectories( this.root.resolve( "a/b" ) );
+        for ( int i = 0; i < TEST_FILES.length; i++ ) {
+            copy( TEST_FILES[i], i % 2 == 0 ? this.root : nested );
+        }
+        copy( "BrokenSyntaxLexer.java", nested );
+        Files.write( this.root.resolve( "README.txt" ), "not java".getBytes() );
+    }
+
+    @Test
+    public void processAllTest() {
+        Jim library = new Jim();
+        Map<String, FileData> found = new ConcurrentHashMap<>();
+        ProcessingOptions options = new ProcessingOptions();
+        options.parallelism( 4 );
+
+        try {
+            ProcessingResult result = library.processAll( this.root, options,
+                    d -> found.put( d.fileName(), d ) );
+            assertThat( "Unexpected number of files found",
+                    result.filesFound(),
+                    is( TEST_FILES.length + 1 ) );
+            assertThat( "Unexpected number of files processed",
+                    result.filesProcessed(),
+                    is( TEST_FILES.length ) );
+            assertThat( "Expected the broken file to be recorded",
+                    result.parserFailures().keySet(),
+                    contains( this.root.resolve( "a/b/BrokenSyntaxLexer.java" ) ) );
+            assertThat( "Expected no read failures",
+                    result.ioFailures().isEmpty(),
+                    is( true ) );
+            assertThat( "Unexpected files passed to the consumer",
+                    found.keySet(),
+                    containsInAnyOrder( TEST_FILES ) );
+            assertThat( "Failed to recover the names of SimpleTestEmptyClass",
+                    found.get( "SimpleTestEmptyClass.java" ).names(),
+                    contains( "SimpleTestEmptyClass" ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to walk the test directory" );
+        }
+    }
+
+    @Test
+    public void processAllMatchesProcessTest() {
+        Jim library = new Jim();
+        Map<String, FileData> found = new ConcurrentHashMap<>();
+
+        try {
+            library.processAll( this.root, d -> found.put( d.fileName(), d ) );
+            NameExtractor n = library.create();
+            for ( String fileName : TEST_FILES ) {
+                FileData expected = n.process( new RawFileData( fileName ),
+                        JimCoreProcessAllTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) );
+                assertThat(
+                        String.format( "Names differ for %s", fileName ),
+                        found.get( fileName ).names(),
+                        is( expected.names() ) );
+            }
+        }
+        catch ( IOException e ) {
+            fail( "unable to walk the test directory" );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    private void copy( String fileName, Path directory ) throws IOException {
+        try ( InputStream is = JimCoreProcessAllTest.class.getResourceAsStream(
+                JAVA_TEST_FILE_FOLDER + fileName ) ) {
+            Files.copy( is, directory.resolve( fileName ) );
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the on-disk cache of results.
+ *
+ */
+public class JimCoreResultCacheTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void cachedResultTest() throws IOException {
+        Jim library = new Jim();
+        library.resultCache( this.folder.getRoot().toPath() );
+        NameExtractor n = library.create();
+
+        FileData parsed = process( n, "NestedClassTest.java" );
+        FileData cached = process( n, "NestedClassTest.java" );
+        assertThat( "Expected the first file to miss",
+                library.resultCacheMissCount(),
+                is( 1L ) );
+        assertThat( "Expected the second file to hit",
+                library.resultCacheHitCount(),
+                is( 1L ) );
+        assertThat( "Names differ",
+                cached.names(),
+                is( parsed.names() ) );
+        assertThat( "Tokens differ",
+                cached.tokens(),
+                is( parsed.tokens() ) );
+        assertThat( "Package name differs",
+                cached.packageName(),
+                is( parsed.packageName() ) );
+        assertThat( "Tokenised names differ",
+                cached.tokenisedNames().size(),
+                is( parsed.tokenisedNames().size() ) );
+        assertThat( "File name differs",
+                cached.fileName(),
+                is( parsed.fileName() ) );
+    }
+
+    @Test
+    public void settingsChangeKeyTest() throws IOException {
+        Jim library = new Jim();
+        library.resultCache( this.folder.getRoot().toPath() );
+        process( library.create(), "NestedClassTest.java" );
+
+        library.extractionMode( ExtractionMode.DECLARATIONS );
+        process( library.create(), "NestedClassTest.java" );
+        assertThat( "Expected a different extraction mode to miss",
+                library.resultCacheHitCount(),
+                is( 0L ) );
+    }
+
+    @Test
+    public void evictionTest() throws IOException {
+        Jim library = new Jim();
+        library.resultCache( this.folder.getRoot().toPath() );
+        NameExtractor n = library.create();
+        process( n, "NestedClassTest.java" );
+        process( n, "LambdaPlain.java" );
+        assertThat( "Expected two cached results",
+                entries(),
+                is( 2L ) );
+
+        library.resultCacheMaximumSize( 1 );
+        library.evictResultCache();
+        assertThat( "Expected the cache to be emptied",
+                entries(),
+                is( 0L ) );
+
+        library.resultCacheMaximumSize( 0 );
+        process( n, "LambdaPlain.java" );
+        library.resultCacheMaximumAge( 1, TimeUnit.MILLISECONDS );
+        try {
+            Thread.sleep( 10 );
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+        library.evictResultCache();
+        assertThat( "Expected the old result to be evicted",
+                entries(),
+                is( 0L ) );
+    }
+
+    private long entries() throws IOException {
+        try ( Stream<Path> paths = Files.walk( this.folder.getRoot().toPath() ) ) {
+            return paths.filter( Files::isRegularFile ).count();
+        }
+    }
+
+    private FileData process( NameExtractor n, String fileName ) {
+        try {
+            return n.process( new RawFileData( fileName ),
+                    JimCoreTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + fileName ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + fileName );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+        return null;
+    }
+}
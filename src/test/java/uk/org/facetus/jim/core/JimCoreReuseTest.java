@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Checks that a {@code NameExtractor}, which reuses its lexer, parser and 
+ * visitor for each file, recovers the same names as a new extractor, 
+ * including after a file that fails to parse.
+ *
+ */
+public class JimCoreReuseTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final String BROKEN_FILE = "BrokenSyntaxLexer.java";
+
+    private static final String[] TEST_FILES = {
+        "SimpleConstructorAndMethodTest.java",
+        "LambdaPlain.java",
+        "EnumerationTest.java",
+        "InterfaceTest.java",
+        "NestedClassTest.java",
+        "TryCatchTest.java",
+        "MoreThanOneTopLevelClass.java",
+        "DeclarationSkimTest.java"
+    };
+
+    @Test
+    public void reuseTest() {
+        compare( new Jim() );
+    }
+
+    @Test
+    public void reuseStreamingTwoStageTest() {
+        Jim library = new Jim( ParserBackend.FAST );
+        library.streaming( true );
+        library.parsingStrategy( ParsingStrategy.TWO_STAGE );
+        compare( library );
+    }
+
+    @Test
+    public void reuseFastBackendTest() {
+        compare( new Jim( ParserBackend.FAST ) );
+    }
+
+    @Test
+    public void reuseFastBackendStreamingTest() {
+        Jim library = new Jim( ParserBackend.FAST );
+        library.streaming( true );
+        compare( library );
+    }
+
+    // each file is processed by the reused extractor after a broken file
+    private void compare( Jim library ) {
+        NameExtractor reused = library.create();
+        for ( String fileName : TEST_FILES ) {
+            try {
+                reused.process( new RawFileData( BROKEN_FILE ),
+                        JimCoreReuseTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + BROKEN_FILE ) );
+                fail( "Expected JimParserException to be thrown" );
+            }
+            catch ( IOException e ) {
+                fail( "unable to access test class " + BROKEN_FILE );
+            }
+            catch ( JimParserException e ) {
+                // expected
+            }
+
+            try {
+                FileData expected = library.create().process(
+                        new RawFileData( fileName ),
+                        JimCoreReuseTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) );
+                FileData found = reused.process(
+                        new RawFileData( fileName ),
+                        JimCoreReuseTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) );
+                assertThat(
+                        String.format( "Names differ for %s", fileName ),
+                        found.names(),
+                        is( expected.names() ) );
+                assertThat(
+                        String.format( "Package name differs for %s", fileName ),
+                        found.packageName(),
+                        is( expected.packageName() ) );
+            }
+            catch ( IOException e ) {
+                fail( "unable to access test class " + fileName );
+            }
+            catch ( JimParserException e ) {
+                fail( "Parser exception thrown for " + fileName );
+            }
+        }
+    }
+}
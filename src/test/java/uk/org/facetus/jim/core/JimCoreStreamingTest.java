@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Checks that extracting names without a parse tree recovers the same
+ * names as visiting the parse tree.
+ *
+ */
+public class JimCoreStreamingTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+
+    private static final String[] TEST_FILES = {
+        "SimpleTestEmptyClass.java",
+        "SimpleConstructorAndMethodTest.java",
+        "LambdaPlain.java",
+        "EnumerationTest.java",
+        "InterfaceTest.java",
+        "LocalVariableTest.java",
+        "NestedClassTest.java",
+        "TryCatchTest.java",
+        "MoreThanOneTopLevelClass.java",
+        "AntlrIssue1097.java",
+        "EinfacherLeereKlasseTest.java",
+        "DeclarationSkimTest.java"
+    };
+
+    @Test
+    public void streamingMatchesVisitorTest() {
+        Jim streamingLibrary = new Jim();
+        streamingLibrary.streaming( true );
+        compareAll( new Jim(), streamingLibrary );
+    }
+
+    @Test
+    public void streamingTwoStageDeclarationsTest() {
+        Jim library = new Jim( ParserBackend.FAST );
+        library.parsingStrategy( ParsingStrategy.TWO_STAGE );
+        library.extractionMode( ExtractionMode.DECLARATIONS );
+        Jim streamingLibrary = new Jim( ParserBackend.FAST );
+        streamingLibrary.parsingStrategy( ParsingStrategy.TWO_STAGE );
+        streamingLibrary.extractionMode( ExtractionMode.DECLARATIONS );
+        streamingLibrary.streaming( true );
+        compareAll( library, streamingLibrary );
+    }
+
+    @Test(expected = JimParserException.class)
+    public void streamingSyntaxErrorTest() throws JimParserException {
+        Jim library = new Jim();
+        library.streaming( true );
+        NameExtractor n = library.create();
+
+        try {
+            n.process( new RawFileData( "BrokenSyntaxLexer.java" ),
+                    JimCoreStreamingTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + "BrokenSyntaxLexer.java" ) );
+            fail( "Expected JimParserException to be thrown" );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class BrokenSyntaxLexer" );
+        }
+    }
+
+    private void compareAll( Jim expectedLibrary, Jim foundLibrary ) {
+        NameExtractor expectedExtractor = expectedLibrary.create();
+        NameExtractor foundExtractor = foundLibrary.create();
+
+        for ( String fileName : TEST_FILES ) {
+            try {
+                FileData expected = expectedExtractor.process(
+                        new RawFileData( fileName ),
+                        JimCoreStreamingTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) );
+                FileData found = foundExtractor.process(
+                        new RawFileData( fileName ),
+                        JimCoreStreamingTest.class.getResourceAsStream(
+                                JAVA_TEST_FILE_FOLDER + fileName ) );
+                assertThat(
+                        String.format( "Names differ for %s", fileName ),
+                        found.names(),
+                        is( expected.names() ) );
+                assertThat(
+                        String.format( "Package name differs for %s", fileName ),
+                        found.packageName(),
+                        is( expected.packageName() ) );
+            }
+            catch ( IOException e ) {
+                fail( "unable to access test class " + fileName );
+            }
+            catch ( JimParserException e ) {
+                fail( "Parser exception thrown for " + fileName );
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests the cache of name tokenisations shared by the 
+ * {@code NameExtractor} instances of a {@code Jim}.
+ *
+ */
+public class JimCoreTokenisationCacheTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final String TEST_FILE = "DeclarationSkimTest.java";
+
+    @Test
+    public void hitsAndMissesTest() {
+        Jim library = new Jim();
+
+        FileData first = process( library );
+        int names = first.names().size();
+        int distinctNames = new HashSet<>( first.names() ).size();
+        assertThat( "Expected a miss for each distinct name",
+                library.tokenisationCacheMissCount(),
+                is( (long) distinctNames ) );
+        assertThat( "Expected a hit for each repeated name",
+                library.tokenisationCacheHitCount(),
+                is( (long) ( names - distinctNames ) ) );
+        assertThat( "Expected each distinct name to be cached",
+                library.tokenisationCacheSize(),
+                is( (long) distinctNames ) );
+
+        // a second extractor shares the cache
+        process( library );
+        assertThat( "Expected no further misses",
+                library.tokenisationCacheMissCount(),
+                is( (long) distinctNames ) );
+        assertThat( "Expected a hit for every name",
+                library.tokenisationCacheHitCount(),
+                is( (long) ( 2 * names - distinctNames ) ) );
+    }
+
+    @Test
+    public void cachedTokensMatchTest() {
+        Jim library = new Jim();
+        Jim uncachedLibrary = new Jim();
+        uncachedLibrary.tokenisationCacheMaximumSize( 0 );
+
+        process( library );
+        FileData cached = process( library );
+        FileData uncached = process( uncachedLibrary );
+        assertThat( "Expected the same tokens with and without the cache",
+                cached.tokens(),
+                is( uncached.tokens() ) );
+        assertThat( "Expected nothing to be cached",
+                uncachedLibrary.tokenisationCacheSize(),
+                is( 0L ) );
+        assertThat( "Expected no hits without the cache",
+                uncachedLibrary.tokenisationCacheHitCount(),
+                is( 0L ) );
+    }
+
+    @Test
+    public void lazyTokenisationTest() {
+        Jim library = new Jim();
+
+        try {
+            FileData d = library.create().process( new RawFileData( TEST_FILE ),
+                    JimCoreTokenisationCacheTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + TEST_FILE ) );
+            assertThat( "Expected names without tokenisation",
+                    d.names(),
+                    not( empty() ) );
+            assertThat( "Expected no names to be tokenised",
+                    library.tokenisationCacheMissCount(),
+                    is( 0L ) );
+
+            assertThat( "Expected the tokenisation to be kept",
+                    d.tokenisedNames(),
+                    sameInstance( d.tokenisedNames() ) );
+            assertThat( "Expected each distinct name to be tokenised once",
+                    library.tokenisationCacheMissCount(),
+                    is( (long) new HashSet<>( d.names() ).size() ) );
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + TEST_FILE );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+    }
+
+    @Test
+    public void maximumSizeTest() {
+        TokenisationCache cache = new TokenisationCache( 1000 );
+        for ( int i = 0; i < 4000; i++ ) {
+            cache.put( TokenisationStrategy.FULL, "name" + i, 
+                    Collections.emptyList() );
+        }
+        // the maximum is divided over the segments, so may be exceeded 
+        // by rounding
+        assertThat( "Expected the cache to be filled by one strategy",
+                cache.size(),
+                greaterThanOrEqualTo( 1000L ) );
+        assertThat( "Expected the cache to be bounded",
+                cache.size(),
+                lessThanOrEqualTo( 1016L ) );
+    }
+
+    @Test
+    public void leastRecentlyUsedTest() {
+        TokenisationCache cache = new TokenisationCache( 100 );
+        cache.put( TokenisationStrategy.FULL, "kept", Collections.emptyList() );
+        for ( int i = 0; i < 4000; i++ ) {
+            cache.put( TokenisationStrategy.FULL, "name" + i, 
+                    Collections.emptyList() );
+            cache.get( TokenisationStrategy.FULL, "kept" );
+        }
+        assertThat( "Expected a recently used name to be kept",
+                cache.get( TokenisationStrategy.FULL, "kept" ),
+                notNullValue() );
+        assertThat( "Expected the least recently used name to be evicted",
+                cache.get( TokenisationStrategy.FULL, "name0" ),
+                nullValue() );
+        assertThat( "Expected names to be cached for each strategy",
+                cache.get( TokenisationStrategy.ADAPTIVE, "kept" ),
+                nullValue() );
+    }
+
+    @Test
+    public void clearTest() {
+        Jim library = new Jim();
+
+        process( library );
+        library.clearTokenisationCache();
+        assertThat( "Expected the cache to be empty",
+                library.tokenisationCacheSize(),
+                is( 0L ) );
+    }
+
+    private FileData process( Jim library ) {
+        try {
+            FileData d = library.create().process( new RawFileData( TEST_FILE ),
+                    JimCoreTokenisationCacheTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + TEST_FILE ) );
+            d.tokens();  // names are tokenised on first use
+            return d;
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + TEST_FILE );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+        return null;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.ac.open.crc.intt.DictionaryConfiguration;
+
+/**
+ * Tests writing the tokenisation cache to a snapshot and creating a
+ * {@code Jim} from the snapshot.
+ *
+ */
+public class JimCoreTokenisationSnapshotTest {
+    private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
+    private static final String TEST_FILE = "UmlautBezeichnerTest.java";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void snapshotTest() throws IOException {
+        Jim library = new Jim();
+        FileData expected = process( library );
+        Path snapshot = folder.getRoot().toPath().resolve( "names.jimt" );
+        library.writeTokenisationSnapshot( snapshot );
+
+        Jim snapshotLibrary = new Jim( snapshot );
+        assertThat( "Expected the snapshot to fill the cache",
+                snapshotLibrary.tokenisationCacheSize(),
+                is( library.tokenisationCacheSize() ) );
+
+        FileData found = process( snapshotLibrary );
+        assertThat( "Expected the same tokens from the snapshot",
+                found.tokens(),
+                is( expected.tokens() ) );
+        assertThat( "Expected every name to be found in the snapshot",
+                snapshotLibrary.tokenisationCacheMissCount(),
+                is( 0L ) );
+        assertThat( "Expected the word lists not to be needed",
+                snapshotLibrary.tokeniserCount(),
+                is( 0 ) );
+    }
+
+    @Test(expected = IOException.class)
+    public void otherWordListsTest() throws IOException {
+        Jim library = new Jim();
+        process( library );
+        Path snapshot = folder.getRoot().toPath().resolve( "names.jimt" );
+        library.writeTokenisationSnapshot( snapshot );
+
+        new Jim( DictionaryConfiguration.GERMAN, TokenisationStrategy.FULL, snapshot );
+    }
+
+    @Test(expected = IOException.class)
+    public void notASnapshotTest() throws IOException {
+        Path snapshot = folder.newFile( "names.jimt" ).toPath();
+        Files.write( snapshot, new byte[] { 1, 2, 3 } );
+
+        new Jim( snapshot );
+    }
+
+    private FileData process( Jim library ) {
+        try {
+            FileData d = library.create().process( new RawFileData( TEST_FILE ),
+                    JimCoreTokenisationSnapshotTest.class.getResourceAsStream(
+                            JAVA_TEST_FILE_FOLDER + TEST_FILE ) );
+            d.tokens();  // names are tokenised on first use
+            return d;
+        }
+        catch ( IOException e ) {
+            fail( "unable to access test class " + TEST_FILE );
+        }
+        catch ( JimParserException e ) {
+            fail( "Parser exception thrown" );
+        }
+        return null;
+    }
+}
@@ -31,11 +31,13 @@ public class JimCoreTokenisedNameTest {
     private static final String JAVA_TEST_FILE_FOLDER = "/testfiles/";
     private static Jim defaultLibrary;
     private static Jim simpleLibrary;
+    private static Jim noneLibrary;
     
     @BeforeClass
     public static void setUp() {
         defaultLibrary = new Jim();
         simpleLibrary = new Jim( TokenisationStrategy.SIMPLE );
+        noneLibrary = new Jim( TokenisationStrategy.NONE );
     }
     
     @Test
@@ -143,4 +145,74 @@ public class JimCoreTokenisedNameTest {
             fail( "Parser exception thrown" );
         }
      }
+    
+    @Test
+    public void basicNoneTest() {
+        NameExtractor n = noneLibrary.create();
+        try {
+            FileData d = n.process( 
+		    new RawFileData("LocalVariableTest.java"), 
+		    JimCoreTest.class.getResourceAsStream( 
+		    JAVA_TEST_FILE_FOLDER + "LocalVariableTest.java"));
+            
+            assertThat(
+                    String.format("Expected to find seven names. Found %s", 
+                            d.names().size()), 
+                    d.names().size(), 
+                    is(7));
+            assertThat("Expected no tokenised names", 
+		    d.tokenisedNames(), 
+		    empty());
+            assertThat("Expected no tokens", 
+		    d.tokens(), 
+		    empty());
+            assertThat("Expected nothing to be tokenised", 
+		    noneLibrary.tokenisationCacheMissCount(), 
+		    is(0L));
+        }
+	catch (IOException e) {
+	    System.err.println( "unable to access test class LocalVariableTest" );
+	}
+        catch ( JimParserException e) {
+            fail( "Parser exception thrown" );
+        }
+    }
+    
+    @Test
+    public void basicAdaptiveTest() {
+        Jim adaptiveLibrary = new Jim( TokenisationStrategy.ADAPTIVE );
+        NameExtractor n = adaptiveLibrary.create();
+        try {
+            FileData d = n.process( 
+		    new RawFileData("LocalVariableTest.java"), 
+		    JimCoreTest.class.getResourceAsStream( 
+		    JAVA_TEST_FILE_FOLDER + "LocalVariableTest.java"));
+            
+            List<TokenisedName> names = d.tokenisedNames();
+            assertThat(
+                    String.format("Expected to find seven names. Found %s", 
+                            names.size()), 
+                    names.size(), 
+                    is(7));
+            for ( TokenisedName name : names ) {
+                assertThat(
+                        String.format("Empty token list found for adaptive tokenisation of %s", name.name()),
+                        name.tokens().size(), 
+                        not(0));
+            }
+            assertThat("Expected every name to take one path", 
+		    adaptiveLibrary.adaptiveSplitCount() 
+                            + adaptiveLibrary.adaptiveTokeniserCount(), 
+		    is(7L));
+            assertThat("Expected conventional names to be split without intt", 
+		    adaptiveLibrary.adaptiveSplitCount(), 
+		    greaterThan(0L));
+        }
+	catch (IOException e) {
+	    System.err.println( "unable to access test class LocalVariableTest" );
+	}
+        catch ( JimParserException e) {
+            fail( "Parser exception thrown" );
+        }
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2019 Simon Butler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.org.facetus.jim.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import org.junit.Test;
+
+/**
+ * Tests the splitting of unambiguous names for the adaptive tokenisation 
+ * strategy.
+ *
+ */
+public class NameSplitterTest {
+
+    @Test
+    public void unambiguousNamesTest() {
+        NameSplitter splitter = splitter( "get", "user", "name", "max", 
+                "size", "field", "url", "value" );
+        assertThat( split( splitter, "getUserName" ), 
+                contains( "get", "User", "Name" ) );
+        assertThat( split( splitter, "MAX_SIZE" ), 
+                contains( "MAX", "SIZE" ) );
+        assertThat( split( splitter, "_field" ), 
+                contains( "field" ) );
+        assertThat( split( splitter, "getURL" ), 
+                contains( "get", "URL" ) );
+        assertThat( split( splitter, "Value" ), 
+                contains( "Value" ) );
+        assertThat( split( splitter, "i" ), 
+                contains( "i" ) );
+        assertThat( "Expected every name to be split", 
+                splitter.splitCount(), 
+                is( 6L ) );
+    }
+
+    @Test
+    public void ambiguousNamesTest() {
+        NameSplitter splitter = splitter( "parse", "xml", "file", "max", 
+                "size", "val", "get", "id", "tmp", "dir", "user", "name" );
+        assertThat( splitter.split( "parseXMLfile" ), nullValue() );
+        assertThat( splitter.split( "XMLParser" ), nullValue() );
+        assertThat( splitter.split( "utf8" ), nullValue() );
+        assertThat( splitter.split( "größe" ), nullValue() );
+        assertThat( splitter.split( "__" ), nullValue() );
+        assertThat( splitter.split( "maxsize" ), nullValue() );
+        assertThat( splitter.split( "MAXSIZE" ), nullValue() );
+        assertThat( splitter.split( "getUsername" ), nullValue() );
+        assertThat( splitter.split( "maxval" ), nullValue() );
+        assertThat( splitter.split( "getid" ), nullValue() );
+        assertThat( splitter.split( "tmpdir" ), nullValue() );
+        assertThat( "Expected every name to be left to intt", 
+                splitter.deferredCount(), 
+                is( 11L ) );
+        assertThat( "Expected no name to be split", 
+                splitter.splitCount(), 
+                is( 0L ) );
+    }
+
+    @Test
+    public void unknownWordsTest() {
+        NameSplitter splitter = new NameSplitter();
+        assertThat( "Expected a name of unknown words to be left to intt", 
+                splitter.split( "getUserName" ), 
+                nullValue() );
+    }
+
+    @Test
+    public void agreesWithFullTokenisationTest() {
+        Jim library = new Jim();
+        NameSplitter splitter = new NameSplitter();
+        TokenisationCache uncached = new TokenisationCache( 0 );
+        String[] names = { "getUserName", "MAX_SIZE", "_field", "getURL", 
+            "Value", "count", "setValue", "toString", "HTML_TAG", "maxSize", 
+            "isEmpty", "index", "maxval", "getid", "tmpdir", "maxsize", 
+            "getusername", "tmpDir", "getId", "maxVal", "MAXVAL" };
+        // names are first left to intt, which teaches the splitter its words
+        for ( String name : names ) {
+            FileData.tokenise( name, TokenisationStrategy.ADAPTIVE, 
+                    library.tokenisers(), uncached, splitter, InternPool.NONE );
+        }
+        for ( String name : names ) {
+            List<Token> split = splitter.split( name );
+            if ( split != null ) {
+                TokenisedName full = FileData.tokenise( name, 
+                        TokenisationStrategy.FULL, library.tokenisers(), 
+                        uncached, splitter, InternPool.NONE );
+                assertThat( "Expected the same tokens as intt for " + name, 
+                        content( split ), 
+                        is( content( full.tokens() ) ) );
+            }
+        }
+        assertThat( "Expected names to be split once their words are known", 
+                splitter.split( "getUserName" ), 
+                notNullValue() );
+    }
+
+    // a splitter that knows some words, as if intt had returned them
+    private static NameSplitter splitter( String... words ) {
+        NameSplitter splitter = new NameSplitter();
+        List<Token> tokens = new ArrayList<>();
+        for ( String word : words ) {
+            tokens.add( new Token( word, Collections.emptyList() ) );
+        }
+        splitter.learn( tokens );
+        return splitter;
+    }
+
+    // tokens are compared as FileData.tokens() reports them
+    private static List<String> content( List<Token> tokens ) {
+        return tokens.stream()
+                .map( token -> token.getContent().toLowerCase() )
+                .collect( Collectors.toList() );
+    }
+
+    private static List<String> split( NameSplitter splitter, String name ) {
+        return splitter.split( name ).stream()
+                .map( Token::getContent )
+                .collect( Collectors.toList() );
+    }
+}
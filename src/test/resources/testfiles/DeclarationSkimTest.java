@@ -0,0 +1,101 @@
+/*
+    Copyright (C) 2018 Simon Butler
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+ */
+package skim.test;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Mixes declarations with bodies that contain further names.
+ */
+@SuppressWarnings( { "unchecked", "rawtypes" } )
+public class DeclarationSkimTest {
+    private static final int[] SIZES = { 1, 2, 3 };
+    
+    private final Comparator<String> byLength = new Comparator<String>() {
+        @Override
+        public int compare( String first, String second ) {
+            int difference = first.length() - second.length();
+            return difference;
+        }
+    };
+    
+    private final Function<String, Integer> measure = text -> text.length();
+    
+    private final Function<String, Integer> parse = value -> {
+        int inLambda = value.length();
+        return inLambda;
+    };
+    
+    private final Thread worker = new Thread( new Runnable() {
+        private int runs = 0;
+        
+        public void run() { int anonLocal = runs; }
+    } );
+    
+    static {
+        int staticLocal = SIZES.length;
+    }
+    
+    {
+        int instanceLocal = 0;
+    }
+    
+    public DeclarationSkimTest( String name ) throws IllegalArgumentException {
+        String copy = name;
+    }
+    
+    @Deprecated
+    public <T extends Comparable<T>> T largest( T left, T right ) {
+        class LocalHolder {
+            T held;
+        }
+        outer:
+        for ( int index = 0; index < 2; index++ ) {
+            break outer;
+        }
+        return left.compareTo( right ) > 0 ? left : right;
+    }
+    
+    enum Direction {
+        UP {
+            @Override
+            int sign() { int up = 1; return up; }
+        },
+        DOWN( -1 );
+        
+        private int value;
+        
+        Direction() { this( 1 ); }
+        
+        Direction( int value ) { this.value = value; }
+        
+        int sign() { return value; }
+    }
+    
+    interface Shape {
+        double area();
+        
+        default String describe( String prefix ) {
+            String description = prefix + area();
+            return description;
+        }
+    }
+    
+    @interface Marker {
+        String label() default "none";
+    }
+}
@@ -0,0 +1,28 @@
+/*
+    Copyright (C) 2019 Simon Butler
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+ */
+// $ANTLR 3.5.2 Expression.g 2019-11-20 10:15:42
+package generated.test;
+
+/**
+ * A file carrying the marker left by ANTLR 3 in the files it generates.
+ */
+public class GeneratedParserTest {
+    private int ruleIndex;
+
+    public void expression( int precedence ) {
+        int start = this.ruleIndex;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+    Copyright (C) 2019 Simon Butler
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+ */
+package division.test;
+
+import java.util.Comparator;
+import java.util.function.Supplier;
+
+/**
+ * Members whose ends are hard to find by matching braces.
+ */
+@SuppressWarnings( { "unchecked", "rawtypes" } )
+public class MemberDivisionTest<T> {
+    private static final int[] SIZES = { 1, 2, 3 };
+    private final Comparator<String> byLength = new Comparator<String>() {
+        @Override
+        public int compare( String first, String second ) {
+            int difference = first.length() - second.length();
+            return difference;
+        }
+    };
+    private Supplier<String> greeting = () -> { String text = "hello"; return text; };
+    private int count, total = 0;
+
+    static {
+        int initialised = SIZES.length;
+    }
+
+    {
+        int instance = 0;
+    }
+    ;
+
+    public MemberDivisionTest( int start ) {
+        this.count = start;
+    }
+
+    @SuppressWarnings( value = { "unused" } )
+    <U extends Comparable<U>> U largest( U left, U right ) {
+        Runnable task = new Runnable() {
+            public void run() { int inner = 0; }
+        };
+        return left.compareTo( right ) > 0 ? left : right;
+    }
+
+    enum Direction {
+        UP( 1 ) { int sign() { return 1; } },
+        DOWN( -1 );
+
+        private final int value;
+
+        Direction( int value ) {
+            this.value = value;
+        }
+
+        int sign() {
+            return this.value;
+        }
+    }
+
+    static class Nested {
+        String label = "nested";
+    }
+
+    abstract void describe( String prefix );
+}
+
+@Deprecated
+class SecondClass extends Object {
+    Class<?> type = SecondClass.class;
+
+    void act( int times ) {
+        for ( int i = 0; i < times; i++ ) {
+            label: for ( String s : new String[] { "a" } ) {
+                break label;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2019 Simon Butler.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package mehr.als.eine.komponente;
+/**
+ * Class with identifier names containing characters above 0x7F, 
+ * including one outside the basic multilingual plane.
+ * 
+ */
+public class UmlautBezeichnerTest {
+    private double maßstab = 1.0;
+    private String übersicht = "Größe";
+
+    public double berechneFläche( double breite, double höhe ) {
+        double ergebnis = breite * höhe * maßstab;
+        return ergebnis;
+    }
+
+    public double 𝑥Wert( double _€betrag ) {
+        return _€betrag;
+    }
+}